@@ -33,6 +33,11 @@ public class MainApplication extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        DatabaseManager.shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -1,19 +1,23 @@
 package com.cinema.controller;
 
 import com.cinema.model.Booking;
-import com.cinema.model.User;
+import com.cinema.model.Reference;
 import com.cinema.model.Screen;
+import com.cinema.model.User;
 import com.cinema.service.BookingService;
-import com.cinema.service.UserService;
-import com.cinema.service.ScreenService;
+import com.cinema.service.BookingSystemService;
 import com.cinema.service.impl.BookingServiceImpl;
-import com.cinema.service.impl.UserServiceImpl;
-import com.cinema.service.impl.ScreenServiceImpl;
+import com.cinema.service.impl.BookingSystemServiceImpl;
 import com.cinema.util.AlertUtil;
+import com.cinema.util.BackgroundLoader;
+import com.cinema.util.ExternalChangeMonitor;
+import com.cinema.util.LiveSearch;
+import com.cinema.util.PagedTableModel;
+import com.cinema.util.ReferenceDataStore;
+import com.cinema.util.ValidationUtil;
 import com.cinema.exception.*;
 
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -21,13 +25,12 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 public class BookingController {
-    private static final Logger LOGGER = Logger.getLogger(BookingController.class.getName());
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 5;
 
     @FXML private TableView<Booking> bookingTable;
     @FXML private TableColumn<Booking, Integer> idColumn;
@@ -37,8 +40,8 @@ public class BookingController {
     @FXML private TableColumn<Booking, String> seatsColumn;
     @FXML private TableColumn<Booking, Double> totalPriceColumn;
 
-    @FXML private ComboBox<User> userComboBox;
-    @FXML private ComboBox<Screen> screenComboBox;
+    @FXML private ComboBox<Reference> userComboBox;
+    @FXML private ComboBox<Reference> screenComboBox;
     @FXML private TextField seatsField;
     @FXML private TextField searchField;
     @FXML private ComboBox<String> searchByComboBox;
@@ -50,22 +53,24 @@ public class BookingController {
     @FXML private Button deleteButton;
 
     private BookingService bookingService;
-    private UserService userService;
-    private ScreenService screenService;
-    private ObservableList<Booking> bookingList;
+    private BookingSystemService bookingSystemService;
+    private PagedTableModel<Booking> bookingPages;
+    private final BackgroundLoader loader = new BackgroundLoader();
+    private final LiveSearch<Booking> bookingSearch = new LiveSearch<>(this::handleSearch);
 
     @FXML
     public void initialize() {
         bookingService = new BookingServiceImpl();
-        userService = new UserServiceImpl();
-        screenService = new ScreenServiceImpl();
-        bookingList = FXCollections.observableArrayList();
+        bookingSystemService = new BookingSystemServiceImpl();
 
         setupTable();
         setupComboBoxes();
         loadBookings();
-        loadUsers();
-        loadScreens();
+        // Our own changes are applied to the table in place; reload only for other processes'
+        ExternalChangeMonitor.whileShowing(bookingTable, () -> {
+            bookingSearch.invalidate();
+            bookingPages.refresh();
+        });
     }
 
     private void setupTable() {
@@ -75,48 +80,32 @@ public class BookingController {
         showTimeColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getScreen().getShowTime()));
         seatsColumn.setCellValueFactory(cellData -> new SimpleStringProperty(String.join(", ", cellData.getValue().getReservedSeats())));
         totalPriceColumn.setCellValueFactory(new PropertyValueFactory<>("totalPrice"));
-        bookingTable.setItems(bookingList);
+        // Rows are paged in the Sort By order, so header clicks cannot sort them all
+        bookingTable.getColumns().forEach(column -> column.setSortable(false));
+        bookingPages = new PagedTableModel<>(bookingTable, PAGE_SIZE, MAX_PAGES, Booking::getId);
     }
 
     private void setupComboBoxes() {
+        userComboBox.setItems(ReferenceDataStore.get().users());
+        screenComboBox.setItems(ReferenceDataStore.get().screens());
         searchByComboBox.setItems(FXCollections.observableArrayList("id", "user", "movie"));
         sortByComboBox.setItems(FXCollections.observableArrayList("id", "showTime", "totalPrice"));
+        bookingSearch.watch(searchField.textProperty(), searchByComboBox.valueProperty(),
+                sortByComboBox.valueProperty(), ascendingCheckBox.selectedProperty());
     }
 
     private void loadBookings() {
-        try {
-            List<Booking> bookings = bookingService.getAllBookings();
-            bookingList.setAll(bookings);
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to load bookings", e);
-            AlertUtil.showError("Error", "Failed to load bookings: " + e.getMessage());
-        }
-    }
-
-    private void loadUsers() {
-        try {
-            List<User> users = userService.getAllUsers();
-            userComboBox.setItems(FXCollections.observableArrayList(users));
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to load users", e);
-            AlertUtil.showError("Error", "Failed to load users: " + e.getMessage());
-        }
-    }
-
-    private void loadScreens() {
-        try {
-            List<Screen> screens = screenService.getAllScreens();
-            screenComboBox.setItems(FXCollections.observableArrayList(screens));
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to load screens", e);
-            AlertUtil.showError("Error", "Failed to load screens: " + e.getMessage());
-        }
+        String sortBy = sortByComboBox.getValue();
+        // Until a sort is chosen, rows are listed in the order they were added
+        boolean ascending = sortBy == null || ascendingCheckBox.isSelected();
+        bookingPages.setSource((afterKey, limit) -> bookingService.getBookingPage(afterKey, limit, sortBy, ascending),
+                ascending && (sortBy == null || "id".equals(sortBy)));
     }
 
     @FXML
     private void handleAdd() {
-        User selectedUser = userComboBox.getValue();
-        Screen selectedScreen = screenComboBox.getValue();
+        Reference selectedUser = userComboBox.getValue();
+        Reference selectedScreen = screenComboBox.getValue();
         String seatsInput = seatsField.getText();
 
         if (selectedUser == null || selectedScreen == null || seatsInput.isEmpty()) {
@@ -124,24 +113,39 @@ public class BookingController {
             return;
         }
 
-        List<String> seats = Arrays.asList(seatsInput.split(","));
-        Booking booking = new Booking();
-        booking.setUser(selectedUser);
-        booking.setScreen(selectedScreen);
-        booking.setReservedSeats(seats);
-        booking.setBookingTime(LocalDateTime.now());
-
+        List<String> seats;
         try {
-            bookingService.addBooking(booking);
-            loadBookings();
-            clearFields();
-            AlertUtil.showInfo("Success", "Booking added successfully");
+            seats = parseSeats(seatsInput);
         } catch (ValidationException e) {
             AlertUtil.showError("Validation Error", e.getMessage());
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to add booking", e);
-            AlertUtil.showError("Error", "Failed to add booking: " + e.getMessage());
+            return;
+        }
+        BackgroundLoader.whenDone(bookingSystemService.bookSeatsAsync(selectedUser.getId(), selectedScreen.getId(), seats),
+                (booking, error) -> {
+                    if (error != null) {
+                        showFailure("add booking", error);
+                        return;
+                    }
+                    bookingSearch.invalidate();
+                    bookingPages.put(booking);
+                    clearFields();
+                    AlertUtil.showInfo("Success", "Booking added successfully");
+                });
+    }
+
+    private List<String> parseSeats(String seatsInput) throws ValidationException {
+        List<String> seats = new ArrayList<>();
+        for (String seat : seatsInput.split(",")) {
+            String label = seat.trim().toUpperCase();
+            if (label.isEmpty()) {
+                continue;
+            }
+            if (!ValidationUtil.isValidSeatNumber(label)) {
+                throw new ValidationException("Invalid seat number: " + label + ". Use a row letter and a seat number, e.g. A12");
+            }
+            seats.add(label);
         }
+        return seats;
     }
 
     @FXML
@@ -152,8 +156,8 @@ public class BookingController {
             return;
         }
 
-        User selectedUser = userComboBox.getValue();
-        Screen selectedScreen = screenComboBox.getValue();
+        Reference selectedUser = userComboBox.getValue();
+        Reference selectedScreen = screenComboBox.getValue();
         String seatsInput = seatsField.getText();
 
         if (selectedUser == null || selectedScreen == null || seatsInput.isEmpty()) {
@@ -161,24 +165,28 @@ public class BookingController {
             return;
         }
 
-        List<String> seats = Arrays.asList(seatsInput.split(","));
-        selectedBooking.setUser(selectedUser);
-        selectedBooking.setScreen(selectedScreen);
-        selectedBooking.setReservedSeats(seats);
-
+        // Edited on a copy, so the table keeps showing the stored booking if the update fails
+        Booking booking = new Booking(selectedBooking);
         try {
-            bookingService.updateBooking(selectedBooking);
-            loadBookings();
-            clearFields();
-            AlertUtil.showInfo("Success", "Booking updated successfully");
+            booking.setReservedSeats(parseSeats(seatsInput));
         } catch (ValidationException e) {
             AlertUtil.showError("Validation Error", e.getMessage());
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to update booking", e);
-            AlertUtil.showError("Error", "Failed to update booking: " + e.getMessage());
-        } catch (NotFoundException e) {
-            AlertUtil.showError("Error", "Booking not found: " + e.getMessage());
+            return;
         }
+        // Saved by id; the row is re-read in the background for the names and show time it displays
+        booking.setUser(userOf(selectedUser));
+        booking.setScreen(screenOf(selectedScreen));
+        BackgroundLoader.whenDone(bookingService.updateBookingAsync(booking), (ignored, error) -> {
+            if (error != null) {
+                showFailure("update booking", error);
+                return;
+            }
+            bookingSearch.invalidate();
+            loader.load("booking " + booking.getId(), "reload booking",
+                    () -> bookingService.getBookingById(booking.getId()), bookingPages::put);
+            clearFields();
+            AlertUtil.showInfo("Success", "Booking updated successfully");
+        });
     }
 
     @FXML
@@ -189,33 +197,69 @@ public class BookingController {
             return;
         }
 
-        try {
-            bookingService.deleteBooking(selectedBooking.getId());
-            loadBookings();
+        BackgroundLoader.whenDone(bookingService.deleteBookingAsync(selectedBooking.getId()), (ignored, error) -> {
+            if (error instanceof NotFoundException) {
+                AlertUtil.showError("Error", "Booking not found: " + error.getMessage());
+                return;
+            }
+            if (error != null) {
+                showFailure("delete booking", error);
+                return;
+            }
+            bookingSearch.invalidate();
+            bookingPages.remove(selectedBooking.getId());
             clearFields();
             AlertUtil.showInfo("Success", "Booking deleted successfully");
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to delete booking", e);
-            AlertUtil.showError("Error", "Failed to delete booking: " + e.getMessage());
-        } catch (NotFoundException e) {
-            AlertUtil.showError("Error", "Booking not found: " + e.getMessage());
+        });
+    }
+
+    /**
+     * Show why an add, update or delete failed; {@code what} completes "Failed to ...".
+     */
+    private static void showFailure(String what, Throwable error) {
+        if (error instanceof SeatUnavailableException) {
+            AlertUtil.showError("Seats Unavailable", "These seats were just sold: "
+                    + String.join(", ", ((SeatUnavailableException) error).getUnavailableSeats())
+                    + ". Please choose other seats.");
+        } else if (error instanceof BookingException) {
+            AlertUtil.showError("Booking Error", error.getMessage());
+        } else if (error instanceof ValidationException) {
+            AlertUtil.showError("Validation Error", error.getMessage());
+        } else if (error instanceof NotFoundException) {
+            AlertUtil.showError("Error", error.getMessage());
+        } else {
+            BackgroundLoader.showFailure(what, error);
         }
     }
 
     @FXML
     private void handleSearch() {
-        String searchTerm = searchField.getText();
+        String searchTerm = searchField.getText().trim();
         String searchBy = searchByComboBox.getValue();
         String sortBy = sortByComboBox.getValue();
         boolean ascending = ascendingCheckBox.isSelected();
 
-        try {
-            List<Booking> searchResults = bookingService.searchBookings(searchTerm, searchBy, sortBy, ascending);
-            bookingList.setAll(searchResults);
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to search bookings", e);
-            AlertUtil.showError("Error", "Failed to search bookings: " + e.getMessage());
+        if (searchTerm.isEmpty()) {
+            // Clearing the search box goes back to paging through every booking
+            bookingSearch.cancelPending();
+            loadBookings();
+            return;
         }
+        bookingPages.showAll("search bookings", bookingSearch.cached(
+                () -> bookingService.searchBookings(searchTerm, searchBy, sortBy, ascending),
+                searchTerm, searchBy, sortBy, ascending));
+    }
+
+    private static User userOf(Reference reference) {
+        User user = new User();
+        user.setId(reference.getId());
+        return user;
+    }
+
+    private static Screen screenOf(Reference reference) {
+        Screen screen = new Screen();
+        screen.setId(reference.getId());
+        return screen;
     }
 
     private void clearFields() {
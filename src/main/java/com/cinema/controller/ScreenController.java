@@ -1,16 +1,19 @@
 package com.cinema.controller;
 
+import com.cinema.model.Reference;
 import com.cinema.model.Screen;
 import com.cinema.model.Theater;
 import com.cinema.service.ScreenService;
-import com.cinema.service.TheaterService;
 import com.cinema.service.impl.ScreenServiceImpl;
-import com.cinema.service.impl.TheaterServiceImpl;
 import com.cinema.util.AlertUtil;
+import com.cinema.util.BackgroundLoader;
+import com.cinema.util.ExternalChangeMonitor;
+import com.cinema.util.LiveSearch;
+import com.cinema.util.PagedTableModel;
+import com.cinema.util.ReferenceDataStore;
 import com.cinema.exception.*;
 
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -18,12 +21,11 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.time.format.DateTimeParseException;
 
 public class ScreenController {
-    private static final Logger LOGGER = Logger.getLogger(ScreenController.class.getName());
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 5;
 
     @FXML private TableView<Screen> screenTable;
     @FXML private TableColumn<Screen, Integer> idColumn;
@@ -34,7 +36,7 @@ public class ScreenController {
     @FXML private TextField movieNameField;
     @FXML private DatePicker showDatePicker;
     @FXML private TextField showTimeField;
-    @FXML private ComboBox<Theater> theaterComboBox;
+    @FXML private ComboBox<Reference> theaterComboBox;
     @FXML private TextField searchField;
     @FXML private ComboBox<String> sortByComboBox;
     @FXML private CheckBox ascendingCheckBox;
@@ -44,19 +46,21 @@ public class ScreenController {
     @FXML private Button deleteButton;
 
     private ScreenService screenService;
-    private TheaterService theaterService;
-    private ObservableList<Screen> screenList;
+    private PagedTableModel<Screen> screenPages;
+    private final LiveSearch<Screen> screenSearch = new LiveSearch<>(this::handleSearch);
 
     @FXML
     public void initialize() {
         screenService = new ScreenServiceImpl();
-        theaterService = new TheaterServiceImpl();
-        screenList = FXCollections.observableArrayList();
 
         setupTable();
         setupComboBoxes();
         loadScreens();
-        loadTheaters();
+        // Our own changes are applied to the table in place; reload only for other processes'
+        ExternalChangeMonitor.whileShowing(screenTable, () -> {
+            screenSearch.invalidate();
+            screenPages.refresh();
+        });
     }
 
     private void setupTable() {
@@ -64,31 +68,23 @@ public class ScreenController {
         movieNameColumn.setCellValueFactory(new PropertyValueFactory<>("movieName"));
         showTimeColumn.setCellValueFactory(new PropertyValueFactory<>("showTime"));
         theaterColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(cellData.getValue().getTheater().getName()));
-        screenTable.setItems(screenList);
+        // Rows are paged in the Sort By order, so header clicks cannot sort them all
+        screenTable.getColumns().forEach(column -> column.setSortable(false));
+        screenPages = new PagedTableModel<>(screenTable, PAGE_SIZE, MAX_PAGES, Screen::getId);
     }
 
     private void setupComboBoxes() {
+        theaterComboBox.setItems(ReferenceDataStore.get().theaters());
         sortByComboBox.setItems(FXCollections.observableArrayList("movieName", "showTime"));
+        screenSearch.watch(searchField.textProperty(), sortByComboBox.valueProperty(), ascendingCheckBox.selectedProperty());
     }
 
     private void loadScreens() {
-        try {
-            List<Screen> screens = screenService.getAllScreens();
-            screenList.setAll(screens);
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to load screens", e);
-            AlertUtil.showError("Error", "Failed to load screens: " + e.getMessage());
-        }
-    }
-
-    private void loadTheaters() {
-        try {
-            List<Theater> theaters = theaterService.getAllTheaters();
-            theaterComboBox.setItems(FXCollections.observableArrayList(theaters));
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to load theaters", e);
-            AlertUtil.showError("Error", "Failed to load theaters: " + e.getMessage());
-        }
+        String sortBy = sortByComboBox.getValue();
+        // Until a sort is chosen, rows are listed in the order they were added
+        boolean ascending = sortBy == null || ascendingCheckBox.isSelected();
+        screenPages.setSource((afterKey, limit) -> screenService.getScreenPage(afterKey, limit, sortBy, ascending),
+                ascending && (sortBy == null || "id".equals(sortBy)));
     }
 
     @FXML
@@ -96,34 +92,33 @@ public class ScreenController {
         String movieName = movieNameField.getText();
         LocalDate showDate = showDatePicker.getValue();
         String showTimeString = showTimeField.getText();
-        Theater selectedTheater = theaterComboBox.getValue();
+        Reference selectedTheater = theaterComboBox.getValue();
 
         if (movieName.isEmpty() || showDate == null || showTimeString.isEmpty() || selectedTheater == null) {
             AlertUtil.showError("Error", "Please fill in all fields");
             return;
         }
 
-        try {
-            LocalTime showTime = LocalTime.parse(showTimeString);
-            LocalDateTime showDateTime = LocalDateTime.of(showDate, showTime);
-
-            Screen screen = new Screen();
-            screen.setMovieName(movieName);
-            screen.setShowTime(showDateTime);
-            screen.setTheater(selectedTheater);
-
-            screenService.addScreen(screen);
-            loadScreens();
+        LocalDateTime showDateTime = parseShowTime(showDate, showTimeString);
+        if (showDateTime == null) {
+            return;
+        }
+        Screen screen = new Screen();
+        screen.setMovieName(movieName);
+        screen.setShowTime(showDateTime);
+        screen.setTheater(theaterOf(selectedTheater));
+
+        BackgroundLoader.whenDone(screenService.addScreenAsync(screen), (ignored, error) -> {
+            if (error != null) {
+                showFailure("add screen", error);
+                return;
+            }
+            screenSearch.invalidate();
+            screenPages.put(screen);
+            ReferenceDataStore.get().putScreen(screen);
             clearFields();
             AlertUtil.showInfo("Success", "Screen added successfully");
-        } catch (ValidationException e) {
-            AlertUtil.showError("Validation Error", e.getMessage());
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to add screen", e);
-            AlertUtil.showError("Error", "Failed to add screen: " + e.getMessage());
-        } catch (Exception e) {
-            AlertUtil.showError("Error", "Invalid time format. Please use HH:mm");
-        }
+        });
     }
 
     @FXML
@@ -137,35 +132,34 @@ public class ScreenController {
         String movieName = movieNameField.getText();
         LocalDate showDate = showDatePicker.getValue();
         String showTimeString = showTimeField.getText();
-        Theater selectedTheater = theaterComboBox.getValue();
+        Reference selectedTheater = theaterComboBox.getValue();
 
         if (movieName.isEmpty() || showDate == null || showTimeString.isEmpty() || selectedTheater == null) {
             AlertUtil.showError("Error", "Please fill in all fields");
             return;
         }
 
-        try {
-            LocalTime showTime = LocalTime.parse(showTimeString);
-            LocalDateTime showDateTime = LocalDateTime.of(showDate, showTime);
-
-            selectedScreen.setMovieName(movieName);
-            selectedScreen.setShowTime(showDateTime);
-            selectedScreen.setTheater(selectedTheater);
-
-            screenService.updateScreen(selectedScreen);
-            loadScreens();
+        LocalDateTime showDateTime = parseShowTime(showDate, showTimeString);
+        if (showDateTime == null) {
+            return;
+        }
+        // Edited on a copy, so the table keeps showing the stored screen if the update fails
+        Screen screen = new Screen(selectedScreen);
+        screen.setMovieName(movieName);
+        screen.setShowTime(showDateTime);
+        screen.setTheater(theaterOf(selectedTheater));
+
+        BackgroundLoader.whenDone(screenService.updateScreenAsync(screen), (ignored, error) -> {
+            if (error != null) {
+                showFailure("update screen", error);
+                return;
+            }
+            screenSearch.invalidate();
+            screenPages.put(screen);
+            ReferenceDataStore.get().putScreen(screen);
             clearFields();
             AlertUtil.showInfo("Success", "Screen updated successfully");
-        } catch (ValidationException e) {
-            AlertUtil.showError("Validation Error", e.getMessage());
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to update screen", e);
-            AlertUtil.showError("Error", "Failed to update screen: " + e.getMessage());
-        } catch (NotFoundException e) {
-            AlertUtil.showError("Error", "Screen not found: " + e.getMessage());
-        } catch (Exception e) {
-            AlertUtil.showError("Error", "Invalid time format. Please use HH:mm");
-        }
+        });
     }
 
     @FXML
@@ -176,32 +170,73 @@ public class ScreenController {
             return;
         }
 
-        try {
-            screenService.deleteScreen(selectedScreen.getId());
-            loadScreens();
+        BackgroundLoader.whenDone(screenService.deleteScreenAsync(selectedScreen.getId()), (ignored, error) -> {
+            if (error instanceof NotFoundException) {
+                AlertUtil.showError("Error", "Screen not found: " + error.getMessage());
+                return;
+            }
+            if (error != null) {
+                showFailure("delete screen", error);
+                return;
+            }
+            screenSearch.invalidate();
+            screenPages.remove(selectedScreen.getId());
+            ReferenceDataStore.get().removeScreen(selectedScreen.getId());
             clearFields();
             AlertUtil.showInfo("Success", "Screen deleted successfully");
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to delete screen", e);
-            AlertUtil.showError("Error", "Failed to delete screen: " + e.getMessage());
-        } catch (NotFoundException e) {
-            AlertUtil.showError("Error", "Screen not found: " + e.getMessage());
+        });
+    }
+
+    /**
+     * The chosen show time, or {@code null} after telling the user it could not be read.
+     */
+    private static LocalDateTime parseShowTime(LocalDate showDate, String showTimeString) {
+        try {
+            return LocalDateTime.of(showDate, LocalTime.parse(showTimeString));
+        } catch (DateTimeParseException e) {
+            AlertUtil.showError("Error", "Invalid time format. Please use HH:mm");
+            return null;
+        }
+    }
+
+    /**
+     * Show why an add, update or delete failed; {@code what} completes "Failed to ...".
+     */
+    private static void showFailure(String what, Throwable error) {
+        if (error instanceof ValidationException) {
+            AlertUtil.showError("Validation Error", error.getMessage());
+        } else if (error instanceof NotFoundException) {
+            AlertUtil.showError("Error", error.getMessage());
+        } else {
+            BackgroundLoader.showFailure(what, error);
         }
     }
 
     @FXML
     private void handleSearch() {
-        String movieName = searchField.getText();
+        String movieName = searchField.getText().trim();
         String sortBy = sortByComboBox.getValue();
         boolean ascending = ascendingCheckBox.isSelected();
 
-        try {
-            List<Screen> searchResults = screenService.searchScreens(movieName, sortBy, ascending);
-            screenList.setAll(searchResults);
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Failed to search screens", e);
-            AlertUtil.showError("Error", "Failed to search screens: " + e.getMessage());
+        if (movieName.isEmpty()) {
+            // Clearing the search box goes back to paging through every screen
+            screenSearch.cancelPending();
+            loadScreens();
+            return;
         }
+        screenPages.showAll("search screens", screenSearch.cached(
+                () -> screenService.searchScreens(movieName, sortBy, ascending), movieName, sortBy, ascending));
+    }
+
+    /**
+     * The screen is saved by theater id, and its row and combo box label show
+     * only the theater's name, which the reference already carries.
+     */
+    private static Theater theaterOf(Reference reference) {
+        Theater theater = new Theater();
+        theater.setId(reference.getId());
+        theater.setName(reference.getLabel());
+        return theater;
     }
 
     private void clearFields() {
@@ -4,6 +4,10 @@ import com.cinema.model.Theater;
 import com.cinema.service.TheaterService;
 import com.cinema.service.impl.TheaterServiceImpl;
 import com.cinema.util.AlertUtil;
+import com.cinema.util.BackgroundLoader;
+import com.cinema.util.ExternalChangeMonitor;
+import com.cinema.util.LiveSearch;
+import com.cinema.util.ReferenceDataStore;
 import com.cinema.exception.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -11,8 +15,6 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.util.List;
-
 public class TheaterController {
 
     @FXML private TableView<Theater> theaterTable;
@@ -32,6 +34,8 @@ public class TheaterController {
 
     private TheaterService theaterService;
     private ObservableList<Theater> theaterList;
+    private final BackgroundLoader loader = new BackgroundLoader();
+    private final LiveSearch<Theater> theaterSearch = new LiveSearch<>(this::handleSearch);
 
     @FXML
     public void initialize() {
@@ -42,6 +46,11 @@ public class TheaterController {
         setupComboBoxes();
         loadTheaters();
         setupSelectionListener();
+        // Our own changes are applied to the list in place; reload only for other processes'
+        ExternalChangeMonitor.whileShowing(theaterTable, () -> {
+            theaterSearch.invalidate();
+            handleSearch();
+        });
     }
 
     private void setupTable() {
@@ -49,19 +58,30 @@ public class TheaterController {
         nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
         addressColumn.setCellValueFactory(new PropertyValueFactory<>("address"));
         theaterTable.setItems(theaterList);
+        loader.showProgressIn(theaterTable);
     }
 
     private void setupComboBoxes() {
         searchByComboBox.setItems(FXCollections.observableArrayList("name", "address"));
+        theaterSearch.watch(searchField.textProperty(), searchByComboBox.valueProperty(), ascendingCheckBox.selectedProperty());
     }
 
     private void loadTheaters() {
-        try {
-            List<Theater> theaters = theaterService.getAllTheaters();
-            theaterList.setAll(theaters);
-        } catch (DatabaseException e) {
-            AlertUtil.showError("Error", "Failed to load theaters: " + e.getMessage());
+        // Searches use the same key, so whichever was started last is shown
+        loader.loadInto("theaters", "load theaters", theaterService::getAllTheaters, theaterList);
+    }
+
+    /**
+     * Replace the listed theater with the same id, or add it.
+     */
+    private void showTheater(Theater theater) {
+        for (int i = 0; i < theaterList.size(); i++) {
+            if (theaterList.get(i).getId() == theater.getId()) {
+                theaterList.set(i, theater);
+                return;
+            }
         }
+        theaterList.add(theater);
     }
 
     private void setupSelectionListener() {
@@ -93,16 +113,17 @@ public class TheaterController {
         theater.setName(name);
         theater.setAddress(address);
 
-        try {
-            theaterService.addTheater(theater);
-            loadTheaters();
+        BackgroundLoader.whenDone(theaterService.addTheaterAsync(theater), (added, error) -> {
+            if (error != null) {
+                showFailure("add theater", error);
+                return;
+            }
+            theaterSearch.invalidate();
+            showTheater(added);
+            ReferenceDataStore.get().putTheater(added);
             clearFields();
             AlertUtil.showInfo("Success", "Theater added successfully");
-        } catch (ValidationException e) {
-            AlertUtil.showError("Validation Error", e.getMessage());
-        } catch (DatabaseException e) {
-            AlertUtil.showError("Error", "Failed to add theater: " + e.getMessage());
-        }
+        });
     }
 
     @FXML
@@ -121,21 +142,22 @@ public class TheaterController {
             return;
         }
 
-        selectedTheater.setName(name);
-        selectedTheater.setAddress(address);
+        // Edited on a copy, so the table keeps showing the stored theater if the update fails
+        Theater theater = new Theater(selectedTheater);
+        theater.setName(name);
+        theater.setAddress(address);
 
-        try {
-            theaterService.updateTheater(selectedTheater);
-            loadTheaters();
+        BackgroundLoader.whenDone(theaterService.updateTheaterAsync(theater), (ignored, error) -> {
+            if (error != null) {
+                showFailure("update theater", error);
+                return;
+            }
+            theaterSearch.invalidate();
+            showTheater(theater);
+            ReferenceDataStore.get().putTheater(theater);
             clearFields();
             AlertUtil.showInfo("Success", "Theater updated successfully");
-        } catch (ValidationException e) {
-            AlertUtil.showError("Validation Error", e.getMessage());
-        } catch (DatabaseException e) {
-            AlertUtil.showError("Error", "Failed to update theater: " + e.getMessage());
-        } catch (NotFoundException e) {
-            AlertUtil.showError("Error", "Theater not found: " + e.getMessage());
-        }
+        });
     }
 
     @FXML
@@ -146,15 +168,29 @@ public class TheaterController {
             return;
         }
 
-        try {
-            theaterService.deleteTheater(selectedTheater.getId());
-            loadTheaters();
+        BackgroundLoader.whenDone(theaterService.deleteTheaterAsync(selectedTheater.getId()), (ignored, error) -> {
+            if (error != null) {
+                showFailure("delete theater", error);
+                return;
+            }
+            theaterSearch.invalidate();
+            theaterList.removeIf(theater -> theater.getId() == selectedTheater.getId());
+            ReferenceDataStore.get().removeTheater(selectedTheater.getId());
             clearFields();
             AlertUtil.showInfo("Success", "Theater deleted successfully");
-        } catch (DatabaseException e) {
-            AlertUtil.showError("Error", "Failed to delete theater: " + e.getMessage());
-        } catch (NotFoundException e) {
-            AlertUtil.showError("Error", "Theater not found: " + e.getMessage());
+        });
+    }
+
+    /**
+     * Show why an add, update or delete failed; {@code what} completes "Failed to ...".
+     */
+    private static void showFailure(String what, Throwable error) {
+        if (error instanceof ValidationException) {
+            AlertUtil.showError("Validation Error", error.getMessage());
+        } else if (error instanceof NotFoundException) {
+            AlertUtil.showError("Error", "Theater not found: " + error.getMessage());
+        } else {
+            BackgroundLoader.showFailure(what, error);
         }
     }
 
@@ -164,12 +200,14 @@ public class TheaterController {
         String searchBy = searchByComboBox.getValue();
         boolean ascending = ascendingCheckBox.isSelected();
 
-        try {
-            List<Theater> searchResults = theaterService.searchTheaters(searchTerm, searchBy, ascending);
-            theaterList.setAll(searchResults);
-        } catch (DatabaseException e) {
-            AlertUtil.showError("Error", "Failed to search theaters: " + e.getMessage());
+        if (searchTerm.isEmpty()) {
+            theaterSearch.cancelPending();
+            loadTheaters();
+            return;
         }
+        loader.loadInto("theaters", "search theaters", theaterSearch.cached(
+                () -> theaterService.searchTheaters(searchTerm, searchBy, ascending), searchTerm, searchBy, ascending),
+                theaterList);
     }
 
     private void clearFields() {
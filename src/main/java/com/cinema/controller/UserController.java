@@ -4,16 +4,20 @@ import com.cinema.model.User;
 import com.cinema.service.UserService;
 import com.cinema.service.impl.UserServiceImpl;
 import com.cinema.util.AlertUtil;
+import com.cinema.util.BackgroundLoader;
+import com.cinema.util.ExternalChangeMonitor;
+import com.cinema.util.LiveSearch;
+import com.cinema.util.PagedTableModel;
+import com.cinema.util.ReferenceDataStore;
 import com.cinema.exception.*;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-import java.util.List;
-
 public class UserController {
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 5;
 
     @FXML private TableView<User> userTable;
     @FXML private TableColumn<User, Integer> idColumn;
@@ -33,17 +37,22 @@ public class UserController {
     @FXML private Button updateButton;
 
     private UserService userService;
-    private ObservableList<User> userList;
+    private PagedTableModel<User> userPages;
+    private final LiveSearch<User> userSearch = new LiveSearch<>(this::handleSearch);
 
     @FXML
     public void initialize() {
         userService = new UserServiceImpl();
-        userList = FXCollections.observableArrayList();
 
         setupTable();
         setupComboBoxes();
         loadUsers();
         setupSelectionListener();
+        // Our own changes are applied to the table in place; reload only for other processes'
+        ExternalChangeMonitor.whileShowing(userTable, () -> {
+            userSearch.invalidate();
+            userPages.refresh();
+        });
     }
 
     private void setupTable() {
@@ -51,21 +60,24 @@ public class UserController {
         nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
         emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
         phoneColumn.setCellValueFactory(new PropertyValueFactory<>("phoneNumber"));
-        userTable.setItems(userList);
+        // Rows are paged in the Sort By order, so header clicks cannot sort them all
+        userTable.getColumns().forEach(column -> column.setSortable(false));
+        userPages = new PagedTableModel<>(userTable, PAGE_SIZE, MAX_PAGES, User::getId);
     }
 
     private void setupComboBoxes() {
         searchByComboBox.setItems(FXCollections.observableArrayList("name", "email", "phone"));
         sortByComboBox.setItems(FXCollections.observableArrayList("name", "email", "phone"));
+        userSearch.watch(searchField.textProperty(), searchByComboBox.valueProperty(),
+                sortByComboBox.valueProperty(), ascendingCheckBox.selectedProperty());
     }
 
     private void loadUsers() {
-        try {
-            List<User> users = userService.getAllUsers();
-            userList.setAll(users);
-        } catch (DatabaseException e) {
-            AlertUtil.showError("Error", "Failed to load users: " + e.getMessage());
-        }
+        String sortBy = sortByComboBox.getValue();
+        // Until a sort is chosen, rows are listed in the order they were added
+        boolean ascending = sortBy == null || ascendingCheckBox.isSelected();
+        userPages.setSource((afterKey, limit) -> userService.getUserPage(afterKey, limit, sortBy, ascending),
+                ascending && (sortBy == null || "id".equals(sortBy)));
     }
 
     private void setupSelectionListener() {
@@ -98,18 +110,17 @@ public class UserController {
         user.setEmail(email);
         user.setPhoneNumber(phone);
 
-        try {
-            userService.addUser(user);
-            loadUsers();
+        BackgroundLoader.whenDone(userService.addUserAsync(user), (added, error) -> {
+            if (error != null) {
+                showFailure("add user", error);
+                return;
+            }
+            userSearch.invalidate();
+            userPages.put(added);
+            ReferenceDataStore.get().putUser(added);
             clearFields();
             AlertUtil.showInfo("Success", "User added successfully");
-        } catch (ValidationException e) {
-            AlertUtil.showError("Validation Error", e.getMessage());
-        } catch (DatabaseException e) {
-            AlertUtil.showError("Error", "Failed to add user: " + e.getMessage());
-        } catch (DuplicateEntityException e) {
-            AlertUtil.showError("Error", "User with this email already exists");
-        }
+        });
     }
 
     @FXML
@@ -129,21 +140,37 @@ public class UserController {
             return;
         }
 
-        selectedUser.setName(name);
-        selectedUser.setEmail(email);
-        selectedUser.setPhoneNumber(phone);
+        // Edited on a copy, so the table keeps showing the stored user if the update fails
+        User user = new User(name, email, phone);
+        user.setId(selectedUser.getId());
 
-        try {
-            userService.updateUser(selectedUser);
-            loadUsers();
+        BackgroundLoader.whenDone(userService.updateUserAsync(user), (ignored, error) -> {
+            if (error instanceof NotFoundException) {
+                AlertUtil.showError("Error", "User not found: " + error.getMessage());
+                return;
+            }
+            if (error != null) {
+                showFailure("update user", error);
+                return;
+            }
+            userSearch.invalidate();
+            userPages.put(user);
+            ReferenceDataStore.get().putUser(user);
             clearFields();
             AlertUtil.showInfo("Success", "User updated successfully");
-        } catch (ValidationException e) {
-            AlertUtil.showError("Validation Error", e.getMessage());
-        } catch (DatabaseException e) {
-            AlertUtil.showError("Error", "Failed to update user: " + e.getMessage());
-        } catch (NotFoundException e) {
-            AlertUtil.showError("Error", "User not found: " + e.getMessage());
+        });
+    }
+
+    /**
+     * Show why an add or update failed; {@code what} completes "Failed to ...".
+     */
+    private static void showFailure(String what, Throwable error) {
+        if (error instanceof ValidationException) {
+            AlertUtil.showError("Validation Error", error.getMessage());
+        } else if (error instanceof DuplicateEntityException) {
+            AlertUtil.showError("Error", "User with this email already exists");
+        } else {
+            BackgroundLoader.showFailure(what, error);
         }
     }
 
@@ -154,12 +181,15 @@ public class UserController {
         String sortBy = sortByComboBox.getValue();
         boolean ascending = ascendingCheckBox.isSelected();
 
-        try {
-            List<User> searchResults = userService.searchUsers(searchTerm, searchBy, sortBy, ascending);
-            userList.setAll(searchResults);
-        } catch (DatabaseException e) {
-            AlertUtil.showError("Error", "Failed to search users: " + e.getMessage());
+        if (searchTerm.isEmpty()) {
+            // Clearing the search box goes back to paging through every user
+            userSearch.cancelPending();
+            loadUsers();
+            return;
         }
+        userPages.showAll("search users", userSearch.cached(
+                () -> userService.searchUsers(searchTerm, searchBy, sortBy, ascending),
+                searchTerm, searchBy, sortBy, ascending));
     }
 
     private void clearFields() {
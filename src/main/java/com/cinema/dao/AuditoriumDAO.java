@@ -0,0 +1,213 @@
+package com.cinema.dao;
+
+import com.cinema.model.Auditorium;
+import com.cinema.model.SeatMap;
+import com.cinema.model.Theater;
+import com.cinema.dao.interfaces.PagedDAO;
+import com.cinema.util.DatabaseManager;
+import com.cinema.exception.DatabaseException;
+import com.cinema.exception.NotFoundException;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AuditoriumDAO implements PagedDAO<Auditorium> {
+
+    private static final String INSERT_AUDITORIUM = "INSERT INTO auditoriums (theater_id, name, row_count, seats_per_row, blocked_seats, accessible_seats, seat_categories) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ALL_AUDITORIUMS = "SELECT * FROM auditoriums";
+    private static final String SELECT_AUDITORIUM_BY_ID = "SELECT * FROM auditoriums WHERE id = ?";
+    private static final String SELECT_AUDITORIUMS_BY_THEATER = "SELECT * FROM auditoriums WHERE theater_id = ? ORDER BY id";
+    private static final String UPDATE_AUDITORIUM = "UPDATE auditoriums SET theater_id = ?, name = ?, row_count = ?, seats_per_row = ?, blocked_seats = ?, accessible_seats = ?, seat_categories = ? WHERE id = ?";
+    private static final String DELETE_AUDITORIUM = "DELETE FROM auditoriums WHERE id = ?";
+    private static final Map<String, String> SORT_COLUMNS = Map.of("id", "id", "name", "name");
+
+    public Auditorium create(Auditorium auditorium) throws DatabaseException {
+        try (Connection conn = DatabaseManager.getWriteConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_AUDITORIUM, Statement.RETURN_GENERATED_KEYS)) {
+
+            setAuditoriumParameters(stmt, auditorium);
+
+            int affectedRows = stmt.executeUpdate();
+
+            if (affectedRows == 0) {
+                throw new DatabaseException("Creating auditorium failed, no rows affected.");
+            }
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    auditorium.setId(generatedKeys.getInt(1));
+                } else {
+                    throw new DatabaseException("Creating auditorium failed, no ID obtained.");
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error creating auditorium", e);
+        }
+        return auditorium;
+    }
+
+    public Auditorium findById(int id) throws DatabaseException, NotFoundException {
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_AUDITORIUM_BY_ID)) {
+
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return extractAuditoriumFromResultSet(rs);
+                } else {
+                    throw new NotFoundException("Auditorium with id " + id + " not found.");
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding auditorium by ID", e);
+        }
+    }
+
+    public List<Auditorium> findByTheater(int theaterId) throws DatabaseException {
+        List<Auditorium> auditoriums = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_AUDITORIUMS_BY_THEATER)) {
+
+            stmt.setInt(1, theaterId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    auditoriums.add(extractAuditoriumFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding auditoriums for theater " + theaterId, e);
+        }
+        return auditoriums;
+    }
+
+    @Override
+    public Page<Auditorium> findPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException {
+        return new KeysetQuery(SELECT_ALL_AUDITORIUMS, null, SORT_COLUMNS, sortBy, "id", ascending)
+                .fetch(afterKey, limit, this::extractAuditoriumFromResultSet);
+    }
+
+    public void update(Auditorium auditorium) throws DatabaseException {
+        try (Connection conn = DatabaseManager.getWriteConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_AUDITORIUM)) {
+
+            setAuditoriumParameters(stmt, auditorium);
+            stmt.setInt(8, auditorium.getId());
+
+            int affectedRows = stmt.executeUpdate();
+            ScreenDAO.invalidateAllCached();
+
+            if (affectedRows == 0) {
+                throw new DatabaseException("Updating auditorium failed, no rows affected.");
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating auditorium", e);
+        }
+    }
+
+    public void delete(int id) throws DatabaseException {
+        try (Connection conn = DatabaseManager.getWriteConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_AUDITORIUM)) {
+
+            stmt.setInt(1, id);
+
+            int affectedRows = stmt.executeUpdate();
+            ScreenDAO.invalidateAllCached();
+
+            if (affectedRows == 0) {
+                throw new DatabaseException("Deleting auditorium failed, no rows affected.");
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error deleting auditorium", e);
+        }
+    }
+
+    /**
+     * Insert all auditoriums in one transaction using JDBC batches; generated
+     * ids are set on the given objects.
+     */
+    public List<Auditorium> createAll(List<Auditorium> auditoriums) throws DatabaseException {
+        BatchWriter.insert(INSERT_AUDITORIUM, auditoriums, BatchWriter.defaultBatchSize(),
+                this::setAuditoriumParameters, Auditorium::setId, "auditorium");
+        return auditoriums;
+    }
+
+    public void updateAll(List<Auditorium> auditoriums) throws DatabaseException {
+        BatchWriter.execute(UPDATE_AUDITORIUM, auditoriums, BatchWriter.defaultBatchSize(), (stmt, auditorium) -> {
+            setAuditoriumParameters(stmt, auditorium);
+            stmt.setInt(8, auditorium.getId());
+        }, "Updating auditorium");
+        ScreenDAO.invalidateAllCached();
+    }
+
+    public void deleteAll(List<Integer> ids) throws DatabaseException {
+        BatchWriter.execute(DELETE_AUDITORIUM, ids, BatchWriter.defaultBatchSize(),
+                (stmt, id) -> stmt.setInt(1, id), "Deleting auditorium");
+        ScreenDAO.invalidateAllCached();
+    }
+
+    private void setAuditoriumParameters(PreparedStatement stmt, Auditorium auditorium) throws SQLException {
+        stmt.setInt(1, auditorium.getTheater().getId());
+        stmt.setString(2, auditorium.getName());
+        stmt.setInt(3, auditorium.getRows());
+        stmt.setInt(4, auditorium.getSeatsPerRow());
+        stmt.setString(5, auditorium.getBlockedSeats().serialize());
+        stmt.setString(6, auditorium.getAccessibleSeats().serialize());
+        stmt.setString(7, formatCategories(auditorium.getSeatCategories()));
+    }
+
+    private Auditorium extractAuditoriumFromResultSet(ResultSet rs) throws SQLException {
+        Auditorium auditorium = mapAuditorium(rs, "");
+        Theater theater = new Theater();
+        theater.setId(rs.getInt("theater_id"));
+        auditorium.setTheater(theater);
+        return auditorium;
+    }
+
+    /**
+     * Map the auditorium columns of a row, each named {@code prefix + column},
+     * so that queries joining auditoriums can alias them. The theater is left
+     * for the caller to set.
+     */
+    static Auditorium mapAuditorium(ResultSet rs, String prefix) throws SQLException {
+        Auditorium auditorium = new Auditorium();
+        auditorium.setId(rs.getInt(prefix + "id"));
+        auditorium.setName(rs.getString(prefix + "name"));
+        auditorium.setRows(rs.getInt(prefix + "row_count"));
+        auditorium.setSeatsPerRow(rs.getInt(prefix + "seats_per_row"));
+        auditorium.setBlockedSeats(SeatMap.parse(rs.getString(prefix + "blocked_seats")));
+        auditorium.setAccessibleSeats(SeatMap.parse(rs.getString(prefix + "accessible_seats")));
+        auditorium.setSeatCategories(parseCategories(rs.getString(prefix + "seat_categories")));
+        return auditorium;
+    }
+
+    /**
+     * Categories are stored as {@code NAME=<seat map>;NAME=<seat map>}.
+     */
+    static String formatCategories(Map<String, SeatMap> categories) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, SeatMap> category : categories.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(category.getKey()).append('=').append(category.getValue().serialize());
+        }
+        return sb.toString();
+    }
+
+    static Map<String, SeatMap> parseCategories(String value) {
+        Map<String, SeatMap> categories = new LinkedHashMap<>();
+        if (value == null || value.isEmpty()) {
+            return categories;
+        }
+        for (String entry : value.split(";")) {
+            int eq = entry.indexOf('=');
+            categories.put(entry.substring(0, eq), SeatMap.parse(entry.substring(eq + 1)));
+        }
+        return categories;
+    }
+}
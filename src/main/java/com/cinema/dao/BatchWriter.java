@@ -0,0 +1,123 @@
+package com.cinema.dao;
+
+import com.cinema.exception.DatabaseException;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.Transaction;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * JDBC batching for the DAOs' createAll, updateAll and deleteAll methods.
+ * <p>
+ * All rows are written in one transaction (joining the caller's, if any),
+ * sent to the driver {@code batchSize} rows at a time, and every row must
+ * affect exactly one record or the whole call is rolled back.
+ */
+final class BatchWriter {
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface IdSetter<T> {
+        void setId(T item, int id);
+    }
+
+    private BatchWriter() {
+    }
+
+    /**
+     * Rows per driver batch, from the runtime settings' {@code batchSize}.
+     */
+    static int defaultBatchSize() {
+        return DatabaseManager.getRuntimeSettings().getBatchSize();
+    }
+
+    /**
+     * Insert {@code items} and assign their generated ids.
+     * <p>
+     * The SQLite driver only reports the last generated key of a batch. Rows
+     * inserted one after another inside a single write transaction get
+     * consecutive ids, so the others are counted back from it.
+     */
+    static <T> void insert(String sql, List<T> items, int batchSize, Binder<T> binder, IdSetter<T> idSetter,
+                           String entityName) throws DatabaseException {
+        checkBatchSize(batchSize);
+        if (items.isEmpty()) {
+            return;
+        }
+        try (Transaction tx = DatabaseManager.beginTransaction();
+             Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement lastId = conn.prepareStatement("SELECT last_insert_rowid()")) {
+
+            for (int start = 0; start < items.size(); start += batchSize) {
+                List<T> chunk = items.subList(start, Math.min(start + batchSize, items.size()));
+                for (T item : chunk) {
+                    binder.bind(stmt, item);
+                    stmt.addBatch();
+                }
+                checkCounts(stmt.executeBatch(), "Creating " + entityName);
+
+                int id;
+                try (ResultSet rs = lastId.executeQuery()) {
+                    rs.next();
+                    id = rs.getInt(1) - chunk.size() + 1;
+                }
+                for (T item : chunk) {
+                    idSetter.setId(item, id++);
+                }
+            }
+            tx.commit();
+        } catch (SQLException e) {
+            throw new DatabaseException("Error creating " + entityName + "s: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run an UPDATE or DELETE once per item.
+     */
+    static <T> void execute(String sql, List<T> items, int batchSize, Binder<T> binder,
+                            String action) throws DatabaseException {
+        checkBatchSize(batchSize);
+        if (items.isEmpty()) {
+            return;
+        }
+        try (Transaction tx = DatabaseManager.beginTransaction();
+             Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int start = 0; start < items.size(); start += batchSize) {
+                for (T item : items.subList(start, Math.min(start + batchSize, items.size()))) {
+                    binder.bind(stmt, item);
+                    stmt.addBatch();
+                }
+                checkCounts(stmt.executeBatch(), action);
+            }
+            tx.commit();
+        } catch (SQLException e) {
+            throw new DatabaseException("Error " + action.toLowerCase() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void checkCounts(int[] counts, String action) throws DatabaseException {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 1 && counts[i] != Statement.SUCCESS_NO_INFO) {
+                throw new DatabaseException(action + " failed, no rows affected for batch entry " + i + ".");
+            }
+        }
+    }
+
+    private static void checkBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+    }
+}
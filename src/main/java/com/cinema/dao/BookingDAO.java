@@ -2,46 +2,67 @@ package com.cinema.dao;
 
 import com.cinema.model.Booking;
 import com.cinema.model.Screen;
+import com.cinema.model.SeatMap;
+import com.cinema.model.Theater;
 import com.cinema.model.User;
+import com.cinema.dao.interfaces.PagedDAO;
+import com.cinema.dao.interfaces.StreamingDAO;
 import com.cinema.util.DatabaseManager;
+import com.cinema.util.DateTimeUtil;
+import com.cinema.util.UnitOfWork;
 import com.cinema.exception.DatabaseException;
-import java.time.format.DateTimeFormatter;
-
-import com.cinema.exception.NotFoundException;
 
 import java.sql.*;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import java.util.stream.Stream;
 
-public class BookingDAO {
+public class BookingDAO implements PagedDAO<Booking>, StreamingDAO<Booking> {
     private static final Logger LOGGER = Logger.getLogger(BookingDAO.class.getName());
 
     private static final String INSERT_BOOKING = "INSERT INTO bookings (user_id, screen_id, booking_time, reserved_seats, total_price) VALUES (?, ?, ?, ?, ?)";
-    private static final String SELECT_BOOKING_BY_ID = "SELECT * FROM bookings WHERE id = ?";
-    private static final String SELECT_ALL_BOOKINGS = "SELECT * FROM bookings";
+    private static final String SELECT_BOOKINGS_JOINED =
+            "SELECT b.id, b.user_id, b.screen_id, b.booking_time, b.reserved_seats, b.total_price, " +
+                    "u.name AS user_name, u.email AS user_email, u.phone_number AS user_phone_number, " +
+                    "s.movie_name, s.show_time, s.theater_id, " +
+                    "t.name AS theater_name, t.address AS theater_address " +
+                    "FROM bookings b " +
+                    "JOIN users u ON b.user_id = u.id " +
+                    "JOIN screens s ON b.screen_id = s.id " +
+                    "JOIN theaters t ON s.theater_id = t.id";
+    private static final String SELECT_BOOKING_BY_ID = SELECT_BOOKINGS_JOINED + " WHERE b.id = ?";
+    private static final String SELECT_ALL_BOOKINGS = SELECT_BOOKINGS_JOINED;
+    private static final String STREAM_ALL_BOOKINGS = SELECT_BOOKINGS_JOINED + " ORDER BY b.id";
     private static final String UPDATE_BOOKING = "UPDATE bookings SET user_id = ?, screen_id = ?, booking_time = ?, reserved_seats = ?, total_price = ? WHERE id = ?";
     private static final String DELETE_BOOKING = "DELETE FROM bookings WHERE id = ?";
-    private static final String SEARCH_BOOKINGS = "SELECT * FROM bookings WHERE id LIKE ? OR user_id IN (SELECT id FROM users WHERE name LIKE ?) OR screen_id IN (SELECT id FROM screens WHERE movie_name LIKE ?)";
-
-    private final UserDAO userDAO;
-    private final ScreenDAO screenDAO;
-
-    public BookingDAO() {
-        this.userDAO = new UserDAO();
-        this.screenDAO = new ScreenDAO();
-    }
+    // Each search field yields booking ids through an index: the primary key,
+    // idx_bookings_user_id behind users_fts, or idx_bookings_screen_id behind
+    // screens_fts. Fields are combined with UNION, as OR would scan bookings.
+    private static final String IDS_BY_ID = "SELECT ?";
+    private static final String IDS_BY_USER = "SELECT id FROM bookings WHERE user_id IN " +
+            "(SELECT rowid FROM users_fts WHERE users_fts MATCH ?)";
+    private static final String IDS_BY_MOVIE = "SELECT id FROM bookings WHERE screen_id IN " +
+            "(SELECT rowid FROM screens_fts WHERE screens_fts MATCH ?)";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "b.id",
+            "showTime", "s.show_time",
+            "totalPrice", "b.total_price",
+            "bookingTime", "b.booking_time");
+    // Users, screens and theaters shared between streamed bookings before the mapper forgets them
+    private static final int STREAM_SHARED_ENTITIES = 1024;
 
     public Booking create(Booking booking) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(INSERT_BOOKING, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setInt(1, booking.getUser().getId());
             stmt.setInt(2, booking.getScreen().getId());
-            stmt.setString(3, booking.getBookingTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            stmt.setString(4, String.join(",", booking.getReservedSeats()));
+            stmt.setLong(3, DateTimeUtil.toEpochMillis(booking.getBookingTime()));
+            stmt.setString(4, booking.getReservedSeatMap().serialize());
             stmt.setDouble(5, booking.getTotalPrice());
             int affectedRows = stmt.executeUpdate();
 
@@ -63,6 +84,10 @@ public class BookingDAO {
     }
 
     public Booking findById(int id) throws DatabaseException {
+        Booking known = UnitOfWork.known(Booking.class, id);
+        if (known != null) {
+            return known;
+        }
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SELECT_BOOKING_BY_ID)) {
 
@@ -70,7 +95,7 @@ public class BookingDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractBookingFromResultSet(rs);
+                    return UnitOfWork.remember(Booking.class, id, new BookingRowMapper().map(rs));
                 } else {
                     return null; // Return null if no booking is found
                 }
@@ -86,8 +111,9 @@ public class BookingDAO {
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(SELECT_ALL_BOOKINGS)) {
 
+            BookingRowMapper mapper = new BookingRowMapper();
             while (rs.next()) {
-                bookings.add(extractBookingFromResultSet(rs));
+                bookings.add(mapper.map(rs));
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error finding all bookings", e);
@@ -96,18 +122,44 @@ public class BookingDAO {
         return bookings;
     }
 
+    /**
+     * Pages of bookings with their user, screen and theater. The row mapper
+     * is per page, so memory is bounded by the page size.
+     */
+    @Override
+    public Page<Booking> findPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException {
+        return new KeysetQuery(SELECT_ALL_BOOKINGS, null, SORT_COLUMNS, sortBy, "b.id", ascending)
+                .fetch(afterKey, limit, new BookingRowMapper()::map);
+    }
+
+    /**
+     * Bookings with their user, screen and theater, mapped as the stream is
+     * consumed. Shared entities are only remembered for a bounded number of
+     * rows, so memory stays constant for any number of bookings.
+     */
+    @Override
+    public Stream<Booking> streamAll(int fetchSize) throws DatabaseException {
+        return RowCursor.stream(STREAM_ALL_BOOKINGS, fetchSize, new BookingRowMapper(STREAM_SHARED_ENTITIES)::map);
+    }
+
+    @Override
+    public void forEachRow(int fetchSize, RowCallback<Booking> action) throws DatabaseException {
+        RowCursor.forEach(STREAM_ALL_BOOKINGS, fetchSize, new BookingRowMapper(STREAM_SHARED_ENTITIES)::map, action);
+    }
+
     public void update(Booking booking) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_BOOKING)) {
 
             stmt.setInt(1, booking.getUser().getId());
             stmt.setInt(2, booking.getScreen().getId());
-            stmt.setString(3, booking.getBookingTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            stmt.setString(4, String.join(",", booking.getReservedSeats()));
+            stmt.setLong(3, DateTimeUtil.toEpochMillis(booking.getBookingTime()));
+            stmt.setString(4, booking.getReservedSeatMap().serialize());
             stmt.setDouble(5, booking.getTotalPrice());
             stmt.setInt(6, booking.getId());
 
             int affectedRows = stmt.executeUpdate();
+            UnitOfWork.forget(Booking.class, booking.getId());
 
             if (affectedRows == 0) {
                 throw new DatabaseException("Updating booking failed, no rows affected.");
@@ -118,12 +170,15 @@ public class BookingDAO {
     }
 
     public void delete(int id) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(DELETE_BOOKING)) {
 
             stmt.setInt(1, id);
 
             int affectedRows = stmt.executeUpdate();
+            UnitOfWork.forget(Booking.class, id);
+            // The delete trigger released the booking's seats
+            ScreenDAO.invalidateAllCached();
 
             if (affectedRows == 0) {
                 throw new DatabaseException("Deleting booking failed, no rows affected.");
@@ -133,19 +188,95 @@ public class BookingDAO {
         }
     }
 
-    public List<Booking> searchBookings(String searchTerm, String sortBy, boolean ascending) throws DatabaseException {         List<Booking> bookings = new ArrayList<>();
-        String query = SEARCH_BOOKINGS + " ORDER BY " + sortBy + (ascending ? " ASC" : " DESC");
+    /**
+     * Insert all bookings in one transaction using JDBC batches; generated
+     * ids are set on the given objects. Like {@link #create}, this does not
+     * claim seats.
+     */
+    public List<Booking> createAll(List<Booking> bookings) throws DatabaseException {
+        BatchWriter.insert(INSERT_BOOKING, bookings, BatchWriter.defaultBatchSize(), (stmt, booking) -> {
+            stmt.setInt(1, booking.getUser().getId());
+            stmt.setInt(2, booking.getScreen().getId());
+            stmt.setLong(3, DateTimeUtil.toEpochMillis(booking.getBookingTime()));
+            stmt.setString(4, booking.getReservedSeatMap().serialize());
+            stmt.setDouble(5, booking.getTotalPrice());
+        }, Booking::setId, "booking");
+        return bookings;
+    }
+
+    public void updateAll(List<Booking> bookings) throws DatabaseException {
+        BatchWriter.execute(UPDATE_BOOKING, bookings, BatchWriter.defaultBatchSize(), (stmt, booking) -> {
+            stmt.setInt(1, booking.getUser().getId());
+            stmt.setInt(2, booking.getScreen().getId());
+            stmt.setLong(3, DateTimeUtil.toEpochMillis(booking.getBookingTime()));
+            stmt.setString(4, booking.getReservedSeatMap().serialize());
+            stmt.setDouble(5, booking.getTotalPrice());
+            stmt.setInt(6, booking.getId());
+        }, "Updating booking");
+        for (Booking booking : bookings) {
+            UnitOfWork.forget(Booking.class, booking.getId());
+        }
+    }
+
+    public void deleteAll(List<Integer> ids) throws DatabaseException {
+        BatchWriter.execute(DELETE_BOOKING, ids, BatchWriter.defaultBatchSize(),
+                (stmt, id) -> stmt.setInt(1, id), "Deleting booking");
+        for (int id : ids) {
+            UnitOfWork.forget(Booking.class, id);
+        }
+        ScreenDAO.invalidateAllCached();
+    }
+
+    /**
+     * Bookings matching {@code searchTerm} in the field named by
+     * {@code searchBy}: "id" looks up one booking, "user" matches word
+     * prefixes of the user's name, email or phone number, and "movie" word
+     * prefixes of the movie name. Any other field tries all three. A term
+     * without words lists every booking.
+     */
+    public List<Booking> searchBookings(String searchTerm, String searchBy, String sortBy, boolean ascending) throws DatabaseException {
+        String term = searchTerm == null ? "" : searchTerm.trim();
+        Integer id = parseId(term);
+        String match = FullTextQuery.prefixMatch(term);
+
+        List<String> idQueries = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        boolean anyField = !"id".equals(searchBy) && !"user".equals(searchBy) && !"movie".equals(searchBy);
+        if (id != null && ("id".equals(searchBy) || anyField)) {
+            idQueries.add(IDS_BY_ID);
+            parameters.add(id);
+        }
+        if (match != null && ("user".equals(searchBy) || anyField)) {
+            idQueries.add(IDS_BY_USER);
+            parameters.add(match);
+        }
+        if (match != null && ("movie".equals(searchBy) || anyField)) {
+            idQueries.add(IDS_BY_MOVIE);
+            parameters.add(match);
+        }
+
+        StringBuilder query = new StringBuilder(SELECT_BOOKINGS_JOINED);
+        if (!term.isEmpty()) {
+            if (idQueries.isEmpty()) {
+                // e.g. a non-numeric term searched by id
+                return new ArrayList<>();
+            }
+            query.append(" WHERE b.id IN (").append(String.join(" UNION ", idQueries)).append(')');
+        }
+        query.append(" ORDER BY ").append(sortColumn(sortBy)).append(ascending ? " ASC" : " DESC");
 
+        List<Booking> bookings = new ArrayList<>();
         try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query)) {
+             PreparedStatement stmt = conn.prepareStatement(query.toString())) {
 
-            stmt.setString(1, "%" + searchTerm + "%");
-            stmt.setString(2, "%" + searchTerm + "%");
-            stmt.setString(3, "%" + searchTerm + "%");
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BookingRowMapper mapper = new BookingRowMapper();
                 while (rs.next()) {
-                    bookings.add(extractBookingFromResultSet(rs));
+                    bookings.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -154,23 +285,104 @@ public class BookingDAO {
         return bookings;
     }
 
-    private Booking extractBookingFromResultSet(ResultSet rs) throws SQLException, DatabaseException {
+    private static Integer parseId(String term) {
         try {
+            return Integer.valueOf(term);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Map the sort keys offered by the booking view to columns of the joined query.
+     */
+    private static String sortColumn(String sortBy) {
+        if (sortBy == null || !SORT_COLUMNS.containsKey(sortBy)) {
+            return "b.id";
+        }
+        return SORT_COLUMNS.get(sortBy);
+    }
+
+    /**
+     * Maps rows of {@link #SELECT_BOOKINGS_JOINED} to bookings in a single pass.
+     * Users, screens and theaters that appear on several rows are materialised
+     * once and shared between the bookings that reference them. Screens are
+     * loaded without seat state; use ScreenDAO when available seats are needed.
+     * With a limit, each map is cleared when it reaches that many entries.
+     */
+    private static class BookingRowMapper {
+        private final Map<Integer, User> users = new HashMap<>();
+        private final Map<Integer, Screen> screens = new HashMap<>();
+        private final Map<Integer, Theater> theaters = new HashMap<>();
+        private final int maxShared;
+
+        BookingRowMapper() {
+            this(Integer.MAX_VALUE);
+        }
+
+        BookingRowMapper(int maxShared) {
+            this.maxShared = maxShared;
+        }
+
+        Booking map(ResultSet rs) throws SQLException {
             Booking booking = new Booking();
             booking.setId(rs.getInt("id"));
-            booking.setUser(userDAO.findById(rs.getInt("user_id")));
-            booking.setScreen(screenDAO.findById(rs.getInt("screen_id")));
+            booking.setUser(user(rs));
+            booking.setScreen(screen(rs));
 
-            // Parse the datetime string manually
-            String bookingTimeStr = rs.getString("booking_time");
-            booking.setBookingTime(LocalDateTime.parse(bookingTimeStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            booking.setBookingTime(DateTimeUtil.fromEpochMillis(rs.getLong("booking_time")));
 
-            booking.setReservedSeats(List.of(rs.getString("reserved_seats").split(",")));
+            booking.setReservedSeatMap(SeatMap.parse(rs.getString("reserved_seats")));
             booking.setTotalPrice(rs.getDouble("total_price"));
             return booking;
-        } catch (NotFoundException e) {
-            LOGGER.log(Level.SEVERE, "Error extracting booking: " + e.getMessage(), e);
-            throw new DatabaseException("Error extracting booking: " + e.getMessage(), e);
+        }
+
+        private User user(ResultSet rs) throws SQLException {
+            int userId = rs.getInt("user_id");
+            User user = users.get(userId);
+            if (user == null) {
+                user = new User();
+                user.setId(userId);
+                user.setName(rs.getString("user_name"));
+                user.setEmail(rs.getString("user_email"));
+                user.setPhoneNumber(rs.getString("user_phone_number"));
+                share(users, userId, user);
+            }
+            return user;
+        }
+
+        private Screen screen(ResultSet rs) throws SQLException {
+            int screenId = rs.getInt("screen_id");
+            Screen screen = screens.get(screenId);
+            if (screen == null) {
+                screen = new Screen();
+                screen.setId(screenId);
+                screen.setMovieName(rs.getString("movie_name"));
+                screen.setShowTime(DateTimeUtil.fromEpochMillis(rs.getLong("show_time")));
+                screen.setTheater(theater(rs));
+                share(screens, screenId, screen);
+            }
+            return screen;
+        }
+
+        private Theater theater(ResultSet rs) throws SQLException {
+            int theaterId = rs.getInt("theater_id");
+            Theater theater = theaters.get(theaterId);
+            if (theater == null) {
+                theater = new Theater();
+                theater.setId(theaterId);
+                theater.setName(rs.getString("theater_name"));
+                theater.setAddress(rs.getString("theater_address"));
+                share(theaters, theaterId, theater);
+            }
+            return theater;
+        }
+
+        private <E> void share(Map<Integer, E> shared, int id, E entity) {
+            if (shared.size() >= maxShared) {
+                shared.clear();
+            }
+            shared.put(id, entity);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package com.cinema.dao;
+
+import com.cinema.exception.DatabaseException;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.DateTimeUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Start times of one day's showings, kept in memory so that time-window
+ * questions about that day ("what is on at theater 3 between 18:00 and
+ * 23:00") are answered by a binary search instead of a query.
+ * <p>
+ * Only ids and start times are held, sorted by start time overall and per
+ * theater. {@link ScreenDAO} turns the ids into screens through its
+ * {@code findById} cache, which is kept exact about seats, and drops the
+ * schedule whenever a screen is written. Instances are immutable.
+ */
+final class DailySchedule {
+
+    private static final String SELECT_DAY = "SELECT id, theater_id, show_time FROM screens " +
+            "WHERE show_time >= ? AND show_time < ? ORDER BY show_time, id";
+
+    private final LocalDate date;
+    private final Slots all;
+    private final Map<Integer, Slots> byTheater;
+
+    private DailySchedule(LocalDate date, Slots all, Map<Integer, Slots> byTheater) {
+        this.date = date;
+        this.all = all;
+        this.byTheater = byTheater;
+    }
+
+    static DailySchedule load(LocalDate date) throws DatabaseException {
+        List<long[]> rows = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_DAY)) {
+
+            stmt.setLong(1, DateTimeUtil.toEpochMillis(date.atStartOfDay()));
+            stmt.setLong(2, DateTimeUtil.toEpochMillis(date.plusDays(1).atStartOfDay()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new long[]{rs.getLong("show_time"), rs.getInt("id"), rs.getInt("theater_id")});
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading the schedule for " + date, e);
+        }
+
+        Map<Integer, List<long[]>> rowsByTheater = new HashMap<>();
+        for (long[] row : rows) {
+            rowsByTheater.computeIfAbsent((int) row[2], id -> new ArrayList<>()).add(row);
+        }
+        Map<Integer, Slots> byTheater = new HashMap<>();
+        for (Map.Entry<Integer, List<long[]>> theater : rowsByTheater.entrySet()) {
+            byTheater.put(theater.getKey(), new Slots(theater.getValue()));
+        }
+        return new DailySchedule(date, new Slots(rows), byTheater);
+    }
+
+    LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Ids of the showings starting in [from, to), in start time order.
+     */
+    List<Integer> between(long fromMillis, long toMillis) {
+        return all.between(fromMillis, toMillis);
+    }
+
+    /**
+     * Ids of the theater's showings starting in [from, to), in start time order.
+     */
+    List<Integer> between(int theaterId, long fromMillis, long toMillis) {
+        Slots slots = byTheater.get(theaterId);
+        return slots == null ? new ArrayList<>() : slots.between(fromMillis, toMillis);
+    }
+
+    /**
+     * Parallel arrays of start times and screen ids, sorted by time then id.
+     */
+    private static final class Slots {
+        private final long[] times;
+        private final int[] ids;
+
+        private Slots(List<long[]> rows) {
+            times = new long[rows.size()];
+            ids = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                times[i] = rows.get(i)[0];
+                ids[i] = (int) rows.get(i)[1];
+            }
+        }
+
+        private List<Integer> between(long fromMillis, long toMillis) {
+            int end = firstAtOrAfter(toMillis);
+            List<Integer> result = new ArrayList<>();
+            for (int i = firstAtOrAfter(fromMillis); i < end; i++) {
+                result.add(ids[i]);
+            }
+            return result;
+        }
+
+        private int firstAtOrAfter(long millis) {
+            int index = Arrays.binarySearch(times, millis);
+            if (index < 0) {
+                return -index - 1;
+            }
+            // binarySearch finds any of several equal times
+            while (index > 0 && times[index - 1] == millis) {
+                index--;
+            }
+            return index;
+        }
+    }
+}
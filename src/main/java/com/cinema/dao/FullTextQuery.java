@@ -0,0 +1,56 @@
+package com.cinema.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns search box input into FTS5 queries against the *_fts tables.
+ * <p>
+ * Input is split into words the same way the unicode61 tokenizer splits
+ * the indexed text, and every word becomes a quoted prefix term, so
+ * "jo sm" finds "John Smith" and FTS5 operators typed by the user are
+ * matched literally instead of being interpreted.
+ */
+final class FullTextQuery {
+
+    private FullTextQuery() {
+    }
+
+    /**
+     * MATCH expression requiring every word of {@code input} as a prefix,
+     * or {@code null} if the input has no words.
+     */
+    static String prefixMatch(String input) {
+        if (input == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : input.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add('"' + word + "\"*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    /**
+     * ORDER BY clause for a search: the requested sort key if the DAO offers
+     * it, best match first otherwise and between equal sort values.
+     */
+    static String orderBy(Map<String, String> sortColumns, String sortBy, boolean ascending, String ftsTable) {
+        String rank = ftsTable + ".rank";
+        if (sortBy == null || !sortColumns.containsKey(sortBy)) {
+            return " ORDER BY " + rank;
+        }
+        return " ORDER BY " + sortColumns.get(sortBy) + (ascending ? " ASC" : " DESC") + ", " + rank;
+    }
+
+    /**
+     * ORDER BY clause for listing every row when the search has no words.
+     */
+    static String orderByColumn(Map<String, String> sortColumns, String sortBy, boolean ascending, String idColumn) {
+        String column = sortBy != null && sortColumns.containsKey(sortBy) ? sortColumns.get(sortBy) : idColumn;
+        return " ORDER BY " + column + (ascending ? " ASC" : " DESC");
+    }
+}
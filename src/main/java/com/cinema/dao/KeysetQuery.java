@@ -0,0 +1,95 @@
+package com.cinema.dao;
+
+import com.cinema.exception.DatabaseException;
+import com.cinema.util.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds and runs keyset-paginated queries for the DAOs. Rows are ordered by
+ * (sort column, id) so that the order is total even when sort values repeat,
+ * and a page continues with a row-value comparison against the previous
+ * page's last row, which SQLite answers from an index on the sort column.
+ */
+final class KeysetQuery {
+
+    private final String select;
+    private final String where;
+    private final String sortColumn;
+    private final String idColumn;
+    private final boolean ascending;
+
+    /**
+     * @param select      query without WHERE or ORDER BY
+     * @param where       filter condition, or {@code null}; its parameters are passed to {@link #fetch}
+     * @param sortColumns sort keys mapped to qualified columns of {@code select}
+     */
+    KeysetQuery(String select, String where, Map<String, String> sortColumns, String sortBy, String idColumn, boolean ascending) {
+        this.select = select;
+        this.where = where;
+        this.idColumn = idColumn;
+        this.sortColumn = sortBy != null && sortColumns.containsKey(sortBy) ? sortColumns.get(sortBy) : idColumn;
+        this.ascending = ascending;
+    }
+
+    <T> Page<T> fetch(PageKey afterKey, int limit, RowMapper<T> mapper, Object... whereParameters) throws DatabaseException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive: " + limit);
+        }
+        String direction = ascending ? " ASC" : " DESC";
+        StringBuilder sql = new StringBuilder(select);
+        if (where != null) {
+            sql.append(" WHERE (").append(where).append(')');
+        }
+        if (afterKey != null) {
+            sql.append(where != null ? " AND " : " WHERE ")
+                    .append('(').append(sortColumn).append(", ").append(idColumn).append(')')
+                    .append(ascending ? " > " : " < ").append("(?, ?)");
+        }
+        sql.append(" ORDER BY ").append(sortColumn).append(direction)
+                .append(", ").append(idColumn).append(direction)
+                .append(" LIMIT ?");
+
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            for (Object parameter : whereParameters) {
+                stmt.setObject(index++, parameter);
+            }
+            if (afterKey != null) {
+                stmt.setObject(index++, afterKey.getSortValue());
+                stmt.setInt(index++, afterKey.getId());
+            }
+            // One extra row tells whether there is a next page
+            stmt.setInt(index, limit + 1);
+
+            List<T> items = new ArrayList<>(limit);
+            PageKey nextKey = null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                PageKey lastKey = null;
+                while (rs.next()) {
+                    if (items.size() == limit) {
+                        nextKey = lastKey;
+                        break;
+                    }
+                    items.add(mapper.map(rs));
+                    lastKey = new PageKey(rs.getObject(label(sortColumn)), rs.getInt(label(idColumn)));
+                }
+            }
+            return new Page<>(items, nextKey);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error fetching page: " + e.getMessage(), e);
+        }
+    }
+
+    private static String label(String column) {
+        return column.substring(column.indexOf('.') + 1);
+    }
+}
@@ -0,0 +1,31 @@
+package com.cinema.dao;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final PageKey nextKey;
+
+    public Page(List<T> items, PageKey nextKey) {
+        this.items = items;
+        this.nextKey = nextKey;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Key to pass to the next findPage call, or {@code null} on the last page.
+     */
+    public PageKey getNextKey() {
+        return nextKey;
+    }
+
+    public boolean hasNext() {
+        return nextKey != null;
+    }
+}
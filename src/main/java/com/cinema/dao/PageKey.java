@@ -0,0 +1,51 @@
+package com.cinema.dao;
+
+import java.util.Objects;
+
+/**
+ * Position in a keyset-paginated listing: the sort value and id of the last
+ * row of a page. The next page starts right after that row, so fetching a
+ * page costs the same however deep into the table it is.
+ */
+public final class PageKey {
+    private final Object sortValue;
+    private final int id;
+
+    public PageKey(Object sortValue, int id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public Object getSortValue() {
+        return sortValue;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PageKey)) {
+            return false;
+        }
+        PageKey other = (PageKey) o;
+        return id == other.id && Objects.equals(sortValue, other.sortValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortValue, id);
+    }
+
+    @Override
+    public String toString() {
+        return "PageKey{" +
+                "sortValue=" + sortValue +
+                ", id=" + id +
+                '}';
+    }
+}
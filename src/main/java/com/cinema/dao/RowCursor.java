@@ -0,0 +1,150 @@
+package com.cinema.dao;
+
+import com.cinema.dao.interfaces.StreamingDAO;
+import com.cinema.exception.DatabaseException;
+import com.cinema.exception.UncheckedDatabaseException;
+import com.cinema.util.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An open query whose rows are mapped one at a time, backing the DAOs'
+ * {@link StreamingDAO} methods. The connection, statement and result set
+ * are released as soon as the last row has been read, and at the latest
+ * when the cursor (or the stream built on it) is closed.
+ */
+final class RowCursor<T> implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(RowCursor.class.getName());
+
+    private final String sql;
+    private final RowMapper<T> mapper;
+    private Connection conn;
+    private PreparedStatement stmt;
+    private ResultSet rs;
+
+    private RowCursor(String sql, RowMapper<T> mapper) {
+        this.sql = sql;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Run {@code sql} and return a cursor positioned before the first row.
+     */
+    static <T> RowCursor<T> open(String sql, int fetchSize, RowMapper<T> mapper, Object... parameters) throws DatabaseException {
+        RowCursor<T> cursor = new RowCursor<>(sql, mapper);
+        try {
+            cursor.conn = DatabaseManager.getConnection();
+            cursor.stmt = cursor.conn.prepareStatement(sql);
+            if (fetchSize > 0) {
+                cursor.stmt.setFetchSize(fetchSize);
+            }
+            for (int i = 0; i < parameters.length; i++) {
+                cursor.stmt.setObject(i + 1, parameters[i]);
+            }
+            cursor.rs = cursor.stmt.executeQuery();
+            return cursor;
+        } catch (SQLException e) {
+            cursor.close();
+            throw new DatabaseException("Error opening cursor: " + e.getMessage(), e);
+        }
+    }
+
+    static <T> Stream<T> stream(String sql, int fetchSize, RowMapper<T> mapper, Object... parameters) throws DatabaseException {
+        return open(sql, fetchSize, mapper, parameters).stream();
+    }
+
+    static <T> void forEach(String sql, int fetchSize, RowMapper<T> mapper, StreamingDAO.RowCallback<T> action,
+                            Object... parameters) throws DatabaseException {
+        try (RowCursor<T> cursor = open(sql, fetchSize, mapper, parameters)) {
+            T row;
+            while ((row = cursor.next()) != null) {
+                action.accept(row);
+            }
+        }
+    }
+
+    /**
+     * The next mapped row, or {@code null} once the rows are exhausted.
+     */
+    T next() throws DatabaseException {
+        if (rs == null) {
+            return null;
+        }
+        try {
+            if (rs.next()) {
+                return mapper.map(rs);
+            }
+        } catch (SQLException e) {
+            close();
+            throw new DatabaseException("Error reading row: " + e.getMessage(), e);
+        }
+        close();
+        return null;
+    }
+
+    /**
+     * Sequential, ordered stream over the remaining rows that closes this cursor when closed.
+     */
+    Stream<T> stream() {
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                T row;
+                try {
+                    row = next();
+                } catch (DatabaseException e) {
+                    throw new UncheckedDatabaseException(e);
+                }
+                if (row == null) {
+                    return false;
+                }
+                action.accept(row);
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        // Release in reverse order of acquisition; closing twice is harmless
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error closing cursor for " + sql, e);
+        } finally {
+            rs = null;
+            stmt = null;
+            closeConnection();
+        }
+    }
+
+    private void closeConnection() {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error releasing cursor connection", e);
+        } finally {
+            conn = null;
+        }
+    }
+}
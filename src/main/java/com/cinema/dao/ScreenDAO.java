@@ -1,54 +1,121 @@
 package com.cinema.dao;
 
+import com.cinema.model.Auditorium;
+import com.cinema.model.Reference;
 import com.cinema.model.Screen;
+import com.cinema.model.SeatMap;
 import com.cinema.model.Theater;
+import com.cinema.dao.interfaces.PagedDAO;
+import com.cinema.dao.interfaces.StreamingDAO;
 import com.cinema.util.DatabaseManager;
+import com.cinema.util.DateTimeUtil;
+import com.cinema.util.EntityCache;
+import com.cinema.util.Transaction;
+import com.cinema.util.UnitOfWork;
 import com.cinema.exception.DatabaseException;
-import java.time.format.DateTimeFormatter;
 
 import com.cinema.exception.NotFoundException;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import java.util.stream.Stream;
 
-public class ScreenDAO {
+public class ScreenDAO implements PagedDAO<Screen>, StreamingDAO<Screen> {
     private static final Logger LOGGER = Logger.getLogger(ScreenDAO.class.getName());
 
-    private static final String INSERT_SCREEN = "INSERT INTO screens (movie_name, show_time, available_seats, theater_id) VALUES (?, ?, ?, ?)";
-
-    private static final String SELECT_SCREEN_BY_ID =
-            "SELECT s.*, t.name as theater_name, t.address as theater_address " +
+    private static final String DEFAULT_AUDITORIUM = "(SELECT id FROM auditoriums WHERE theater_id = ? ORDER BY id LIMIT 1)";
+    private static final String INSERT_SCREEN = "INSERT INTO screens (movie_name, show_time, theater_id, auditorium_id) " +
+            "VALUES (?, ?, ?, COALESCE(?, " + DEFAULT_AUDITORIUM + "))";
+
+    private static final String SELECT_SCREENS =
+            "SELECT s.id, s.movie_name, s.show_time, s.theater_id, s.version, " +
+                    "t.name as theater_name, t.address as theater_address, " +
+                    "a.id AS auditorium_id, a.name AS auditorium_name, a.row_count AS auditorium_row_count, " +
+                    "a.seats_per_row AS auditorium_seats_per_row, a.blocked_seats AS auditorium_blocked_seats, " +
+                    "a.accessible_seats AS auditorium_accessible_seats, a.seat_categories AS auditorium_seat_categories, " +
+                    "(SELECT group_concat(seat_label) FROM seat_inventory si WHERE si.screen_id = s.id) AS taken_seats " +
                     "FROM screens s " +
                     "JOIN theaters t ON s.theater_id = t.id " +
-                    "WHERE s.id = ?";
-    private static final String SELECT_ALL_SCREENS =
-            "SELECT s.*, t.name as theater_name, t.address as theater_address " +
-                    "FROM screens s " +
-                    "JOIN theaters t ON s.theater_id = t.id";
-
-    private static final String UPDATE_SCREEN = "UPDATE screens SET movie_name = ?, show_time = ?, available_seats = ?, theater_id = ? WHERE id = ?";
+                    "LEFT JOIN auditoriums a ON s.auditorium_id = a.id";
+    private static final String SELECT_SCREEN_BY_ID = SELECT_SCREENS + " WHERE s.id = ?";
+    private static final String SELECT_SCREENS_BY_IDS = SELECT_SCREENS + " WHERE s.id IN (%s)";
+    private static final String SELECT_ALL_SCREENS = SELECT_SCREENS;
+    private static final String STREAM_ALL_SCREENS = SELECT_ALL_SCREENS + " ORDER BY s.id";
+
+    private static final String UPDATE_SCREEN = "UPDATE screens SET movie_name = ?, show_time = ?, theater_id = ?, " +
+            "auditorium_id = COALESCE(?, " + DEFAULT_AUDITORIUM + "), version = version + 1 WHERE id = ?";
+    private static final String INCREMENT_VERSION = "UPDATE screens SET version = version + 1 WHERE id = ? AND version = ?";
+    private static final String FORCE_INCREMENT_VERSION = "UPDATE screens SET version = version + 1 WHERE id = ?";
     private static final String DELETE_SCREEN = "DELETE FROM screens WHERE id = ?";
-    private static final String SEARCH_SCREENS = "SELECT s.*, t.name as theater_name, t.address as theater_address FROM screens s JOIN theaters t ON s.theater_id = t.id WHERE s.movie_name LIKE ?";
+    private static final String SEARCH_SCREENS = SELECT_SCREENS +
+            " JOIN screens_fts ON screens_fts.rowid = s.id WHERE screens_fts MATCH ?";
+    private static final String BY_SHOW_TIME = " ORDER BY s.show_time, s.id";
+    private static final String SELECT_SCREENS_BY_THEATER = SELECT_SCREENS + " WHERE s.theater_id = ?" + BY_SHOW_TIME;
+    private static final String SELECT_SCREENS_BETWEEN = SELECT_SCREENS +
+            " WHERE s.show_time >= ? AND s.show_time < ?" + BY_SHOW_TIME;
+    private static final String SELECT_SCREENS_BY_THEATER_BETWEEN = SELECT_SCREENS +
+            " WHERE s.theater_id = ? AND s.show_time >= ? AND s.show_time < ?" + BY_SHOW_TIME;
+    private static final String SEARCH_SCREENS_BETWEEN = SEARCH_SCREENS +
+            " AND s.show_time >= ? AND s.show_time < ?" + BY_SHOW_TIME;
+    private static final String SELECT_SCREEN_REFERENCES = "SELECT s.id, s.movie_name, s.show_time, t.name AS theater_name " +
+            "FROM screens s JOIN theaters t ON s.theater_id = t.id" + BY_SHOW_TIME;
+    // Well under SQLite's default limit of 999 bound parameters per statement
+    private static final int MAX_IDS_PER_QUERY = 500;
+    private static final Map<String, String> SORT_COLUMNS = Map.of("id", "s.id", "movieName", "s.movie_name", "showTime", "s.show_time");
+
+    // Shared by all instances; every write to a screen, its seats, theater or hall drops the entries it affects
+    private static final EntityCache<Integer, Screen> CACHE = new EntityCache<>("screens",
+            DatabaseManager.getRuntimeSettings().getEntityCacheSize(),
+            DatabaseManager.getRuntimeSettings().getEntityCacheTtlSeconds() * 1000L, Screen::new);
+    // Today's start times; dropped on every screen write and reloaded on the next time-window query
+    private static final EntityCache<LocalDate, DailySchedule> SCHEDULE = new EntityCache<>("schedule",
+            DatabaseManager.getRuntimeSettings().getEntityCacheSize(),
+            DatabaseManager.getRuntimeSettings().getEntityCacheTtlSeconds() * 1000L, schedule -> schedule);
+
+    /**
+     * Hit ratio, size and eviction counts of the {@link #findById} cache.
+     */
+    public static EntityCache.Stats getCacheStats() {
+        return CACHE.getStats();
+    }
 
-    private final TheaterDAO theaterDAO;
+    /**
+     * Drop a screen whose row or seats changed from the cache and from the
+     * current unit of work.
+     */
+    static void invalidateCached(int screenId) {
+        CACHE.invalidate(screenId);
+        UnitOfWork.forget(Screen.class, screenId);
+    }
 
-    public ScreenDAO() {
-        this.theaterDAO = new TheaterDAO();
+    /**
+     * Drop every screen from the cache and the current unit of work, for
+     * changes that may affect screens without saying which, such as a
+     * renamed theater.
+     */
+    static void invalidateAllCached() {
+        CACHE.invalidateAll();
+        UnitOfWork.forgetAll(Screen.class);
     }
 
+    /**
+     * Screens without an explicit auditorium are shown in the theater's first hall.
+     */
     public Screen create(Screen screen) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(INSERT_SCREEN, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, screen.getMovieName());
-            stmt.setString(2, screen.getShowTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            stmt.setString(3, String.join(",", screen.getAvailableSeats()));
-            stmt.setInt(4, screen.getTheater().getId());
+            stmt.setLong(2, DateTimeUtil.toEpochMillis(screen.getShowTime()));
+            setAuditoriumParameters(stmt, 3, screen);
 
 
             int affectedRows = stmt.executeUpdate();
@@ -64,13 +131,23 @@ public class ScreenDAO {
                     throw new DatabaseException("Creating screen failed, no ID obtained.");
                 }
             }
+            SCHEDULE.invalidateAll();
         } catch (SQLException e) {
             throw new DatabaseException("Error creating screen", e);
         }
         return screen;
     }
 
+    /**
+     * The screen with its available seats, from the cache when it has been
+     * read recently. The result is a copy and may be modified.
+     */
     public Screen findById(int id) throws DatabaseException, NotFoundException {
+        Screen loaded = findLoaded(id);
+        if (loaded != null) {
+            return loaded;
+        }
+        long stamp = CACHE.stamp();
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SELECT_SCREEN_BY_ID)) {
 
@@ -78,7 +155,9 @@ public class ScreenDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractScreenFromResultSet(rs);
+                    Screen screen = extractScreenFromResultSet(rs);
+                    CACHE.put(id, screen, stamp);
+                    return UnitOfWork.remember(Screen.class, id, screen);
                 } else {
                     throw new NotFoundException("Screen with id " + id + " not found.");
                 }
@@ -106,18 +185,34 @@ public class ScreenDAO {
         return screens;
     }
 
+    @Override
+    public Page<Screen> findPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException {
+        return new KeysetQuery(SELECT_ALL_SCREENS, null, SORT_COLUMNS, sortBy, "s.id", ascending)
+                .fetch(afterKey, limit, this::extractScreenFromResultSet);
+    }
+
+    @Override
+    public Stream<Screen> streamAll(int fetchSize) throws DatabaseException {
+        return RowCursor.stream(STREAM_ALL_SCREENS, fetchSize, this::extractScreenFromResultSet);
+    }
+
+    @Override
+    public void forEachRow(int fetchSize, RowCallback<Screen> action) throws DatabaseException {
+        RowCursor.forEach(STREAM_ALL_SCREENS, fetchSize, this::extractScreenFromResultSet, action);
+    }
+
     public void update(Screen screen) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_SCREEN)) {
 
             stmt.setString(1, screen.getMovieName());
-            stmt.setString(2, screen.getShowTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            stmt.setString(3, String.join(",", screen.getAvailableSeats()));
-            stmt.setInt(4, screen.getTheater().getId());
-            stmt.setInt(5, screen.getId());
-
+            stmt.setLong(2, DateTimeUtil.toEpochMillis(screen.getShowTime()));
+            setAuditoriumParameters(stmt, 3, screen);
+            stmt.setInt(6, screen.getId());
 
             int affectedRows = stmt.executeUpdate();
+            invalidateCached(screen.getId());
+            SCHEDULE.invalidateAll();
 
             if (affectedRows == 0) {
                 throw new DatabaseException("Updating screen failed, no rows affected.");
@@ -127,13 +222,53 @@ public class ScreenDAO {
         }
     }
 
+    /**
+     * Advance the screen's version if it still is {@code expectedVersion}.
+     * Seat changes call this inside their transaction so that a change based
+     * on a stale read of the screen is detected and can be retried.
+     *
+     * @return false if the screen was changed (or deleted) since it was read
+     */
+    public boolean incrementVersion(int screenId, int expectedVersion) throws DatabaseException {
+        try (Connection conn = DatabaseManager.getWriteConnection();
+             PreparedStatement stmt = conn.prepareStatement(INCREMENT_VERSION)) {
+
+            stmt.setInt(1, screenId);
+            stmt.setInt(2, expectedVersion);
+            boolean updated = stmt.executeUpdate() == 1;
+            // Also when the version did not match: the caller's copy, maybe from the cache, is stale
+            invalidateCached(screenId);
+            return updated;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating version of screen " + screenId, e);
+        }
+    }
+
+    /**
+     * Advance the screen's version unconditionally, for writers that have
+     * already decided the change by other means.
+     */
+    public void incrementVersion(int screenId) throws DatabaseException {
+        try (Connection conn = DatabaseManager.getWriteConnection();
+             PreparedStatement stmt = conn.prepareStatement(FORCE_INCREMENT_VERSION)) {
+
+            stmt.setInt(1, screenId);
+            stmt.executeUpdate();
+            invalidateCached(screenId);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error updating version of screen " + screenId, e);
+        }
+    }
+
     public void delete(int id) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(DELETE_SCREEN)) {
 
             stmt.setInt(1, id);
 
             int affectedRows = stmt.executeUpdate();
+            invalidateCached(id);
+            SCHEDULE.invalidateAll();
 
             if (affectedRows == 0) {
                 throw new DatabaseException("Deleting screen failed, no rows affected.");
@@ -143,14 +278,64 @@ public class ScreenDAO {
         }
     }
 
+    /**
+     * Insert all screens in one transaction using JDBC batches, e.g. a
+     * season of showtimes; generated ids are set on the given objects.
+     */
+    public List<Screen> createAll(List<Screen> screens) throws DatabaseException {
+        BatchWriter.insert(INSERT_SCREEN, screens, BatchWriter.defaultBatchSize(), (stmt, screen) -> {
+            stmt.setString(1, screen.getMovieName());
+            stmt.setLong(2, DateTimeUtil.toEpochMillis(screen.getShowTime()));
+            setAuditoriumParameters(stmt, 3, screen);
+        }, Screen::setId, "screen");
+        SCHEDULE.invalidateAll();
+        return screens;
+    }
+
+    /**
+     * Update all screens in one transaction; like {@link #update} this
+     * advances each screen's version.
+     */
+    public void updateAll(List<Screen> screens) throws DatabaseException {
+        BatchWriter.execute(UPDATE_SCREEN, screens, BatchWriter.defaultBatchSize(), (stmt, screen) -> {
+            stmt.setString(1, screen.getMovieName());
+            stmt.setLong(2, DateTimeUtil.toEpochMillis(screen.getShowTime()));
+            setAuditoriumParameters(stmt, 3, screen);
+            stmt.setInt(6, screen.getId());
+        }, "Updating screen");
+        for (Screen screen : screens) {
+            invalidateCached(screen.getId());
+        }
+        SCHEDULE.invalidateAll();
+    }
+
+    public void deleteAll(List<Integer> ids) throws DatabaseException {
+        BatchWriter.execute(DELETE_SCREEN, ids, BatchWriter.defaultBatchSize(),
+                (stmt, id) -> stmt.setInt(1, id), "Deleting screen");
+        for (int id : ids) {
+            invalidateCached(id);
+        }
+        SCHEDULE.invalidateAll();
+    }
+
+    /**
+     * Screens whose movie name has a word starting with each word of
+     * {@code movieName}, best match first unless a sort key is given.
+     * A name without words lists every screen.
+     */
     public List<Screen> searchScreens(String movieName, String sortBy, boolean ascending) throws DatabaseException {
         List<Screen> screens = new ArrayList<>();
-        String query = SEARCH_SCREENS + " ORDER BY " + sortBy + (ascending ? " ASC" : " DESC");
+        String match = FullTextQuery.prefixMatch(movieName);
+        String query = match == null
+                ? SELECT_ALL_SCREENS + FullTextQuery.orderByColumn(SORT_COLUMNS, sortBy, ascending, "s.id")
+                : SEARCH_SCREENS + FullTextQuery.orderBy(SORT_COLUMNS, sortBy, ascending, "screens_fts");
 
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
-            stmt.setString(1, "%" + movieName + "%");
+            if (match != null) {
+                stmt.setString(1, match);
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -163,16 +348,169 @@ public class ScreenDAO {
         return screens;
     }
 
+    /**
+     * Every showing at the theater, earliest first.
+     */
+    public List<Screen> findByTheater(int theaterId) throws DatabaseException {
+        return query(SELECT_SCREENS_BY_THEATER, theaterId);
+    }
+
+    /**
+     * Id, movie, start time and theater name of every showing, earliest
+     * first, without halls or taken seats.
+     */
+    public List<Reference> findReferences() throws DatabaseException {
+        List<Reference> references = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_SCREEN_REFERENCES)) {
+
+            while (rs.next()) {
+                references.add(Reference.screen(rs.getInt("id"), rs.getString("movie_name"),
+                        DateTimeUtil.fromEpochMillis(rs.getLong("show_time")), rs.getString("theater_name")));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding screen references", e);
+        }
+        return references;
+    }
+
+    /**
+     * Showings starting at or after {@code from} and before {@code to},
+     * earliest first. Windows within today are answered from memory.
+     */
+    public List<Screen> findBetween(LocalDateTime from, LocalDateTime to) throws DatabaseException {
+        DailySchedule schedule = scheduleFor(from, to);
+        if (schedule != null) {
+            return findAllById(schedule.between(DateTimeUtil.toEpochMillis(from), DateTimeUtil.toEpochMillis(to)));
+        }
+        return query(SELECT_SCREENS_BETWEEN, DateTimeUtil.toEpochMillis(from), DateTimeUtil.toEpochMillis(to));
+    }
+
+    /**
+     * The theater's showings starting in [from, to), earliest first. Windows
+     * within today are answered from memory, others use the
+     * (theater_id, show_time) index.
+     */
+    public List<Screen> findByTheaterBetween(int theaterId, LocalDateTime from, LocalDateTime to) throws DatabaseException {
+        DailySchedule schedule = scheduleFor(from, to);
+        if (schedule != null) {
+            return findAllById(schedule.between(theaterId, DateTimeUtil.toEpochMillis(from), DateTimeUtil.toEpochMillis(to)));
+        }
+        return query(SELECT_SCREENS_BY_THEATER_BETWEEN, theaterId,
+                DateTimeUtil.toEpochMillis(from), DateTimeUtil.toEpochMillis(to));
+    }
+
+    /**
+     * Showings in [from, to) whose movie name matches {@code movieName} as
+     * in {@link #searchScreens}, earliest first.
+     */
+    public List<Screen> findByMovieBetween(String movieName, LocalDateTime from, LocalDateTime to) throws DatabaseException {
+        String match = FullTextQuery.prefixMatch(movieName);
+        if (match == null) {
+            return findBetween(from, to);
+        }
+        return query(SEARCH_SCREENS_BETWEEN, match, DateTimeUtil.toEpochMillis(from), DateTimeUtil.toEpochMillis(to));
+    }
+
+    /**
+     * Today's schedule if the window [from, to) lies within today and the
+     * schedule can be cached, or {@code null} to query instead.
+     */
+    private DailySchedule scheduleFor(LocalDateTime from, LocalDateTime to) throws DatabaseException {
+        LocalDate day = from.toLocalDate();
+        if (Transaction.isActive() || SCHEDULE.getStats().getMaxSize() == 0 || !day.equals(LocalDate.now())
+                || to.isAfter(day.plusDays(1).atStartOfDay())) {
+            return null;
+        }
+        DailySchedule schedule = SCHEDULE.get(day);
+        if (schedule == null) {
+            long stamp = SCHEDULE.stamp();
+            schedule = DailySchedule.load(day);
+            SCHEDULE.put(day, schedule, stamp);
+        }
+        return schedule;
+    }
+
+    /**
+     * The screens in the order of {@code ids}, skipping those deleted since
+     * the ids were read. Screens not already loaded are read with one query
+     * per {@value #MAX_IDS_PER_QUERY} ids.
+     */
+    private List<Screen> findAllById(List<Integer> ids) throws DatabaseException {
+        Map<Integer, Screen> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int id : ids) {
+            Screen loaded = findLoaded(id);
+            if (loaded != null) {
+                found.put(id, loaded);
+            } else {
+                missing.add(id);
+            }
+        }
+        for (int start = 0; start < missing.size(); start += MAX_IDS_PER_QUERY) {
+            List<Integer> chunk = missing.subList(start, Math.min(start + MAX_IDS_PER_QUERY, missing.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            long stamp = CACHE.stamp();
+            for (Screen screen : query(String.format(SELECT_SCREENS_BY_IDS, placeholders), chunk.toArray())) {
+                CACHE.put(screen.getId(), screen, stamp);
+                found.put(screen.getId(), UnitOfWork.remember(Screen.class, screen.getId(), screen));
+            }
+        }
+
+        List<Screen> screens = new ArrayList<>(found.size());
+        for (int id : ids) {
+            Screen screen = found.get(id);
+            if (screen != null) {
+                screens.add(screen);
+            }
+        }
+        return screens;
+    }
+
+    /**
+     * The screen from the current unit of work or the cache, or {@code null}
+     * if it has to be read.
+     */
+    private Screen findLoaded(int id) {
+        Screen known = UnitOfWork.known(Screen.class, id);
+        if (known != null) {
+            return known;
+        }
+        Screen cached = CACHE.get(id);
+        if (cached != null) {
+            return UnitOfWork.remember(Screen.class, id, cached);
+        }
+        return null;
+    }
+
+    private List<Screen> query(String sql, Object... parameters) throws DatabaseException {
+        List<Screen> screens = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parameters.length; i++) {
+                stmt.setObject(i + 1, parameters[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    screens.add(extractScreenFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding screens", e);
+        }
+        return screens;
+    }
 
     private Screen extractScreenFromResultSet(ResultSet rs) throws SQLException {
         Screen screen = new Screen();
         screen.setId(rs.getInt("id"));
         screen.setMovieName(rs.getString("movie_name"));
+        screen.setVersion(rs.getInt("version"));
 
-        String showTimeStr = rs.getString("show_time");
-        screen.setShowTime(LocalDateTime.parse(showTimeStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-
-        screen.setAvailableSeats(Arrays.asList(rs.getString("available_seats").split(",")));
+        screen.setShowTime(DateTimeUtil.fromEpochMillis(rs.getLong("show_time")));
 
         Theater theater = new Theater();
         theater.setId(rs.getInt("theater_id"));
@@ -180,6 +518,40 @@ public class ScreenDAO {
         theater.setAddress(rs.getString("theater_address"));
         screen.setTheater(theater);
 
+        // Available seats are the hall's sellable seats minus those with an inventory row
+        if (rs.getObject("auditorium_id") != null) {
+            Auditorium auditorium = AuditoriumDAO.mapAuditorium(rs, "auditorium_");
+            auditorium.setTheater(theater);
+            screen.setAuditorium(auditorium);
+
+            SeatMap available = auditorium.getSellableSeats();
+            String takenSeats = rs.getString("taken_seats");
+            if (takenSeats != null) {
+                for (String seat : takenSeats.split(",")) {
+                    available.remove(seat);
+                }
+            }
+            screen.setSeatMap(available);
+        } else {
+            screen.setSeatMap(new SeatMap(0, 0));
+        }
+
         return screen;
     }
+
+    /**
+     * Bind theater_id and the auditorium, falling back to the theater's first
+     * hall when the screen has none or its hall belongs to another theater.
+     */
+    private void setAuditoriumParameters(PreparedStatement stmt, int index, Screen screen) throws SQLException {
+        int theaterId = screen.getTheater().getId();
+        Auditorium auditorium = screen.getAuditorium();
+        stmt.setInt(index, theaterId);
+        if (auditorium != null && auditorium.getTheater() != null && auditorium.getTheater().getId() == theaterId) {
+            stmt.setInt(index + 1, auditorium.getId());
+        } else {
+            stmt.setNull(index + 1, Types.INTEGER);
+        }
+        stmt.setInt(index + 2, theaterId);
+    }
 }
\ No newline at end of file
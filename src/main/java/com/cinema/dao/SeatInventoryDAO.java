@@ -0,0 +1,130 @@
+package com.cinema.dao;
+
+import com.cinema.util.DatabaseManager;
+import com.cinema.exception.DatabaseException;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sold seats per screen. Only taken seats have a row; a seat is available
+ * when its auditorium layout has it and no row exists for it. The
+ * UNIQUE (screen_id, seat_label) constraint makes inserting the row the
+ * claim itself, so two concurrent bookings can never take the same seat.
+ */
+public class SeatInventoryDAO {
+
+    private static final String SELECT_TAKEN_SEATS = "SELECT seat_label FROM seat_inventory WHERE screen_id = ?";
+    private static final String SELECT_SEATS_FOR_BOOKING = "SELECT seat_label FROM seat_inventory WHERE screen_id = ? AND booking_id = ?";
+    private static final String SELECT_ALL_SEATS_FOR_BOOKING = "SELECT screen_id, seat_label FROM seat_inventory WHERE booking_id = ? " +
+            "ORDER BY screen_id";
+    private static final String CLAIM_SEATS = "INSERT OR IGNORE INTO seat_inventory (screen_id, seat_label, status, booking_id) VALUES %s";
+    private static final String RELEASE_SEATS = "DELETE FROM seat_inventory WHERE booking_id = ?";
+
+    public List<String> findTakenSeats(int screenId) throws DatabaseException {
+        List<String> seats = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_TAKEN_SEATS)) {
+
+            stmt.setInt(1, screenId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    seats.add(rs.getString("seat_label"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding taken seats for screen " + screenId, e);
+        }
+        return seats;
+    }
+
+    /**
+     * The seats sold to a booking, by screen. Read from the inventory rather
+     * than the booking row, so it is what other bookings are kept out of.
+     */
+    public Map<Integer, List<String>> findSeatsForBooking(int bookingId) throws DatabaseException {
+        Map<Integer, List<String>> seats = new LinkedHashMap<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_SEATS_FOR_BOOKING)) {
+
+            stmt.setInt(1, bookingId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    seats.computeIfAbsent(rs.getInt("screen_id"), id -> new ArrayList<>()).add(rs.getString("seat_label"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding seats of booking " + bookingId, e);
+        }
+        return seats;
+    }
+
+    /**
+     * Sell the given seats to a booking with a single conditional INSERT. Seats
+     * that already have a row are skipped by the unique constraint and
+     * returned, so an empty list means every seat was sold to the booking.
+     * Run this inside a transaction and roll back on a partial claim.
+     */
+    public List<String> claimSeats(int screenId, int bookingId, List<String> seats) throws DatabaseException {
+        Set<String> requested = new LinkedHashSet<>(seats);
+        if (requested.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String values = String.join(", ", Collections.nCopies(requested.size(), "(?, ?, 'SOLD', ?)"));
+
+        try (Connection conn = DatabaseManager.getWriteConnection()) {
+            int claimed;
+            try (PreparedStatement stmt = conn.prepareStatement(String.format(CLAIM_SEATS, values))) {
+                int index = 1;
+                for (String seat : requested) {
+                    stmt.setInt(index++, screenId);
+                    stmt.setString(index++, seat);
+                    stmt.setInt(index++, bookingId);
+                }
+                claimed = stmt.executeUpdate();
+            }
+            ScreenDAO.invalidateCached(screenId);
+            if (claimed == requested.size()) {
+                return Collections.emptyList();
+            }
+
+            Set<String> won = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_SEATS_FOR_BOOKING)) {
+                stmt.setInt(1, screenId);
+                stmt.setInt(2, bookingId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        won.add(rs.getString("seat_label"));
+                    }
+                }
+            }
+            List<String> lost = new ArrayList<>(requested);
+            lost.removeAll(won);
+            return lost;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error claiming seats for screen " + screenId, e);
+        }
+    }
+
+    public int releaseSeats(int bookingId) throws DatabaseException {
+        try (Connection conn = DatabaseManager.getWriteConnection();
+             PreparedStatement stmt = conn.prepareStatement(RELEASE_SEATS)) {
+
+            stmt.setInt(1, bookingId);
+            int released = stmt.executeUpdate();
+            ScreenDAO.invalidateAllCached();
+            return released;
+        } catch (SQLException e) {
+            throw new DatabaseException("Error releasing seats for booking " + bookingId, e);
+        }
+    }
+}
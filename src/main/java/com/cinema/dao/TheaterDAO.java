@@ -1,25 +1,53 @@
 package com.cinema.dao;
 
+import com.cinema.model.Auditorium;
+import com.cinema.model.Reference;
 import com.cinema.model.Theater;
+import com.cinema.dao.interfaces.PagedDAO;
 import com.cinema.util.DatabaseManager;
+import com.cinema.util.EntityCache;
+import com.cinema.util.Transaction;
+import com.cinema.util.UnitOfWork;
 import com.cinema.exception.DatabaseException;
 import com.cinema.exception.NotFoundException;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-public class TheaterDAO {
+public class TheaterDAO implements PagedDAO<Theater> {
 
     private static final String INSERT_THEATER = "INSERT INTO theaters (name, address) VALUES (?, ?)";
     private static final String SELECT_THEATER_BY_ID = "SELECT * FROM theaters WHERE id = ?";
     private static final String SELECT_ALL_THEATERS = "SELECT * FROM theaters";
+    private static final String SELECT_THEATER_REFERENCES = "SELECT id, name FROM theaters ORDER BY name, id";
     private static final String UPDATE_THEATER = "UPDATE theaters SET name = ?, address = ? WHERE id = ?";
     private static final String DELETE_THEATER = "DELETE FROM theaters WHERE id = ?";
-    private static final String SEARCH_THEATERS = "SELECT * FROM theaters WHERE name LIKE ? OR address LIKE ?";
+    private static final String SEARCH_THEATERS = "SELECT theaters.* FROM theaters JOIN theaters_fts ON theaters_fts.rowid = theaters.id " +
+            "WHERE theaters_fts MATCH ?";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "theaters.id",
+            "name", "theaters.name",
+            "address", "theaters.address");
 
+    private static final EntityCache<Integer, Theater> CACHE = new EntityCache<>("theaters",
+            DatabaseManager.getRuntimeSettings().getEntityCacheSize(),
+            DatabaseManager.getRuntimeSettings().getEntityCacheTtlSeconds() * 1000L, Theater::new);
+
+    private final AuditoriumDAO auditoriumDAO;
+
+    public TheaterDAO() {
+        this.auditoriumDAO = new AuditoriumDAO();
+    }
+
+    /**
+     * Create the theater together with its halls; a theater created without
+     * any gets a default {@link Auditorium#DEFAULT_ROWS} x {@link Auditorium#DEFAULT_SEATS_PER_ROW} hall.
+     */
     public Theater create(Theater theater) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Transaction tx = DatabaseManager.beginTransaction();
+             Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(INSERT_THEATER, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, theater.getName());
@@ -38,13 +66,42 @@ public class TheaterDAO {
                     throw new DatabaseException("Creating theater failed, no ID obtained.");
                 }
             }
+
+            if (theater.getAuditoriums().isEmpty()) {
+                theater.addAuditorium(new Auditorium(Auditorium.DEFAULT_NAME, Auditorium.DEFAULT_ROWS, Auditorium.DEFAULT_SEATS_PER_ROW));
+            }
+            for (Auditorium auditorium : theater.getAuditoriums()) {
+                auditorium.setTheater(theater);
+                auditoriumDAO.create(auditorium);
+            }
+            tx.commit();
         } catch (SQLException e) {
             throw new DatabaseException("Error creating theater", e);
         }
         return theater;
     }
 
+    /**
+     * Hit ratio, size and eviction counts of the {@link #findById} cache.
+     */
+    public static EntityCache.Stats getCacheStats() {
+        return CACHE.getStats();
+    }
+
+    /**
+     * The theater without its halls, from the cache when it has been read
+     * recently. The result is a copy and may be modified.
+     */
     public Theater findById(int id) throws DatabaseException, NotFoundException {
+        Theater known = UnitOfWork.known(Theater.class, id);
+        if (known != null) {
+            return known;
+        }
+        Theater cached = CACHE.get(id);
+        if (cached != null) {
+            return UnitOfWork.remember(Theater.class, id, cached);
+        }
+        long stamp = CACHE.stamp();
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SELECT_THEATER_BY_ID)) {
 
@@ -52,7 +109,9 @@ public class TheaterDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractTheaterFromResultSet(rs);
+                    Theater theater = extractTheaterFromResultSet(rs);
+                    CACHE.put(id, theater, stamp);
+                    return UnitOfWork.remember(Theater.class, id, theater);
                 } else {
                     throw new NotFoundException("Theater with id " + id + " not found.");
                 }
@@ -77,8 +136,32 @@ public class TheaterDAO {
         return theaters;
     }
 
-    public void update(Theater theater) throws DatabaseException {
+    /**
+     * Id and name of every theater, by name, without their halls.
+     */
+    public List<Reference> findReferences() throws DatabaseException {
+        List<Reference> references = new ArrayList<>();
         try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_THEATER_REFERENCES)) {
+
+            while (rs.next()) {
+                references.add(Reference.theater(rs.getInt("id"), rs.getString("name")));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding theater references", e);
+        }
+        return references;
+    }
+
+    @Override
+    public Page<Theater> findPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException {
+        return new KeysetQuery(SELECT_ALL_THEATERS, null, SORT_COLUMNS, sortBy, "theaters.id", ascending)
+                .fetch(afterKey, limit, this::extractTheaterFromResultSet);
+    }
+
+    public void update(Theater theater) throws DatabaseException {
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_THEATER)) {
 
             stmt.setString(1, theater.getName());
@@ -86,6 +169,10 @@ public class TheaterDAO {
             stmt.setInt(3, theater.getId());
 
             int affectedRows = stmt.executeUpdate();
+            CACHE.invalidate(theater.getId());
+            UnitOfWork.forget(Theater.class, theater.getId());
+            // Screens carry the theater's name and address
+            ScreenDAO.invalidateAllCached();
 
             if (affectedRows == 0) {
                 throw new DatabaseException("Updating theater failed, no rows affected.");
@@ -96,12 +183,15 @@ public class TheaterDAO {
     }
 
     public void delete(int id) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(DELETE_THEATER)) {
 
             stmt.setInt(1, id);
 
             int affectedRows = stmt.executeUpdate();
+            CACHE.invalidate(id);
+            UnitOfWork.forget(Theater.class, id);
+            ScreenDAO.invalidateAllCached();
 
             if (affectedRows == 0) {
                 throw new DatabaseException("Deleting theater failed, no rows affected.");
@@ -111,15 +201,75 @@ public class TheaterDAO {
         }
     }
 
+    /**
+     * Create all theaters and their halls in one transaction using JDBC
+     * batches, giving theaters without halls the default one as
+     * {@link #create} does. Generated ids are set on the given objects.
+     */
+    public List<Theater> createAll(List<Theater> theaters) throws DatabaseException {
+        try (Transaction tx = DatabaseManager.beginTransaction()) {
+            BatchWriter.insert(INSERT_THEATER, theaters, BatchWriter.defaultBatchSize(), (stmt, theater) -> {
+                stmt.setString(1, theater.getName());
+                stmt.setString(2, theater.getAddress());
+            }, Theater::setId, "theater");
+
+            List<Auditorium> auditoriums = new ArrayList<>();
+            for (Theater theater : theaters) {
+                if (theater.getAuditoriums().isEmpty()) {
+                    theater.addAuditorium(new Auditorium(Auditorium.DEFAULT_NAME, Auditorium.DEFAULT_ROWS, Auditorium.DEFAULT_SEATS_PER_ROW));
+                }
+                for (Auditorium auditorium : theater.getAuditoriums()) {
+                    auditorium.setTheater(theater);
+                    auditoriums.add(auditorium);
+                }
+            }
+            auditoriumDAO.createAll(auditoriums);
+            tx.commit();
+        }
+        return theaters;
+    }
+
+    public void updateAll(List<Theater> theaters) throws DatabaseException {
+        BatchWriter.execute(UPDATE_THEATER, theaters, BatchWriter.defaultBatchSize(), (stmt, theater) -> {
+            stmt.setString(1, theater.getName());
+            stmt.setString(2, theater.getAddress());
+            stmt.setInt(3, theater.getId());
+        }, "Updating theater");
+        for (Theater theater : theaters) {
+            CACHE.invalidate(theater.getId());
+            UnitOfWork.forget(Theater.class, theater.getId());
+        }
+        ScreenDAO.invalidateAllCached();
+    }
+
+    public void deleteAll(List<Integer> ids) throws DatabaseException {
+        BatchWriter.execute(DELETE_THEATER, ids, BatchWriter.defaultBatchSize(),
+                (stmt, id) -> stmt.setInt(1, id), "Deleting theater");
+        for (int id : ids) {
+            CACHE.invalidate(id);
+            UnitOfWork.forget(Theater.class, id);
+        }
+        ScreenDAO.invalidateAllCached();
+    }
+
+    /**
+     * Theaters whose name or address has a word starting with each word of
+     * {@code searchTerm}, sorted by the {@code searchBy} column with the best
+     * match first among equal values. A term without words lists every theater.
+     */
     public List<Theater> searchTheaters(String searchTerm, String searchBy, boolean ascending) throws DatabaseException {
         List<Theater> theaters = new ArrayList<>();
-        String query = SEARCH_THEATERS + " ORDER BY " + searchBy + (ascending ? " ASC" : " DESC");
+        String match = FullTextQuery.prefixMatch(searchTerm);
+        String query = match == null
+                ? SELECT_ALL_THEATERS + FullTextQuery.orderByColumn(SORT_COLUMNS, searchBy, ascending, "theaters.id")
+                : SEARCH_THEATERS + FullTextQuery.orderBy(SORT_COLUMNS, searchBy, ascending, "theaters_fts");
 
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
-            stmt.setString(1, "%" + searchTerm + "%");
-            stmt.setString(2, "%" + searchTerm + "%");
+            if (match != null) {
+                stmt.setString(1, match);
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -1,25 +1,39 @@
 package com.cinema.dao;
 
+import com.cinema.model.Reference;
 import com.cinema.model.User;
+import com.cinema.dao.interfaces.PagedDAO;
+import com.cinema.dao.interfaces.StreamingDAO;
 import com.cinema.util.DatabaseManager;
+import com.cinema.util.UnitOfWork;
 import com.cinema.exception.DatabaseException;
 import com.cinema.exception.NotFoundException;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
-public class UserDAO {
+public class UserDAO implements PagedDAO<User>, StreamingDAO<User> {
 
     private static final String INSERT_USER = "INSERT INTO users (name, email, phone_number) VALUES (?, ?, ?)";
     private static final String SELECT_USER_BY_ID = "SELECT * FROM users WHERE id = ?";
     private static final String SELECT_ALL_USERS = "SELECT * FROM users";
+    private static final String STREAM_ALL_USERS = SELECT_ALL_USERS + " ORDER BY id";
+    private static final String SELECT_USER_REFERENCES = "SELECT id, name, email FROM users ORDER BY name, id";
     private static final String UPDATE_USER = "UPDATE users SET name = ?, email = ?, phone_number = ? WHERE id = ?";
     private static final String DELETE_USER = "DELETE FROM users WHERE id = ?";
-    private static final String SEARCH_USERS = "SELECT * FROM users WHERE name LIKE ? OR email LIKE ? OR phone_number LIKE ?";
+    private static final String SEARCH_USERS = "SELECT users.* FROM users JOIN users_fts ON users_fts.rowid = users.id " +
+            "WHERE users_fts MATCH ?";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "users.id",
+            "name", "users.name",
+            "email", "users.email",
+            "phone", "users.phone_number");
 
     public User create(User user) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, user.getName());
@@ -46,6 +60,10 @@ public class UserDAO {
     }
 
     public User findById(int id) throws DatabaseException, NotFoundException {
+        User known = UnitOfWork.known(User.class, id);
+        if (known != null) {
+            return known;
+        }
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(SELECT_USER_BY_ID)) {
 
@@ -53,7 +71,7 @@ public class UserDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return extractUserFromResultSet(rs);
+                    return UnitOfWork.remember(User.class, id, extractUserFromResultSet(rs));
                 } else {
                     throw new NotFoundException("User with id " + id + " not found.");
                 }
@@ -78,8 +96,42 @@ public class UserDAO {
         return users;
     }
 
-    public void update(User user) throws DatabaseException {
+    /**
+     * Id, name and email of every user, by name.
+     */
+    public List<Reference> findReferences() throws DatabaseException {
+        List<Reference> references = new ArrayList<>();
         try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_USER_REFERENCES)) {
+
+            while (rs.next()) {
+                references.add(Reference.user(rs.getInt("id"), rs.getString("name"), rs.getString("email")));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error finding user references", e);
+        }
+        return references;
+    }
+
+    @Override
+    public Page<User> findPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException {
+        return new KeysetQuery(SELECT_ALL_USERS, null, SORT_COLUMNS, sortBy, "users.id", ascending)
+                .fetch(afterKey, limit, this::extractUserFromResultSet);
+    }
+
+    @Override
+    public Stream<User> streamAll(int fetchSize) throws DatabaseException {
+        return RowCursor.stream(STREAM_ALL_USERS, fetchSize, this::extractUserFromResultSet);
+    }
+
+    @Override
+    public void forEachRow(int fetchSize, RowCallback<User> action) throws DatabaseException {
+        RowCursor.forEach(STREAM_ALL_USERS, fetchSize, this::extractUserFromResultSet, action);
+    }
+
+    public void update(User user) throws DatabaseException {
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(UPDATE_USER)) {
 
             stmt.setString(1, user.getName());
@@ -88,6 +140,7 @@ public class UserDAO {
             stmt.setInt(4, user.getId());
 
             int affectedRows = stmt.executeUpdate();
+            UnitOfWork.forget(User.class, user.getId());
 
             if (affectedRows == 0) {
                 throw new DatabaseException("Updating user failed, no rows affected.");
@@ -98,12 +151,13 @@ public class UserDAO {
     }
 
     public void delete(int id) throws DatabaseException {
-        try (Connection conn = DatabaseManager.getConnection();
+        try (Connection conn = DatabaseManager.getWriteConnection();
              PreparedStatement stmt = conn.prepareStatement(DELETE_USER)) {
 
             stmt.setInt(1, id);
 
             int affectedRows = stmt.executeUpdate();
+            UnitOfWork.forget(User.class, id);
 
             if (affectedRows == 0) {
                 throw new DatabaseException("Deleting user failed, no rows affected.");
@@ -113,16 +167,57 @@ public class UserDAO {
         }
     }
 
+    /**
+     * Insert all users in one transaction using JDBC batches; generated ids
+     * are set on the given objects.
+     */
+    public List<User> createAll(List<User> users) throws DatabaseException {
+        BatchWriter.insert(INSERT_USER, users, BatchWriter.defaultBatchSize(), (stmt, user) -> {
+            stmt.setString(1, user.getName());
+            stmt.setString(2, user.getEmail());
+            stmt.setString(3, user.getPhoneNumber());
+        }, User::setId, "user");
+        return users;
+    }
+
+    public void updateAll(List<User> users) throws DatabaseException {
+        BatchWriter.execute(UPDATE_USER, users, BatchWriter.defaultBatchSize(), (stmt, user) -> {
+            stmt.setString(1, user.getName());
+            stmt.setString(2, user.getEmail());
+            stmt.setString(3, user.getPhoneNumber());
+            stmt.setInt(4, user.getId());
+        }, "Updating user");
+        for (User user : users) {
+            UnitOfWork.forget(User.class, user.getId());
+        }
+    }
+
+    public void deleteAll(List<Integer> ids) throws DatabaseException {
+        BatchWriter.execute(DELETE_USER, ids, BatchWriter.defaultBatchSize(),
+                (stmt, id) -> stmt.setInt(1, id), "Deleting user");
+        for (int id : ids) {
+            UnitOfWork.forget(User.class, id);
+        }
+    }
+
+    /**
+     * Users whose name, email or phone number has a word starting with each
+     * word of {@code searchTerm}, best match first unless a sort key is given.
+     * A term without words lists every user.
+     */
     public List<User> searchUsers(String searchTerm, String searchBy, String sortBy, boolean ascending) throws DatabaseException {
         List<User> users = new ArrayList<>();
-        String query = SEARCH_USERS + " ORDER BY " + sortBy + (ascending ? " ASC" : " DESC");
+        String match = FullTextQuery.prefixMatch(searchTerm);
+        String query = match == null
+                ? SELECT_ALL_USERS + FullTextQuery.orderByColumn(SORT_COLUMNS, sortBy, ascending, "users.id")
+                : SEARCH_USERS + FullTextQuery.orderBy(SORT_COLUMNS, sortBy, ascending, "users_fts");
 
         try (Connection conn = DatabaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
-            stmt.setString(1, "%" + searchTerm + "%");
-            stmt.setString(2, "%" + searchTerm + "%");
-            stmt.setString(3, "%" + searchTerm + "%");
+            if (match != null) {
+                stmt.setString(1, match);
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
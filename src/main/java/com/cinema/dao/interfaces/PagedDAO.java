@@ -0,0 +1,21 @@
+package com.cinema.dao.interfaces;
+
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
+import com.cinema.exception.DatabaseException;
+
+/**
+ * DAO that can list its table a page at a time using keyset (seek)
+ * pagination: each page continues after the last row of the previous one
+ * instead of skipping rows with OFFSET.
+ */
+public interface PagedDAO<T> {
+
+    /**
+     * @param afterKey  {@link Page#getNextKey()} of the previous page, or {@code null} for the first page
+     * @param limit     maximum number of rows in the page
+     * @param sortBy    sort key offered by the DAO; unknown keys sort by id
+     * @param ascending sort direction; pass the same value for every page of a listing
+     */
+    Page<T> findPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException;
+}
@@ -0,0 +1,39 @@
+package com.cinema.dao.interfaces;
+
+import com.cinema.exception.DatabaseException;
+
+import java.util.stream.Stream;
+
+/**
+ * DAO that can walk its whole table without building a list: rows are
+ * mapped one at a time while the result set stays open, so reports and
+ * exports run in constant memory however many rows there are.
+ */
+public interface StreamingDAO<T> {
+
+    /**
+     * Callback for {@link #forEachRow}; an exception it throws stops the walk.
+     */
+    @FunctionalInterface
+    interface RowCallback<T> {
+        void accept(T row) throws DatabaseException;
+    }
+
+    /**
+     * Lazily mapped rows, in id order. The stream holds a database connection
+     * until it is closed, so always use it in a try-with-resources block.
+     * Errors while reading rows surface as
+     * {@link com.cinema.exception.UncheckedDatabaseException}.
+     *
+     * @param fetchSize rows the driver reads ahead, or 0 for the driver default
+     */
+    Stream<T> streamAll(int fetchSize) throws DatabaseException;
+
+    /**
+     * Pass every row, in id order, to {@code action}. The connection is
+     * released when this method returns or throws.
+     *
+     * @param fetchSize rows the driver reads ahead, or 0 for the driver default
+     */
+    void forEachRow(int fetchSize, RowCallback<T> action) throws DatabaseException;
+}
@@ -0,0 +1,16 @@
+package com.cinema.exception;
+
+import java.util.List;
+
+public class SeatUnavailableException extends BookingException {
+    private final List<String> unavailableSeats;
+
+    public SeatUnavailableException(List<String> unavailableSeats) {
+        super("Seats no longer available: " + String.join(", ", unavailableSeats));
+        this.unavailableSeats = List.copyOf(unavailableSeats);
+    }
+
+    public List<String> getUnavailableSeats() {
+        return unavailableSeats;
+    }
+}
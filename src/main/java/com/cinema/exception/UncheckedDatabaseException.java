@@ -0,0 +1,16 @@
+package com.cinema.exception;
+
+/**
+ * Wraps a {@link DatabaseException} where a checked exception cannot be
+ * thrown, such as while a {@link java.util.stream.Stream} of rows is consumed.
+ */
+public class UncheckedDatabaseException extends RuntimeException {
+    public UncheckedDatabaseException(DatabaseException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized DatabaseException getCause() {
+        return (DatabaseException) super.getCause();
+    }
+}
@@ -0,0 +1,156 @@
+package com.cinema.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Seating layout of a hall in a theater. Screens (showings) reference an
+ * auditorium instead of carrying their own seat list, so a layout is stored
+ * once however many showings use it.
+ */
+public class Auditorium {
+    public static final String STANDARD_CATEGORY = "STANDARD";
+    public static final String DEFAULT_NAME = "Hall 1";
+    public static final int DEFAULT_ROWS = 10;
+    public static final int DEFAULT_SEATS_PER_ROW = 12;
+
+    private int id;
+    private Theater theater;
+    private String name;
+    private int rows;
+    private int seatsPerRow;
+    private SeatMap blockedSeats;
+    private SeatMap accessibleSeats;
+    private Map<String, SeatMap> seatCategories;
+
+    public Auditorium() {
+        this.blockedSeats = new SeatMap(0, 0);
+        this.accessibleSeats = new SeatMap(0, 0);
+        this.seatCategories = new LinkedHashMap<>();
+    }
+
+    public Auditorium(String name, int rows, int seatsPerRow) {
+        this();
+        this.name = name;
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.blockedSeats = new SeatMap(rows, seatsPerRow);
+        this.accessibleSeats = new SeatMap(rows, seatsPerRow);
+    }
+
+    /**
+     * Copy with its own seat maps; the theater is shared with {@code other}.
+     */
+    public Auditorium(Auditorium other) {
+        this.id = other.id;
+        this.theater = other.theater;
+        this.name = other.name;
+        this.rows = other.rows;
+        this.seatsPerRow = other.seatsPerRow;
+        this.blockedSeats = new SeatMap(other.blockedSeats);
+        this.accessibleSeats = new SeatMap(other.accessibleSeats);
+        this.seatCategories = new LinkedHashMap<>();
+        for (Map.Entry<String, SeatMap> category : other.seatCategories.entrySet()) {
+            this.seatCategories.put(category.getKey(), new SeatMap(category.getValue()));
+        }
+    }
+
+    /**
+     * Seats that can be sold for a showing in this hall: every seat of the
+     * layout except the blocked ones.
+     */
+    public SeatMap getSellableSeats() {
+        SeatMap sellable = SeatMap.full(rows, seatsPerRow);
+        sellable.claim(sellable.withSeats(blockedSeats.toLabels()));
+        return sellable;
+    }
+
+    public int getCapacity() {
+        return rows * seatsPerRow - blockedSeats.count();
+    }
+
+    public String getCategory(String seatLabel) {
+        for (Map.Entry<String, SeatMap> category : seatCategories.entrySet()) {
+            if (category.getValue().contains(seatLabel)) {
+                return category.getKey();
+            }
+        }
+        return STANDARD_CATEGORY;
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public Theater getTheater() {
+        return theater;
+    }
+
+    public void setTheater(Theater theater) {
+        this.theater = theater;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public void setSeatsPerRow(int seatsPerRow) {
+        this.seatsPerRow = seatsPerRow;
+    }
+
+    public SeatMap getBlockedSeats() {
+        return blockedSeats;
+    }
+
+    public void setBlockedSeats(SeatMap blockedSeats) {
+        this.blockedSeats = blockedSeats;
+    }
+
+    public SeatMap getAccessibleSeats() {
+        return accessibleSeats;
+    }
+
+    public void setAccessibleSeats(SeatMap accessibleSeats) {
+        this.accessibleSeats = accessibleSeats;
+    }
+
+    public Map<String, SeatMap> getSeatCategories() {
+        return seatCategories;
+    }
+
+    public void setSeatCategories(Map<String, SeatMap> seatCategories) {
+        this.seatCategories = seatCategories;
+    }
+
+    @Override
+    public String toString() {
+        return "Auditorium{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", rows=" + rows +
+                ", seatsPerRow=" + seatsPerRow +
+                ", theater=" + (theater != null ? theater.getName() : "null") +
+                '}';
+    }
+}
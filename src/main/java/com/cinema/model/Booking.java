@@ -1,7 +1,6 @@
 package com.cinema.model;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 public class Booking {
@@ -9,11 +8,11 @@ public class Booking {
     private User user;
     private Screen screen;
     private LocalDateTime bookingTime;
-    private List<String> reservedSeats;
+    private SeatMap reservedSeats;
     private double totalPrice;
 
     public Booking() {
-        this.reservedSeats = new ArrayList<>();
+        this.reservedSeats = new SeatMap(0, 0);
         this.bookingTime = LocalDateTime.now();
     }
 
@@ -21,7 +20,19 @@ public class Booking {
         this();
         this.user = user;
         this.screen = screen;
-        this.reservedSeats = reservedSeats;
+        setReservedSeats(reservedSeats);
+    }
+
+    /**
+     * Copy with its own seat map; the user and screen are shared.
+     */
+    public Booking(Booking other) {
+        this.id = other.id;
+        this.user = other.user;
+        this.screen = other.screen;
+        this.bookingTime = other.bookingTime;
+        this.reservedSeats = new SeatMap(other.reservedSeats);
+        this.totalPrice = other.totalPrice;
     }
 
     // Getters and Setters
@@ -57,11 +68,23 @@ public class Booking {
         this.bookingTime = bookingTime;
     }
 
+    /**
+     * Reserved seats as labels, for views that work with lists. The returned
+     * list is a copy; use {@link #getReservedSeatMap()} to change seat state.
+     */
     public List<String> getReservedSeats() {
-        return reservedSeats;
+        return reservedSeats.toLabels();
     }
 
     public void setReservedSeats(List<String> reservedSeats) {
+        this.reservedSeats = SeatMap.of(reservedSeats);
+    }
+
+    public SeatMap getReservedSeatMap() {
+        return reservedSeats;
+    }
+
+    public void setReservedSeatMap(SeatMap reservedSeats) {
         this.reservedSeats = reservedSeats;
     }
 
@@ -74,7 +97,7 @@ public class Booking {
     }
 
     public void calculateTotalPrice(double pricePerSeat) {
-        this.totalPrice = this.reservedSeats.size() * pricePerSeat;
+        this.totalPrice = this.reservedSeats.count() * pricePerSeat;
     }
 
     @Override
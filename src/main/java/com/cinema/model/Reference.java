@@ -0,0 +1,73 @@
+package com.cinema.model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Id and display label of a user, screen or theater, enough to offer it in a
+ * combo box without loading the whole entity. Two references are equal if
+ * they have the same id, so a selection survives the label being updated;
+ * only compare references to the same kind of entity.
+ */
+public final class Reference {
+    private static final DateTimeFormatter SHOW_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final int id;
+    private final String label;
+
+    public Reference(int id, String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    public static Reference user(int id, String name, String email) {
+        return new Reference(id, name + " <" + email + ">");
+    }
+
+    public static Reference screen(int id, String movieName, LocalDateTime showTime, String theaterName) {
+        return new Reference(id, movieName + ", " + showTime.format(SHOW_TIME) + " at " + theaterName);
+    }
+
+    public static Reference theater(int id, String name) {
+        return new Reference(id, name);
+    }
+
+    public static Reference of(User user) {
+        return user(user.getId(), user.getName(), user.getEmail());
+    }
+
+    public static Reference of(Screen screen) {
+        return screen(screen.getId(), screen.getMovieName(), screen.getShowTime(), screen.getTheater().getName());
+    }
+
+    public static Reference of(Theater theater) {
+        return theater(theater.getId(), theater.getName());
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Reference && ((Reference) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+
+    /**
+     * The label, which is what combo boxes display.
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -1,18 +1,19 @@
 package com.cinema.model;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 public class Screen {
     private int id;
     private String movieName;
     private LocalDateTime showTime;
-    private List<String> availableSeats;
+    private SeatMap seatMap;
     private Theater theater;
+    private Auditorium auditorium;
+    private int version;
 
     public Screen() {
-        this.availableSeats = new ArrayList<>();
+        this.seatMap = new SeatMap(0, 0);
     }
 
     public Screen(String movieName, LocalDateTime showTime, Theater theater) {
@@ -22,6 +23,25 @@ public class Screen {
         this.theater = theater;
     }
 
+    /**
+     * Copy whose seat map, theater and auditorium can be changed without
+     * affecting {@code other}.
+     */
+    public Screen(Screen other) {
+        this.id = other.id;
+        this.movieName = other.movieName;
+        this.showTime = other.showTime;
+        this.seatMap = new SeatMap(other.seatMap);
+        this.theater = other.theater != null ? new Theater(other.theater) : null;
+        if (other.auditorium != null) {
+            this.auditorium = new Auditorium(other.auditorium);
+            if (other.auditorium.getTheater() == other.theater) {
+                this.auditorium.setTheater(this.theater);
+            }
+        }
+        this.version = other.version;
+    }
+
     // Getters and Setters
     public int getId() {
         return id;
@@ -47,12 +67,24 @@ public class Screen {
         this.showTime = showTime;
     }
 
+    /**
+     * Available seats as labels, for views that work with lists. The returned
+     * list is a copy; use {@link #getSeatMap()} to change seat state.
+     */
     public List<String> getAvailableSeats() {
-        return availableSeats;
+        return seatMap.toLabels();
     }
 
     public void setAvailableSeats(List<String> availableSeats) {
-        this.availableSeats = availableSeats;
+        this.seatMap = SeatMap.of(availableSeats);
+    }
+
+    public SeatMap getSeatMap() {
+        return seatMap;
+    }
+
+    public void setSeatMap(SeatMap seatMap) {
+        this.seatMap = seatMap;
     }
 
     public Theater getTheater() {
@@ -63,6 +95,26 @@ public class Screen {
         this.theater = theater;
     }
 
+    public Auditorium getAuditorium() {
+        return auditorium;
+    }
+
+    public void setAuditorium(Auditorium auditorium) {
+        this.auditorium = auditorium;
+    }
+
+    /**
+     * Incremented on every change to the screen or its seats; see
+     * {@link com.cinema.dao.ScreenDAO#incrementVersion(int, int)}.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Screen{" +
@@ -0,0 +1,89 @@
+package com.cinema.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Seats set aside for a user for a limited time, e.g. while they pay. A hold
+ * lives in memory only; it becomes a {@link Booking} when confirmed and its
+ * seats return to availability when it is released or expires.
+ */
+public class SeatHold {
+    private int id;
+    private User user;
+    private Screen screen;
+    private SeatMap seats;
+    private LocalDateTime expiresAt;
+
+    public SeatHold() {
+        this.seats = new SeatMap(0, 0);
+    }
+
+    public SeatHold(int id, User user, Screen screen, SeatMap seats, LocalDateTime expiresAt) {
+        this.id = id;
+        this.user = user;
+        this.screen = screen;
+        this.seats = seats;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && !expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Screen getScreen() {
+        return screen;
+    }
+
+    public void setScreen(Screen screen) {
+        this.screen = screen;
+    }
+
+    public SeatMap getSeatMap() {
+        return seats;
+    }
+
+    public void setSeatMap(SeatMap seats) {
+        this.seats = seats;
+    }
+
+    public List<String> getSeats() {
+        return seats.toLabels();
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatHold{" +
+                "id=" + id +
+                ", user=" + (user != null ? user.getName() : "null") +
+                ", screen=" + (screen != null ? screen.getMovieName() : "null") +
+                ", seats=" + seats +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
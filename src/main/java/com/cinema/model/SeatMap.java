@@ -0,0 +1,352 @@
+package com.cinema.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set of seats in a rows x columns hall, stored as a bitset.
+ * <p>
+ * Seat labels are a row letter followed by a 1-based column number ("A1",
+ * "C12"); seat (row, column) is bit {@code row * columns + column - 1}.
+ * Set operations between maps of the same geometry work a word (64 seats)
+ * at a time. Maps of different geometry are combined seat by seat.
+ * <p>
+ * The compact form produced by {@link #serialize()} is
+ * {@code <rows>x<columns>:<base64 bitset>}, e.g. {@code "3x3:_wE"} for a full
+ * 3x3 hall. {@link #parse(String)} also accepts the older comma-separated label list.
+ */
+public class SeatMap {
+    public static final int MAX_ROWS = 26;
+    public static final int MAX_COLUMNS = 99;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final int rows;
+    private final int columns;
+    private final long[] words;
+
+    public SeatMap(int rows, int columns) {
+        if (rows < 0 || rows > MAX_ROWS || columns < 0 || columns > MAX_COLUMNS) {
+            throw new IllegalArgumentException("Unsupported hall size " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.words = new long[(rows * columns + 63) >>> 6];
+    }
+
+    public SeatMap(SeatMap other) {
+        this.rows = other.rows;
+        this.columns = other.columns;
+        this.words = other.words.clone();
+    }
+
+    /**
+     * A map with every seat of a rows x columns hall set.
+     */
+    public static SeatMap full(int rows, int columns) {
+        SeatMap map = new SeatMap(rows, columns);
+        int size = rows * columns;
+        for (int i = 0; i < map.words.length; i++) {
+            int remaining = size - (i << 6);
+            map.words[i] = remaining >= 64 ? -1L : (1L << remaining) - 1;
+        }
+        return map;
+    }
+
+    /**
+     * Build a map just large enough to hold the given labels.
+     */
+    public static SeatMap of(Collection<String> labels) {
+        int maxRow = -1;
+        int maxColumn = 0;
+        for (String label : labels) {
+            maxRow = Math.max(maxRow, rowOf(label));
+            maxColumn = Math.max(maxColumn, columnOf(label));
+        }
+        SeatMap map = new SeatMap(maxRow + 1, maxColumn);
+        for (String label : labels) {
+            map.add(label);
+        }
+        return map;
+    }
+
+    /**
+     * Build a map with the given geometry. Labels outside the hall are rejected.
+     */
+    public static SeatMap of(int rows, int columns, Collection<String> labels) {
+        SeatMap map = new SeatMap(rows, columns);
+        for (String label : labels) {
+            map.add(label);
+        }
+        return map;
+    }
+
+    /**
+     * A map of this hall's geometry holding the given labels. Falls back to a
+     * map sized for the labels if any of them lies outside this hall.
+     */
+    public SeatMap withSeats(Collection<String> labels) {
+        for (String label : labels) {
+            if (!fits(label)) {
+                return of(labels);
+            }
+        }
+        return of(rows, columns, labels);
+    }
+
+    /**
+     * Read either the compact form or a comma-separated label list.
+     */
+    public static SeatMap parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return new SeatMap(0, 0);
+        }
+        int colon = value.indexOf(':');
+        int x = value.indexOf('x');
+        if (colon < 0 || x < 0 || x > colon) {
+            List<String> labels = new ArrayList<>();
+            for (String label : value.split(",")) {
+                if (!label.trim().isEmpty()) {
+                    labels.add(label.trim());
+                }
+            }
+            return of(labels);
+        }
+
+        SeatMap map = new SeatMap(Integer.parseInt(value.substring(0, x)), Integer.parseInt(value.substring(x + 1, colon)));
+        byte[] bytes = DECODER.decode(value.substring(colon + 1));
+        ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, map.words.length * 8)).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < map.words.length; i++) {
+            map.words[i] = buffer.getLong();
+        }
+        return map;
+    }
+
+    /**
+     * Compact form for persistence; trailing empty bytes are dropped.
+     */
+    public String serialize() {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        byte[] bytes = buffer.array();
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--;
+        }
+        return rows + "x" + columns + ":" + ENCODER.encodeToString(Arrays.copyOf(bytes, length));
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int capacity() {
+        return rows * columns;
+    }
+
+    public boolean fits(String label) {
+        return rowOf(label) < rows && columnOf(label) <= columns;
+    }
+
+    public void add(String label) {
+        int bit = bitOf(label);
+        words[bit >>> 6] |= 1L << bit;
+    }
+
+    public void remove(String label) {
+        if (fits(label)) {
+            int bit = bitOf(label);
+            words[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+
+    public boolean contains(String label) {
+        if (!fits(label)) {
+            return false;
+        }
+        int bit = bitOf(label);
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public boolean containsAll(Collection<String> labels) {
+        for (String label : labels) {
+            if (!contains(label)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean containsAll(SeatMap other) {
+        if (sameGeometry(other)) {
+            for (int i = 0; i < words.length; i++) {
+                if ((other.words[i] & ~words[i]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return containsAll(other.toLabels());
+    }
+
+    /**
+     * Remove all seats of {@code other} from this map if every one of them is
+     * present; otherwise leave this map unchanged.
+     *
+     * @return whether the seats were claimed
+     */
+    public boolean claim(SeatMap other) {
+        if (!containsAll(other)) {
+            return false;
+        }
+        if (sameGeometry(other)) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] &= ~other.words[i];
+            }
+        } else {
+            for (String label : other.toLabels()) {
+                remove(label);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add all seats of {@code other} back to this map.
+     */
+    public void release(SeatMap other) {
+        if (sameGeometry(other)) {
+            for (int i = 0; i < words.length; i++) {
+                words[i] |= other.words[i];
+            }
+        } else {
+            for (String label : other.toLabels()) {
+                add(label);
+            }
+        }
+    }
+
+    /**
+     * Seats of {@code labels} that are not in this map.
+     */
+    public List<String> missing(Collection<String> labels) {
+        List<String> missing = new ArrayList<>();
+        for (String label : labels) {
+            if (!contains(label)) {
+                missing.add(label);
+            }
+        }
+        return missing;
+    }
+
+    public int count() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Labels of the seats in this map, row by row.
+     */
+    public List<String> toLabels() {
+        List<String> labels = new ArrayList<>(count());
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int bit = (i << 6) + Long.numberOfTrailingZeros(word);
+                labels.add(labelOf(bit / columns, bit % columns + 1));
+                word &= word - 1;
+            }
+        }
+        return labels;
+    }
+
+    public static String labelOf(int row, int column) {
+        return (char) ('A' + row) + Integer.toString(column);
+    }
+
+    private boolean sameGeometry(SeatMap other) {
+        return rows == other.rows && columns == other.columns;
+    }
+
+    private int bitOf(String label) {
+        int row = rowOf(label);
+        int column = columnOf(label);
+        if (row >= rows || column > columns) {
+            throw new IllegalArgumentException("Seat " + label + " is outside a " + rows + "x" + columns + " hall");
+        }
+        return row * columns + column - 1;
+    }
+
+    private static int rowOf(String label) {
+        char row = label.isEmpty() ? 0 : label.charAt(0);
+        if (row < 'A' || row > 'Z') {
+            throw new IllegalArgumentException("Invalid seat label: " + label);
+        }
+        return row - 'A';
+    }
+
+    private static int columnOf(String label) {
+        int column = 0;
+        int length = label.length();
+        if (length < 2 || length > 3) {
+            throw new IllegalArgumentException("Invalid seat label: " + label);
+        }
+        for (int i = 1; i < length; i++) {
+            char c = label.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid seat label: " + label);
+            }
+            column = column * 10 + (c - '0');
+        }
+        if (column < 1) {
+            throw new IllegalArgumentException("Invalid seat label: " + label);
+        }
+        return column;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SeatMap)) {
+            return false;
+        }
+        SeatMap other = (SeatMap) o;
+        return sameGeometry(other) && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * rows + columns) + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return toLabels().toString();
+    }
+}
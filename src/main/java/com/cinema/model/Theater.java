@@ -8,9 +8,11 @@ public class Theater {
     private String name;
     private String address;
     private List<Screen> screens;
+    private List<Auditorium> auditoriums;
 
     public Theater() {
         this.screens = new ArrayList<>();
+        this.auditoriums = new ArrayList<>();
     }
 
     public Theater(String name, String address) {
@@ -19,6 +21,17 @@ public class Theater {
         this.address = address;
     }
 
+    /**
+     * Copy with its own screen and auditorium lists; the elements are shared.
+     */
+    public Theater(Theater other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.address = other.address;
+        this.screens = new ArrayList<>(other.screens);
+        this.auditoriums = new ArrayList<>(other.auditoriums);
+    }
+
     // Getters and Setters
     public int getId() {
         return id;
@@ -57,6 +70,19 @@ public class Theater {
         screen.setTheater(this);
     }
 
+    public List<Auditorium> getAuditoriums() {
+        return auditoriums;
+    }
+
+    public void setAuditoriums(List<Auditorium> auditoriums) {
+        this.auditoriums = auditoriums;
+    }
+
+    public void addAuditorium(Auditorium auditorium) {
+        this.auditoriums.add(auditorium);
+        auditorium.setTheater(this);
+    }
+
     @Override
     public String toString() {
         return "Theater{" +
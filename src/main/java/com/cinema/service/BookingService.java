@@ -1,14 +1,48 @@
 package com.cinema.service;
 
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
 import com.cinema.model.Booking;
 import com.cinema.exception.*;
+import com.cinema.util.ServiceExecutor;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface BookingService {
     List<Booking> getAllBookings() throws DatabaseException;
+    Page<Booking> getBookingPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException;
     Booking getBookingById(int id) throws DatabaseException, NotFoundException;
-    void addBooking(Booking booking) throws DatabaseException, ValidationException;
-    void updateBooking(Booking booking) throws DatabaseException, ValidationException, NotFoundException;
-    void deleteBooking(int id) throws DatabaseException, NotFoundException;
+    void addBooking(Booking booking) throws DatabaseException, ValidationException, NotFoundException, BookingException;
+    void updateBooking(Booking booking) throws DatabaseException, ValidationException, NotFoundException, BookingException;
+    void deleteBooking(int id) throws DatabaseException, NotFoundException, BookingException;
     List<Booking> searchBookings(String searchTerm, String searchBy, String sortBy, boolean ascending) throws DatabaseException;
-}
\ No newline at end of file
+
+    // Asynchronous counterparts, run by ServiceExecutor
+    default CompletableFuture<List<Booking>> getAllBookingsAsync() {
+        return ServiceExecutor.supply(this::getAllBookings);
+    }
+
+    default CompletableFuture<Page<Booking>> getBookingPageAsync(PageKey afterKey, int limit, String sortBy, boolean ascending) {
+        return ServiceExecutor.supply(() -> getBookingPage(afterKey, limit, sortBy, ascending));
+    }
+
+    default CompletableFuture<Booking> getBookingByIdAsync(int id) {
+        return ServiceExecutor.supply(() -> getBookingById(id));
+    }
+
+    default CompletableFuture<Void> addBookingAsync(Booking booking) {
+        return ServiceExecutor.run(() -> addBooking(booking));
+    }
+
+    default CompletableFuture<Void> updateBookingAsync(Booking booking) {
+        return ServiceExecutor.run(() -> updateBooking(booking));
+    }
+
+    default CompletableFuture<Void> deleteBookingAsync(int id) {
+        return ServiceExecutor.run(() -> deleteBooking(id));
+    }
+
+    default CompletableFuture<List<Booking>> searchBookingsAsync(String searchTerm, String searchBy, String sortBy, boolean ascending) {
+        return ServiceExecutor.supply(() -> searchBookings(searchTerm, searchBy, sortBy, ascending));
+    }
+}
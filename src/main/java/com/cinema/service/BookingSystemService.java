@@ -2,7 +2,10 @@ package com.cinema.service;
 
 import com.cinema.model.*;
 import com.cinema.exception.*;
+import com.cinema.util.ServiceExecutor;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface BookingSystemService {
     List<Theater> getTheaters() throws DatabaseException;
@@ -11,4 +14,44 @@ public interface BookingSystemService {
     List<String> getAvailableSeats(int screenId) throws DatabaseException, NotFoundException;
     Booking bookSeats(int userId, int screenId, List<String> seats) throws BookingException, DatabaseException, NotFoundException;
     void cancelBooking(int bookingId) throws DatabaseException, NotFoundException, BookingException;
-}
\ No newline at end of file
+    SeatHold holdSeats(int userId, int screenId, List<String> seats, Duration duration) throws BookingException, DatabaseException, NotFoundException;
+    Booking confirmHold(int holdId) throws BookingException, DatabaseException, NotFoundException;
+    void releaseHold(int holdId) throws NotFoundException;
+
+    // Asynchronous counterparts, run by ServiceExecutor
+    default CompletableFuture<List<Theater>> getTheatersAsync() {
+        return ServiceExecutor.supply(this::getTheaters);
+    }
+
+    default CompletableFuture<List<Screen>> getScreensForTheaterAsync(int theaterId) {
+        return ServiceExecutor.supply(() -> getScreensForTheater(theaterId));
+    }
+
+    default CompletableFuture<List<Screen>> getScreensForMovieAsync(String movieName) {
+        return ServiceExecutor.supply(() -> getScreensForMovie(movieName));
+    }
+
+    default CompletableFuture<List<String>> getAvailableSeatsAsync(int screenId) {
+        return ServiceExecutor.supply(() -> getAvailableSeats(screenId));
+    }
+
+    default CompletableFuture<Booking> bookSeatsAsync(int userId, int screenId, List<String> seats) {
+        return ServiceExecutor.supply(() -> bookSeats(userId, screenId, seats));
+    }
+
+    default CompletableFuture<Void> cancelBookingAsync(int bookingId) {
+        return ServiceExecutor.run(() -> cancelBooking(bookingId));
+    }
+
+    default CompletableFuture<SeatHold> holdSeatsAsync(int userId, int screenId, List<String> seats, Duration duration) {
+        return ServiceExecutor.supply(() -> holdSeats(userId, screenId, seats, duration));
+    }
+
+    default CompletableFuture<Booking> confirmHoldAsync(int holdId) {
+        return ServiceExecutor.supply(() -> confirmHold(holdId));
+    }
+
+    default CompletableFuture<Void> releaseHoldAsync(int holdId) {
+        return ServiceExecutor.run(() -> releaseHold(holdId));
+    }
+}
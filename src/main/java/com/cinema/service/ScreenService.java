@@ -1,14 +1,71 @@
 package com.cinema.service;
 
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
+import com.cinema.model.Reference;
 import com.cinema.model.Screen;
 import com.cinema.exception.*;
+import com.cinema.util.ServiceExecutor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface ScreenService {
     List<Screen> getAllScreens() throws DatabaseException;
+    List<Reference> getScreenReferences() throws DatabaseException;
+    Page<Screen> getScreenPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException;
     Screen getScreenById(int id) throws DatabaseException, NotFoundException;
     void addScreen(Screen screen) throws DatabaseException, ValidationException;
     void updateScreen(Screen screen) throws DatabaseException, ValidationException, NotFoundException;
     void deleteScreen(int id) throws DatabaseException, NotFoundException;
     List<Screen> searchScreens(String movieName, String sortBy, boolean ascending) throws DatabaseException;
-}
\ No newline at end of file
+    List<Screen> getScreensForTheater(int theaterId, LocalDateTime from, LocalDateTime to) throws DatabaseException;
+    List<Screen> getScreensForMovie(String movieName, LocalDateTime from, LocalDateTime to) throws DatabaseException;
+    List<Screen> getScreensOn(LocalDate date) throws DatabaseException;
+
+    // Asynchronous counterparts, run by ServiceExecutor
+    default CompletableFuture<List<Screen>> getAllScreensAsync() {
+        return ServiceExecutor.supply(this::getAllScreens);
+    }
+
+    default CompletableFuture<List<Reference>> getScreenReferencesAsync() {
+        return ServiceExecutor.supply(this::getScreenReferences);
+    }
+
+    default CompletableFuture<Page<Screen>> getScreenPageAsync(PageKey afterKey, int limit, String sortBy, boolean ascending) {
+        return ServiceExecutor.supply(() -> getScreenPage(afterKey, limit, sortBy, ascending));
+    }
+
+    default CompletableFuture<Screen> getScreenByIdAsync(int id) {
+        return ServiceExecutor.supply(() -> getScreenById(id));
+    }
+
+    default CompletableFuture<Void> addScreenAsync(Screen screen) {
+        return ServiceExecutor.run(() -> addScreen(screen));
+    }
+
+    default CompletableFuture<Void> updateScreenAsync(Screen screen) {
+        return ServiceExecutor.run(() -> updateScreen(screen));
+    }
+
+    default CompletableFuture<Void> deleteScreenAsync(int id) {
+        return ServiceExecutor.run(() -> deleteScreen(id));
+    }
+
+    default CompletableFuture<List<Screen>> searchScreensAsync(String movieName, String sortBy, boolean ascending) {
+        return ServiceExecutor.supply(() -> searchScreens(movieName, sortBy, ascending));
+    }
+
+    default CompletableFuture<List<Screen>> getScreensForTheaterAsync(int theaterId, LocalDateTime from, LocalDateTime to) {
+        return ServiceExecutor.supply(() -> getScreensForTheater(theaterId, from, to));
+    }
+
+    default CompletableFuture<List<Screen>> getScreensForMovieAsync(String movieName, LocalDateTime from, LocalDateTime to) {
+        return ServiceExecutor.supply(() -> getScreensForMovie(movieName, from, to));
+    }
+
+    default CompletableFuture<List<Screen>> getScreensOnAsync(LocalDate date) {
+        return ServiceExecutor.supply(() -> getScreensOn(date));
+    }
+}
@@ -0,0 +1,56 @@
+package com.cinema.service;
+
+import com.cinema.exception.DatabaseException;
+import com.cinema.exception.NotFoundException;
+import com.cinema.model.Booking;
+import com.cinema.model.SeatMap;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps the seat state of screens in memory so that competing bookings are
+ * decided without a database round trip. Claims are written to the database
+ * afterwards; the database stays the final arbiter and a claim it rejects is
+ * reported through the future returned by {@link #persist(Booking)}.
+ */
+public interface SeatAllocator extends AutoCloseable {
+
+    /**
+     * A copy of the seats currently available for the screen.
+     */
+    SeatMap getAvailableSeats(int screenId) throws DatabaseException, NotFoundException;
+
+    /**
+     * Take the seats if all of them are available; otherwise take none.
+     *
+     * @return the seats that were not available, empty if the claim succeeded
+     */
+    List<String> claim(int screenId, List<String> seats) throws DatabaseException, NotFoundException;
+
+    void release(int screenId, List<String> seats);
+
+    /**
+     * Record that claimed seats were written to the database by the caller
+     * rather than through {@link #persist(Booking)}.
+     */
+    void saved(int screenId, List<String> seats);
+
+    /**
+     * Drop the in-memory state of a screen; it is reloaded on next use.
+     */
+    void invalidate(int screenId);
+
+    /**
+     * Queue the booking of previously claimed seats for writing. The future
+     * completes once the booking is committed, or fails with the
+     * {@link com.cinema.exception.CinemaException} that prevented it.
+     */
+    CompletableFuture<Booking> persist(Booking booking);
+
+    /**
+     * Write out queued bookings and stop the writer.
+     */
+    @Override
+    void close();
+}
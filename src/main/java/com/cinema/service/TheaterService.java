@@ -1,15 +1,55 @@
 // TheaterService.java
 package com.cinema.service;
 
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
+import com.cinema.model.Reference;
 import com.cinema.model.Theater;
 import com.cinema.exception.*;
+import com.cinema.util.ServiceExecutor;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface TheaterService {
     Theater addTheater(Theater theater) throws DatabaseException, ValidationException;
     Theater getTheaterById(int id) throws DatabaseException, NotFoundException;
     List<Theater> getAllTheaters() throws DatabaseException;
+    List<Reference> getTheaterReferences() throws DatabaseException;
+    Page<Theater> getTheaterPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException;
     void updateTheater(Theater theater) throws DatabaseException, ValidationException, NotFoundException;
     void deleteTheater(int id) throws DatabaseException, NotFoundException;
     List<Theater> searchTheaters(String searchTerm, String searchBy, boolean ascending) throws DatabaseException;
-}
\ No newline at end of file
+
+    // Asynchronous counterparts, run by ServiceExecutor
+    default CompletableFuture<Theater> addTheaterAsync(Theater theater) {
+        return ServiceExecutor.supply(() -> addTheater(theater));
+    }
+
+    default CompletableFuture<Theater> getTheaterByIdAsync(int id) {
+        return ServiceExecutor.supply(() -> getTheaterById(id));
+    }
+
+    default CompletableFuture<List<Theater>> getAllTheatersAsync() {
+        return ServiceExecutor.supply(this::getAllTheaters);
+    }
+
+    default CompletableFuture<List<Reference>> getTheaterReferencesAsync() {
+        return ServiceExecutor.supply(this::getTheaterReferences);
+    }
+
+    default CompletableFuture<Page<Theater>> getTheaterPageAsync(PageKey afterKey, int limit, String sortBy, boolean ascending) {
+        return ServiceExecutor.supply(() -> getTheaterPage(afterKey, limit, sortBy, ascending));
+    }
+
+    default CompletableFuture<Void> updateTheaterAsync(Theater theater) {
+        return ServiceExecutor.run(() -> updateTheater(theater));
+    }
+
+    default CompletableFuture<Void> deleteTheaterAsync(int id) {
+        return ServiceExecutor.run(() -> deleteTheater(id));
+    }
+
+    default CompletableFuture<List<Theater>> searchTheatersAsync(String searchTerm, String searchBy, boolean ascending) {
+        return ServiceExecutor.supply(() -> searchTheaters(searchTerm, searchBy, ascending));
+    }
+}
@@ -1,14 +1,54 @@
 package com.cinema.service;
 
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
+import com.cinema.model.Reference;
 import com.cinema.model.User;
 import com.cinema.exception.*;
+import com.cinema.util.ServiceExecutor;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
     User addUser(User user) throws DatabaseException, ValidationException, DuplicateEntityException;
     User getUserById(int id) throws DatabaseException, NotFoundException;
     List<User> getAllUsers() throws DatabaseException;
+    List<Reference> getUserReferences() throws DatabaseException;
+    Page<User> getUserPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException;
     void updateUser(User user) throws DatabaseException, ValidationException, NotFoundException;
     void deleteUser(int id) throws DatabaseException, NotFoundException;
     List<User> searchUsers(String searchTerm, String searchBy, String sortBy, boolean ascending) throws DatabaseException;
-}
\ No newline at end of file
+
+    // Asynchronous counterparts, run by ServiceExecutor
+    default CompletableFuture<User> addUserAsync(User user) {
+        return ServiceExecutor.supply(() -> addUser(user));
+    }
+
+    default CompletableFuture<User> getUserByIdAsync(int id) {
+        return ServiceExecutor.supply(() -> getUserById(id));
+    }
+
+    default CompletableFuture<List<User>> getAllUsersAsync() {
+        return ServiceExecutor.supply(this::getAllUsers);
+    }
+
+    default CompletableFuture<List<Reference>> getUserReferencesAsync() {
+        return ServiceExecutor.supply(this::getUserReferences);
+    }
+
+    default CompletableFuture<Page<User>> getUserPageAsync(PageKey afterKey, int limit, String sortBy, boolean ascending) {
+        return ServiceExecutor.supply(() -> getUserPage(afterKey, limit, sortBy, ascending));
+    }
+
+    default CompletableFuture<Void> updateUserAsync(User user) {
+        return ServiceExecutor.run(() -> updateUser(user));
+    }
+
+    default CompletableFuture<Void> deleteUserAsync(int id) {
+        return ServiceExecutor.run(() -> deleteUser(id));
+    }
+
+    default CompletableFuture<List<User>> searchUsersAsync(String searchTerm, String searchBy, String sortBy, boolean ascending) {
+        return ServiceExecutor.supply(() -> searchUsers(searchTerm, searchBy, sortBy, ascending));
+    }
+}
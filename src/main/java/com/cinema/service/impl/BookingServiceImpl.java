@@ -1,20 +1,44 @@
 package com.cinema.service.impl;
 
 import com.cinema.dao.BookingDAO;
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
+import com.cinema.dao.ScreenDAO;
+import com.cinema.dao.SeatInventoryDAO;
 import com.cinema.model.Booking;
 import com.cinema.service.BookingService;
+import com.cinema.service.SeatAllocator;
 import com.cinema.exception.*;
+import com.cinema.util.UnitOfWork;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 public class BookingServiceImpl implements BookingService {
     private static final Logger LOGGER = Logger.getLogger(BookingServiceImpl.class.getName());
     private final BookingDAO bookingDAO;
+    private final ScreenDAO screenDAO;
+    private final SeatInventoryDAO seatInventoryDAO;
+    private final SeatAllocator seatAllocator;
 
     public BookingServiceImpl() {
+        this(null);
+    }
+
+    /**
+     * @param seatAllocator the allocator bookings are made through, kept in
+     *                      step when a booking's seats change; may be {@code null}
+     */
+    public BookingServiceImpl(SeatAllocator seatAllocator) {
         this.bookingDAO = new BookingDAO();
+        this.screenDAO = new ScreenDAO();
+        this.seatInventoryDAO = new SeatInventoryDAO();
+        this.seatAllocator = seatAllocator;
     }
 
     @Override
@@ -27,6 +51,16 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    public Page<Booking> getBookingPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException {
+        try {
+            return bookingDAO.findPage(afterKey, limit, sortBy, ascending);
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Error getting booking page", e);
+            throw new DatabaseException("Failed to retrieve bookings: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public Booking getBookingById(int id) throws DatabaseException, NotFoundException {
         try {
@@ -41,40 +75,87 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    /**
+     * Writes the booking and sells its seats in one transaction that advances
+     * the screen's version, failing with a {@link SeatUnavailableException}
+     * if any of them is already sold.
+     */
     @Override
-    public void addBooking(Booking booking) throws DatabaseException, ValidationException {
+    public void addBooking(Booking booking) throws DatabaseException, ValidationException, NotFoundException, BookingException {
         validateBooking(booking);
+        int screenId = booking.getScreen().getId();
+        List<String> seats = booking.getReservedSeats();
+        claimInAllocator(screenId, seats);
         try {
-            bookingDAO.create(booking);
-        } catch (DatabaseException e) {
-            LOGGER.log(Level.SEVERE, "Error adding booking", e);
-            throw new DatabaseException("Failed to add booking: " + e.getMessage(), e);
+            SeatChanges.run(screenDAO, List.of(screenId), () -> {
+                bookingDAO.create(booking);
+                List<String> lostSeats = seatInventoryDAO.claimSeats(screenId, booking.getId(), seats);
+                if (!lostSeats.isEmpty()) {
+                    throw new SeatUnavailableException(lostSeats);
+                }
+            });
+            savedInAllocator(screenId, seats);
+        } catch (BookingException | DatabaseException | NotFoundException e) {
+            // Rolled back
+            booking.setId(0);
+            undoAllocatorClaim(screenId, seats, e);
+            if (e instanceof DatabaseException) {
+                LOGGER.log(Level.SEVERE, "Error adding booking", e);
+                throw new DatabaseException("Failed to add booking: " + e.getMessage(), e);
+            }
+            throw e;
         }
     }
 
+    /**
+     * A booking that keeps its screen and seats is written like any other
+     * entity; inside an open {@link UnitOfWork} together with the unit's
+     * other changes when it commits. Moving it to other seats or another
+     * screen releases the old seats and claims the new ones right away, in
+     * one transaction that advances the version of every screen involved,
+     * and fails with a {@link SeatUnavailableException} if a new seat is taken.
+     */
     @Override
-    public void updateBooking(Booking booking) throws DatabaseException, ValidationException, NotFoundException {
+    public void updateBooking(Booking booking) throws DatabaseException, ValidationException, NotFoundException, BookingException {
         validateBooking(booking);
-        try {
+        try (UnitOfWork work = UnitOfWork.begin()) {
             Booking existingBooking = bookingDAO.findById(booking.getId());
             if (existingBooking == null) {
                 throw new NotFoundException("Booking with id " + booking.getId() + " not found");
             }
-            bookingDAO.update(booking);
+            Map<Integer, List<String>> sold = seatInventoryDAO.findSeatsForBooking(booking.getId());
+            int screenId = booking.getScreen().getId();
+            if (sold.size() == 1 && sameSeats(sold.get(screenId), booking.getReservedSeats())) {
+                work.registerDirty(Booking.class, booking, bookingDAO::updateAll);
+                work.commit();
+            } else {
+                moveSeats(booking, sold);
+            }
         } catch (DatabaseException e) {
             LOGGER.log(Level.SEVERE, "Error updating booking", e);
             throw e;
         }
     }
 
+    /**
+     * Removes the booking and its seats in one transaction that advances the
+     * screen's version, like cancelling, but without the time limit.
+     */
     @Override
-    public void deleteBooking(int id) throws DatabaseException, NotFoundException {
+    public void deleteBooking(int id) throws DatabaseException, NotFoundException, BookingException {
         try {
             Booking existingBooking = bookingDAO.findById(id);
             if (existingBooking == null) {
                 throw new NotFoundException("Booking with id " + id + " not found");
             }
-            bookingDAO.delete(id);
+            Map<Integer, List<String>> sold = seatInventoryDAO.findSeatsForBooking(id);
+            Set<Integer> screens = new HashSet<>(sold.keySet());
+            screens.add(existingBooking.getScreen().getId());
+            SeatChanges.run(screenDAO, screens, () -> {
+                seatInventoryDAO.releaseSeats(id);
+                bookingDAO.delete(id);
+            });
+            releaseInAllocator(sold, -1, List.of());
         } catch (DatabaseException e) {
             LOGGER.log(Level.SEVERE, "Error deleting booking", e);
             throw e;
@@ -84,13 +165,95 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<Booking> searchBookings(String searchTerm, String searchBy, String sortBy, boolean ascending) throws DatabaseException {
         try {
-            return bookingDAO.searchBookings(searchTerm, sortBy, ascending);
+            return bookingDAO.searchBookings(searchTerm, searchBy, sortBy, ascending);
         } catch (DatabaseException e) {
             LOGGER.log(Level.SEVERE, "Error searching bookings", e);
             throw new DatabaseException("Failed to search bookings: " + e.getMessage(), e);
         }
     }
 
+    private void moveSeats(Booking booking, Map<Integer, List<String>> sold) throws BookingException, DatabaseException, NotFoundException {
+        int screenId = booking.getScreen().getId();
+        List<String> seats = booking.getReservedSeats();
+        List<String> added = new ArrayList<>(seats);
+        added.removeAll(sold.getOrDefault(screenId, List.of()));
+
+        claimInAllocator(screenId, added);
+
+        Set<Integer> screens = new HashSet<>(sold.keySet());
+        screens.add(screenId);
+        try {
+            SeatChanges.run(screenDAO, screens, () -> {
+                seatInventoryDAO.releaseSeats(booking.getId());
+                bookingDAO.update(booking);
+                List<String> lostSeats = seatInventoryDAO.claimSeats(screenId, booking.getId(), seats);
+                if (!lostSeats.isEmpty()) {
+                    throw new SeatUnavailableException(lostSeats);
+                }
+            });
+        } catch (BookingException | DatabaseException | NotFoundException e) {
+            undoAllocatorClaim(screenId, added, e);
+            throw e;
+        }
+        savedInAllocator(screenId, added);
+        releaseInAllocator(sold, screenId, seats);
+    }
+
+    /**
+     * Take the seats in the allocator before writing them, so that no
+     * booking it is about to write gets them too.
+     */
+    private void claimInAllocator(int screenId, List<String> seats) throws SeatUnavailableException, DatabaseException, NotFoundException {
+        if (seatAllocator == null || seats.isEmpty()) {
+            return;
+        }
+        List<String> unavailable = seatAllocator.claim(screenId, seats);
+        if (!unavailable.isEmpty()) {
+            throw new SeatUnavailableException(unavailable);
+        }
+    }
+
+    private void savedInAllocator(int screenId, List<String> seats) {
+        if (seatAllocator != null && !seats.isEmpty()) {
+            seatAllocator.saved(screenId, seats);
+        }
+    }
+
+    private void undoAllocatorClaim(int screenId, List<String> seats, CinemaException failure) {
+        if (seatAllocator == null || seats.isEmpty()) {
+            return;
+        }
+        if (failure instanceof SeatUnavailableException) {
+            // Sold outside the allocator; reload what it knows of the screen
+            seatAllocator.invalidate(screenId);
+        } else {
+            seatAllocator.release(screenId, seats);
+        }
+    }
+
+    /**
+     * Return the seats the booking held to the allocator, except those it
+     * still holds on {@code keptScreenId}.
+     */
+    private void releaseInAllocator(Map<Integer, List<String>> sold, int keptScreenId, List<String> kept) {
+        if (seatAllocator == null) {
+            return;
+        }
+        for (Map.Entry<Integer, List<String>> screenSeats : sold.entrySet()) {
+            List<String> released = new ArrayList<>(screenSeats.getValue());
+            if (screenSeats.getKey() == keptScreenId) {
+                released.removeAll(kept);
+            }
+            if (!released.isEmpty()) {
+                seatAllocator.release(screenSeats.getKey(), released);
+            }
+        }
+    }
+
+    private static boolean sameSeats(List<String> sold, List<String> seats) {
+        return sold != null && new HashSet<>(sold).equals(new HashSet<>(seats));
+    }
+
     private void validateBooking(Booking booking) throws ValidationException {
         if (booking.getUser() == null) {
             throw new ValidationException("User is required");
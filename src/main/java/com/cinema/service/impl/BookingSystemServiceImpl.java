@@ -2,32 +2,79 @@ package com.cinema.service.impl;
 
 import com.cinema.dao.BookingDAO;
 import com.cinema.dao.ScreenDAO;
+import com.cinema.dao.SeatInventoryDAO;
 import com.cinema.dao.TheaterDAO;
 import com.cinema.dao.UserDAO;
 import com.cinema.exception.BookingException;
 import com.cinema.exception.DatabaseException;
 import com.cinema.exception.NotFoundException;
+import com.cinema.exception.SeatUnavailableException;
 import com.cinema.model.Booking;
 import com.cinema.model.Screen;
+import com.cinema.model.SeatHold;
+import com.cinema.model.SeatMap;
 import com.cinema.model.Theater;
 import com.cinema.model.User;
 import com.cinema.service.BookingSystemService;
+import com.cinema.service.SeatAllocator;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.ExpiryWheel;
+import com.cinema.util.Transaction;
+import com.cinema.util.UnitOfWork;
+import com.cinema.util.ValidationUtil;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BookingSystemServiceImpl implements BookingSystemService, AutoCloseable {
+    private static final long HOLD_TICK_MILLIS = 1000;
+    private static final int HOLD_WHEEL_SLOTS = 512;
 
-public class BookingSystemServiceImpl implements BookingSystemService {
     private final TheaterDAO theaterDAO;
     private final ScreenDAO screenDAO;
     private final BookingDAO bookingDAO;
     private final UserDAO userDAO;
+    private final SeatInventoryDAO seatInventoryDAO;
+    private final SeatAllocator seatAllocator;
+    private final Map<Integer, SeatHold> holds = new ConcurrentHashMap<>();
+    private final Map<Integer, ExpiryWheel.Timeout<SeatHold>> holdTimeouts = new ConcurrentHashMap<>();
+    private final AtomicInteger nextHoldId = new AtomicInteger();
+    private final ExpiryWheel<SeatHold> holdExpiry;
 
     public BookingSystemServiceImpl() {
+        this(null);
+    }
+
+    /**
+     * @param seatAllocator decides seat claims in memory and writes them in
+     *                      batches; {@code null} claims seats directly in the database
+     */
+    public BookingSystemServiceImpl(SeatAllocator seatAllocator) {
+        this(seatAllocator, HOLD_TICK_MILLIS);
+    }
+
+    /**
+     * @param holdTickMillis resolution at which seat holds expire
+     */
+    public BookingSystemServiceImpl(SeatAllocator seatAllocator, long holdTickMillis) {
         this.theaterDAO = new TheaterDAO();
         this.screenDAO = new ScreenDAO();
         this.bookingDAO = new BookingDAO();
         this.userDAO = new UserDAO();
+        this.seatInventoryDAO = new SeatInventoryDAO();
+        this.seatAllocator = seatAllocator;
+        this.holdExpiry = seatAllocator != null
+                ? new ExpiryWheel<>(holdTickMillis, HOLD_WHEEL_SLOTS, this::expireHolds)
+                : null;
     }
 
     @Override
@@ -41,7 +88,7 @@ public class BookingSystemServiceImpl implements BookingSystemService {
         if (theater == null) {
             throw new NotFoundException("Theater not found with id: " + theaterId);
         }
-        return theater.getScreens();
+        return screenDAO.findByTheater(theaterId);
     }
 
     @Override
@@ -51,6 +98,9 @@ public class BookingSystemServiceImpl implements BookingSystemService {
 
     @Override
     public List<String> getAvailableSeats(int screenId) throws DatabaseException, NotFoundException {
+        if (seatAllocator != null) {
+            return seatAllocator.getAvailableSeats(screenId).toLabels();
+        }
         Screen screen = screenDAO.findById(screenId);
         if (screen == null) {
             throw new NotFoundException("Screen not found with id: " + screenId);
@@ -58,38 +108,72 @@ public class BookingSystemServiceImpl implements BookingSystemService {
         return screen.getAvailableSeats();
     }
 
+    /**
+     * Reads and writes of a database booking share one connection and load
+     * the user and screen once (see {@link UnitOfWork}).
+     */
     @Override
     public Booking bookSeats(int userId, int screenId, List<String> seats) throws BookingException, DatabaseException, NotFoundException {
-        User user = userDAO.findById(userId);
-        Screen screen = screenDAO.findById(screenId);
+        User user;
+        Screen screen;
+        // Only scopes the reads to one connection and identity map; nothing is registered or committed
+        UnitOfWork work = UnitOfWork.begin();
+        try {
+            user = userDAO.findById(userId);
+            screen = screenDAO.findById(screenId);
 
-        if (user == null) {
-            throw new NotFoundException("User not found with id: " + userId);
-        }
-        if (screen == null) {
-            throw new NotFoundException("Screen not found with id: " + screenId);
-        }
+            if (user == null) {
+                throw new NotFoundException("User not found with id: " + userId);
+            }
+            if (screen == null) {
+                throw new NotFoundException("Screen not found with id: " + screenId);
+            }
+            validateSeats(seats);
 
-        List<String> availableSeats = screen.getAvailableSeats();
-        if (!availableSeats.containsAll(seats)) {
-            throw new BookingException("Some selected seats are not available");
+            if (seatAllocator == null) {
+                return bookSeatsInDatabase(user, screen, seats);
+            }
+        } finally {
+            work.close();
         }
+        // Not inside the unit of work: its connection must not be held while the allocator's writer needs one
+        return bookSeatsInMemory(user, screen, seats);
+    }
 
-        Booking booking = new Booking();
-        booking.setUser(user);
-        booking.setScreen(screen);
-        booking.setBookingTime(LocalDateTime.now());
-        booking.setReservedSeats(seats);
-        booking.setTotalPrice(calculateTotalPrice(screen, seats.size()));
+    /**
+     * Seat changes run in one transaction that first advances the screen's
+     * version; if the screen changed since it was read, re-read and retry.
+     */
+    private Booking bookSeatsInDatabase(User user, Screen screen, List<String> seats) throws BookingException, DatabaseException, NotFoundException {
+        int screenId = screen.getId();
+        int maxAttempts = Transaction.isActive() ? 1 : SeatChanges.MAX_ATTEMPTS;
+        for (int attempt = 1; ; attempt++) {
+            SeatMap available = screen.getSeatMap();
+            SeatMap requested = available.withSeats(seats);
+            if (!available.containsAll(requested)) {
+                throw new SeatUnavailableException(available.missing(seats));
+            }
 
-        Booking createdBooking = bookingDAO.create(booking);
+            Booking booking = newBooking(user, screen, requested);
+            try (Transaction tx = DatabaseManager.beginTransaction()) {
+                if (screenDAO.incrementVersion(screenId, screen.getVersion())) {
+                    bookingDAO.create(booking);
+                    // The unique seat constraint still guards against writers that skip the version check
+                    List<String> lostSeats = seatInventoryDAO.claimSeats(screenId, booking.getId(), requested.toLabels());
+                    if (!lostSeats.isEmpty()) {
+                        throw new SeatUnavailableException(lostSeats);
+                    }
+                    tx.commit();
 
-        // Update available seats
-        availableSeats.removeAll(seats);
-        screen.setAvailableSeats(availableSeats);
-        screenDAO.update(screen);
+                    available.claim(requested);
+                    screen.setVersion(screen.getVersion() + 1);
+                    return booking;
+                }
+            }
 
-        return createdBooking;
+            SeatChanges.awaitRetry(screenId, attempt, maxAttempts);
+            screen = screenDAO.findById(screenId);
+        }
     }
 
     @Override
@@ -103,13 +187,156 @@ public class BookingSystemServiceImpl implements BookingSystemService {
             throw new BookingException("Cannot cancel booking after 1 hour of booking time");
         }
 
-        Screen screen = booking.getScreen();
-        List<String> availableSeats = new ArrayList<>(screen.getAvailableSeats());
-        availableSeats.addAll(booking.getReservedSeats());
-        screen.setAvailableSeats(availableSeats);
+        int screenId = booking.getScreen().getId();
+        SeatChanges.run(screenDAO, List.of(screenId), () -> {
+            seatInventoryDAO.releaseSeats(bookingId);
+            bookingDAO.delete(bookingId);
+        });
+        if (seatAllocator != null) {
+            seatAllocator.release(screenId, booking.getReservedSeats());
+        }
+    }
+
+    /**
+     * Hold the seats in the allocator for the given time. Held seats are not
+     * available to anyone else; nothing is written to the database until the
+     * hold is confirmed. Needs a {@link SeatAllocator}, since bookings made
+     * directly in the database would not see the hold.
+     */
+    @Override
+    public SeatHold holdSeats(int userId, int screenId, List<String> seats, Duration duration) throws BookingException, DatabaseException, NotFoundException {
+        if (seatAllocator == null) {
+            throw new BookingException("Seat holds need a seat allocator");
+        }
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new BookingException("Hold duration must be positive");
+        }
+        User user = userDAO.findById(userId);
+        Screen screen = screenDAO.findById(screenId);
+        validateSeats(seats);
+
+        List<String> unavailable = seatAllocator.claim(screenId, seats);
+        if (!unavailable.isEmpty()) {
+            throw new SeatUnavailableException(unavailable);
+        }
+
+        SeatHold hold = new SeatHold(nextHoldId.incrementAndGet(), user, screen,
+                screen.getSeatMap().withSeats(seats), LocalDateTime.now().plus(duration));
+        holds.put(hold.getId(), hold);
+        holdTimeouts.put(hold.getId(), holdExpiry.schedule(hold, duration.toMillis()));
+        return hold;
+    }
 
-        screenDAO.update(screen);
-        bookingDAO.delete(bookingId);
+    @Override
+    public Booking confirmHold(int holdId) throws BookingException, DatabaseException, NotFoundException {
+        SeatHold hold = takeHold(holdId);
+        Booking booking = newBooking(hold.getUser(), hold.getScreen(), hold.getSeatMap());
+        return awaitPersisted(booking);
+    }
+
+    @Override
+    public void releaseHold(int holdId) throws NotFoundException {
+        SeatHold hold = takeHold(holdId);
+        seatAllocator.release(hold.getScreen().getId(), hold.getSeats());
+    }
+
+    /**
+     * Stop expiring holds and give back the seats of those still live. The
+     * seat allocator is not closed, as it may be shared.
+     */
+    @Override
+    public void close() {
+        if (holdExpiry != null) {
+            holdExpiry.close();
+            expireHolds(new ArrayList<>(holds.values()));
+        }
+    }
+
+    /**
+     * Remove a live hold so that exactly one of confirm, release and expiry acts on it.
+     */
+    private SeatHold takeHold(int holdId) throws NotFoundException {
+        SeatHold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new NotFoundException("Seat hold " + holdId + " has expired or does not exist");
+        }
+        ExpiryWheel.Timeout<SeatHold> timeout = holdTimeouts.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        return hold;
+    }
+
+    /**
+     * Return the seats of expired holds, one release per screen.
+     */
+    private void expireHolds(List<SeatHold> expired) {
+        Map<Integer, List<String>> seatsByScreen = new HashMap<>();
+        for (SeatHold hold : expired) {
+            holdTimeouts.remove(hold.getId());
+            if (holds.remove(hold.getId(), hold)) {
+                seatsByScreen.computeIfAbsent(hold.getScreen().getId(), id -> new ArrayList<>()).addAll(hold.getSeats());
+            }
+        }
+        for (Map.Entry<Integer, List<String>> screenSeats : seatsByScreen.entrySet()) {
+            seatAllocator.release(screenSeats.getKey(), screenSeats.getValue());
+        }
+    }
+
+    /**
+     * Claim the seats in the allocator, then wait until the writer has
+     * committed the booking. If the wait is interrupted the booking may still
+     * be written.
+     */
+    private Booking bookSeatsInMemory(User user, Screen screen, List<String> seats) throws BookingException, DatabaseException, NotFoundException {
+        List<String> unavailable = seatAllocator.claim(screen.getId(), seats);
+        if (!unavailable.isEmpty()) {
+            throw new SeatUnavailableException(unavailable);
+        }
+
+        return awaitPersisted(newBooking(user, screen, screen.getSeatMap().withSeats(seats)));
+    }
+
+    private Booking awaitPersisted(Booking booking) throws BookingException, DatabaseException {
+        try {
+            long timeoutSeconds = DatabaseManager.getRuntimeSettings().getAsyncTimeoutSeconds();
+            return seatAllocator.persist(booking).get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new BookingException("Timed out waiting for the booking to be saved", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingException("Interrupted while waiting for the booking to be saved", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof BookingException) {
+                throw (BookingException) cause;
+            }
+            if (cause instanceof DatabaseException) {
+                throw (DatabaseException) cause;
+            }
+            throw new BookingException("Error saving booking", cause);
+        }
+    }
+
+    private void validateSeats(List<String> seats) throws BookingException {
+        if (seats == null || seats.isEmpty()) {
+            throw new BookingException("At least one seat must be selected");
+        }
+        for (String seat : seats) {
+            if (!ValidationUtil.isValidSeatNumber(seat)) {
+                throw new BookingException("Invalid seat number: " + seat);
+            }
+        }
+    }
+
+    private Booking newBooking(User user, Screen screen, SeatMap seats) {
+        Booking booking = new Booking();
+        booking.setUser(user);
+        booking.setScreen(screen);
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setReservedSeatMap(seats);
+        booking.setTotalPrice(calculateTotalPrice(screen, seats.count()));
+        return booking;
     }
 
     private double calculateTotalPrice(Screen screen, int numberOfSeats) {
@@ -1,10 +1,15 @@
 package com.cinema.service.impl;
 
 import com.cinema.dao.ScreenDAO;
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
+import com.cinema.model.Reference;
 import com.cinema.model.Screen;
 import com.cinema.service.ScreenService;
 import com.cinema.exception.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.logging.Logger;
 import java.util.logging.Level;
@@ -27,6 +32,26 @@ public class ScreenServiceImpl implements ScreenService {
         }
     }
 
+    @Override
+    public List<Reference> getScreenReferences() throws DatabaseException {
+        try {
+            return screenDAO.findReferences();
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Error getting screen references", e);
+            throw new DatabaseException("Failed to retrieve screens: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Page<Screen> getScreenPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException {
+        try {
+            return screenDAO.findPage(afterKey, limit, sortBy, ascending);
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Error getting screen page", e);
+            throw new DatabaseException("Failed to retrieve screens: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public Screen getScreenById(int id) throws DatabaseException, NotFoundException {
         try {
@@ -91,6 +116,27 @@ public class ScreenServiceImpl implements ScreenService {
         }
     }
 
+    /**
+     * Showings at the theater starting in [from, to), earliest first.
+     */
+    @Override
+    public List<Screen> getScreensForTheater(int theaterId, LocalDateTime from, LocalDateTime to) throws DatabaseException {
+        return screenDAO.findByTheaterBetween(theaterId, from, to);
+    }
+
+    /**
+     * Showings of the movie starting in [from, to), earliest first.
+     */
+    @Override
+    public List<Screen> getScreensForMovie(String movieName, LocalDateTime from, LocalDateTime to) throws DatabaseException {
+        return screenDAO.findByMovieBetween(movieName, from, to);
+    }
+
+    @Override
+    public List<Screen> getScreensOn(LocalDate date) throws DatabaseException {
+        return screenDAO.findBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
     private void validateScreen(Screen screen) throws ValidationException {
         if (screen.getMovieName() == null || screen.getMovieName().trim().isEmpty()) {
             throw new ValidationException("Movie name is required");
@@ -0,0 +1,80 @@
+package com.cinema.service.impl;
+
+import com.cinema.dao.ScreenDAO;
+import com.cinema.exception.BookingException;
+import com.cinema.exception.DatabaseException;
+import com.cinema.exception.NotFoundException;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.Transaction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs changes to sold seats the way every seat writer must: in one
+ * transaction that first advances the version of each screen involved. If
+ * another writer moved a screen on since it was read, the transaction is
+ * dropped and the change retried after a short random back-off.
+ */
+final class SeatChanges {
+    static final int MAX_ATTEMPTS = 10;
+    private static final long RETRY_BACKOFF_MILLIS = 5;
+
+    @FunctionalInterface
+    interface Change {
+        void apply() throws BookingException, DatabaseException;
+    }
+
+    private SeatChanges() {
+    }
+
+    static void run(ScreenDAO screenDAO, Iterable<Integer> screenIds, Change change)
+            throws BookingException, DatabaseException, NotFoundException {
+        // Always versioned in the same order
+        SortedSet<Integer> screens = new TreeSet<>();
+        screenIds.forEach(screens::add);
+        int maxAttempts = Transaction.isActive() ? 1 : MAX_ATTEMPTS;
+        for (int attempt = 1; ; attempt++) {
+            Map<Integer, Integer> versions = new LinkedHashMap<>();
+            for (int screenId : screens) {
+                versions.put(screenId, screenDAO.findById(screenId).getVersion());
+            }
+            try (Transaction tx = DatabaseManager.beginTransaction()) {
+                if (advanceAll(screenDAO, versions)) {
+                    change.apply();
+                    tx.commit();
+                    return;
+                }
+            }
+            awaitRetry(screens.first(), attempt, maxAttempts);
+        }
+    }
+
+    /**
+     * Back off for a short random time before retrying after a version
+     * conflict, or give up once the attempts are used up.
+     */
+    static void awaitRetry(int screenId, int attempt, int maxAttempts) throws BookingException {
+        if (attempt >= maxAttempts) {
+            throw new BookingException("Screen " + screenId + " is being booked by others right now, please try again");
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, RETRY_BACKOFF_MILLIS * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingException("Interrupted while retrying a booking on screen " + screenId, e);
+        }
+    }
+
+    private static boolean advanceAll(ScreenDAO screenDAO, Map<Integer, Integer> versions) throws DatabaseException {
+        for (Map.Entry<Integer, Integer> screen : versions.entrySet()) {
+            if (!screenDAO.incrementVersion(screen.getKey(), screen.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
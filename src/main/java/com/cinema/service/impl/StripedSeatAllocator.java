@@ -0,0 +1,290 @@
+package com.cinema.service.impl;
+
+import com.cinema.dao.BookingDAO;
+import com.cinema.dao.ScreenDAO;
+import com.cinema.dao.SeatInventoryDAO;
+import com.cinema.exception.CinemaException;
+import com.cinema.exception.DatabaseException;
+import com.cinema.exception.NotFoundException;
+import com.cinema.exception.SeatUnavailableException;
+import com.cinema.model.Booking;
+import com.cinema.model.Screen;
+import com.cinema.model.SeatMap;
+import com.cinema.service.SeatAllocator;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.Transaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link SeatAllocator} that guards each screen's seat map with one of a
+ * fixed set of locks, so bookings for different screens rarely contend.
+ * <p>
+ * A seat map is the hall's sellable seats minus those sold in the database
+ * and those claimed here but not yet written. Seats freed by other writers
+ * are not seen until the map is reloaded, which a claim that fails in memory
+ * does before giving up.
+ * <p>
+ * Claimed bookings are written by a single writer thread that commits
+ * everything queued since its last write in one transaction (group commit),
+ * so a burst of bookings costs a few SQLite commits instead of one each.
+ */
+public class StripedSeatAllocator implements SeatAllocator {
+    private static final Logger LOGGER = Logger.getLogger(StripedSeatAllocator.class.getName());
+
+    private static final int STRIPES = 64;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final ScreenDAO screenDAO;
+    private final BookingDAO bookingDAO;
+    private final SeatInventoryDAO seatInventoryDAO;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final Map<Integer, SeatMap> seats = new ConcurrentHashMap<>();
+    // Seats claimed here and not yet written, which a reload must keep taken
+    private final Map<Integer, Set<String>> unsaved = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingBooking> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public StripedSeatAllocator() {
+        this.screenDAO = new ScreenDAO();
+        this.bookingDAO = new BookingDAO();
+        this.seatInventoryDAO = new SeatInventoryDAO();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.writer = new Thread(this::runWriter, "seat-allocator-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public SeatMap getAvailableSeats(int screenId) throws DatabaseException, NotFoundException {
+        ReentrantLock lock = lockFor(screenId);
+        lock.lock();
+        try {
+            return new SeatMap(load(screenId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<String> claim(int screenId, List<String> requested) throws DatabaseException, NotFoundException {
+        ReentrantLock lock = lockFor(screenId);
+        lock.lock();
+        try {
+            SeatMap available = load(screenId);
+            if (!available.claim(available.withSeats(requested))) {
+                // Some may have been freed outside the allocator since the map was loaded
+                seats.remove(screenId);
+                available = load(screenId);
+                if (!available.claim(available.withSeats(requested))) {
+                    return available.missing(requested);
+                }
+            }
+            unsaved.computeIfAbsent(screenId, id -> new HashSet<>()).addAll(requested);
+            return Collections.emptyList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(int screenId, List<String> released) {
+        ReentrantLock lock = lockFor(screenId);
+        lock.lock();
+        try {
+            forgetUnsaved(screenId, released);
+            SeatMap available = seats.get(screenId);
+            if (available != null) {
+                available.release(available.withSeats(released));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saved(int screenId, List<String> written) {
+        ReentrantLock lock = lockFor(screenId);
+        lock.lock();
+        try {
+            forgetUnsaved(screenId, written);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(int screenId) {
+        ReentrantLock lock = lockFor(screenId);
+        lock.lock();
+        try {
+            seats.remove(screenId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Booking> persist(Booking booking) {
+        PendingBooking pending = new PendingBooking(booking);
+        queue.add(pending);
+        // Closed before or while queueing: if the writer did not take it, it never will
+        if (!running && queue.remove(pending)) {
+            pending.failure = new DatabaseException("Seat allocator is closed");
+            complete(List.of(pending));
+        }
+        return pending.future;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Seat map of the screen, loaded from the database on first use. Call with the screen's lock held.
+     */
+    private SeatMap load(int screenId) throws DatabaseException, NotFoundException {
+        SeatMap available = seats.get(screenId);
+        if (available == null) {
+            Screen screen = screenDAO.findById(screenId);
+            // Sold seats read past the screen cache, so that seats freed by other processes are seen
+            available = screen.getAuditorium() != null ? screen.getAuditorium().getSellableSeats() : screen.getSeatMap();
+            available.claim(available.withSeats(seatInventoryDAO.findTakenSeats(screenId)));
+            available.claim(available.withSeats(unsaved.getOrDefault(screenId, Collections.emptySet())));
+            seats.put(screenId, available);
+        }
+        return available;
+    }
+
+    /**
+     * Call with the screen's lock held.
+     */
+    private void forgetUnsaved(int screenId, List<String> labels) {
+        Set<String> claimed = unsaved.get(screenId);
+        if (claimed != null) {
+            labels.forEach(claimed::remove);
+            if (claimed.isEmpty()) {
+                unsaved.remove(screenId);
+            }
+        }
+    }
+
+    private ReentrantLock lockFor(int screenId) {
+        // Fibonacci hashing spreads consecutive screen ids over the stripes
+        return locks[(screenId * 0x9E3779B9) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(STRIPES))];
+    }
+
+    private void runWriter() {
+        List<PendingBooking> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingBooking first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Unexpected error writing bookings", e);
+                for (PendingBooking pending : batch) {
+                    pending.failure = new DatabaseException("Error writing booking", e);
+                }
+            } finally {
+                complete(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingBooking> batch) {
+        Set<Integer> changedScreens = new LinkedHashSet<>();
+        try (Transaction tx = DatabaseManager.beginTransaction()) {
+            for (PendingBooking pending : batch) {
+                Booking booking = pending.booking;
+                int screenId = booking.getScreen().getId();
+                bookingDAO.create(booking);
+                List<String> lostSeats = seatInventoryDAO.claimSeats(screenId, booking.getId(), booking.getReservedSeats());
+                if (lostSeats.isEmpty()) {
+                    changedScreens.add(screenId);
+                } else {
+                    // Sold outside this allocator; undo this booking only and keep the rest of the batch
+                    seatInventoryDAO.releaseSeats(booking.getId());
+                    bookingDAO.delete(booking.getId());
+                    pending.failure = new SeatUnavailableException(lostSeats);
+                    pending.stale = true;
+                }
+            }
+            for (int screenId : changedScreens) {
+                screenDAO.incrementVersion(screenId);
+            }
+            tx.commit();
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Error writing " + batch.size() + " bookings", e);
+            for (PendingBooking pending : batch) {
+                // Bookings that already lost seats keep that failure, and their screen is reloaded
+                if (!pending.stale) {
+                    pending.failure = e;
+                }
+            }
+        }
+    }
+
+    private void complete(List<PendingBooking> batch) {
+        for (PendingBooking pending : batch) {
+            int screenId = pending.booking.getScreen().getId();
+            if (pending.failure == null) {
+                saved(screenId, pending.booking.getReservedSeats());
+                pending.future.complete(pending.booking);
+                continue;
+            }
+            if (pending.stale) {
+                // Sold by another writer; the reload sees them as sold, so stop holding them here
+                saved(screenId, pending.booking.getReservedSeats());
+                invalidate(screenId);
+            } else {
+                release(screenId, pending.booking.getReservedSeats());
+            }
+            pending.booking.setId(0);
+            pending.future.completeExceptionally(pending.failure);
+        }
+    }
+
+    private static class PendingBooking {
+        private final Booking booking;
+        private final CompletableFuture<Booking> future = new CompletableFuture<>();
+        private CinemaException failure;
+        private boolean stale;
+
+        private PendingBooking(Booking booking) {
+            this.booking = booking;
+        }
+    }
+}
@@ -2,12 +2,18 @@
 package com.cinema.service.impl;
 
 import com.cinema.dao.TheaterDAO;
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
+import com.cinema.model.Reference;
 import com.cinema.model.Theater;
 import com.cinema.service.TheaterService;
 import com.cinema.exception.*;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class TheaterServiceImpl implements TheaterService {
+    private static final Logger LOGGER = Logger.getLogger(TheaterServiceImpl.class.getName());
     private final TheaterDAO theaterDAO;
 
     public TheaterServiceImpl() {
@@ -30,6 +36,26 @@ public class TheaterServiceImpl implements TheaterService {
         return theaterDAO.findAll();
     }
 
+    @Override
+    public List<Reference> getTheaterReferences() throws DatabaseException {
+        try {
+            return theaterDAO.findReferences();
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Error getting theater references", e);
+            throw new DatabaseException("Failed to retrieve theaters: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Page<Theater> getTheaterPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException {
+        try {
+            return theaterDAO.findPage(afterKey, limit, sortBy, ascending);
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Error getting theater page", e);
+            throw new DatabaseException("Failed to retrieve theaters: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public void updateTheater(Theater theater) throws DatabaseException, ValidationException, NotFoundException {
         validateTheater(theater);
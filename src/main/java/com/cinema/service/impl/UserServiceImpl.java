@@ -1,13 +1,19 @@
 package com.cinema.service.impl;
 
 import com.cinema.dao.UserDAO;
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
+import com.cinema.model.Reference;
 import com.cinema.model.User;
 import com.cinema.service.UserService;
 import com.cinema.exception.*;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.sql.SQLIntegrityConstraintViolationException;
 
 public class UserServiceImpl implements UserService {
+    private static final Logger LOGGER = Logger.getLogger(UserServiceImpl.class.getName());
     private final UserDAO userDAO;
 
     public UserServiceImpl() {
@@ -41,6 +47,26 @@ public class UserServiceImpl implements UserService {
         return userDAO.findAll();
     }
 
+    @Override
+    public List<Reference> getUserReferences() throws DatabaseException {
+        try {
+            return userDAO.findReferences();
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Error getting user references", e);
+            throw new DatabaseException("Failed to retrieve users: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Page<User> getUserPage(PageKey afterKey, int limit, String sortBy, boolean ascending) throws DatabaseException {
+        try {
+            return userDAO.findPage(afterKey, limit, sortBy, ascending);
+        } catch (DatabaseException e) {
+            LOGGER.log(Level.SEVERE, "Error getting user page", e);
+            throw new DatabaseException("Failed to retrieve users: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public void updateUser(User user) throws DatabaseException, ValidationException, NotFoundException {
         validateUser(user);
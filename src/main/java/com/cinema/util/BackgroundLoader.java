@@ -0,0 +1,207 @@
+package com.cinema.util;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs a view's data loads off the JavaFX application thread.
+ * <p>
+ * Each load is a {@link Task} run on the {@link ServiceExecutor} threads
+ * under a key such as "users". Starting a load cancels the one still running
+ * under the same key and discards anything it has not yet delivered, so only
+ * the latest refresh or search reaches the screen. Lists are appended to
+ * their target {@value #CHUNK_SIZE} rows at a time, each chunk waiting until
+ * the previous one has been applied, so that a large result never holds the
+ * FX thread for more than a fraction of a frame. Failures are logged and
+ * shown with {@link AlertUtil}; cancelled loads end silently.
+ * <p>
+ * All methods must be called on the FX application thread.
+ */
+public class BackgroundLoader {
+    private static final Logger LOGGER = Logger.getLogger(BackgroundLoader.class.getName());
+    public static final int CHUNK_SIZE = 500;
+
+    private final Map<String, Task<?>> running = new HashMap<>();
+    private TableView<?> progressTable;
+    private Node placeholder;
+
+    /**
+     * Show a progress indicator as the placeholder of {@code table} while it
+     * is empty and a load is running.
+     */
+    public void showProgressIn(TableView<?> table) {
+        this.progressTable = table;
+        this.placeholder = table.getPlaceholder();
+    }
+
+    /**
+     * Run {@code query} in the background and pass its result to {@code onLoaded}
+     * on the FX thread.
+     *
+     * @param what completes "Failed to ..." in the error shown if the query fails
+     */
+    public <T> Task<T> load(String key, String what, ServiceExecutor.Call<T> query, Consumer<T> onLoaded) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return query.call();
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (isCurrent(key, task)) {
+                onLoaded.accept(task.getValue());
+            }
+        });
+        start(key, what, task);
+        return task;
+    }
+
+    /**
+     * Run {@code query} in the background and replace the contents of
+     * {@code target} with its rows, a chunk at a time. The task's value is
+     * the number of rows and its progress the share applied so far.
+     */
+    public <T> Task<Integer> loadInto(String key, String what, ServiceExecutor.Call<? extends List<T>> query,
+                                      ObservableList<T> target) {
+        Task<Integer> task = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                List<T> rows = query.call();
+                int total = rows.size();
+                int applied = 0;
+                do {
+                    List<T> chunk = rows.subList(applied, Math.min(total, applied + CHUNK_SIZE));
+                    boolean first = applied == 0;
+                    applyOnFxThread(() -> {
+                        if (!isCurrent(key, this)) {
+                            return;
+                        }
+                        if (first) {
+                            target.setAll(chunk);
+                        } else {
+                            target.addAll(chunk);
+                        }
+                    });
+                    applied += chunk.size();
+                    updateProgress(applied, total);
+                } while (applied < total && !isCancelled());
+                return total;
+            }
+        };
+        start(key, what, task);
+        return task;
+    }
+
+    /**
+     * Whether a load is running under {@code key}.
+     */
+    public boolean isLoading(String key) {
+        return running.containsKey(key);
+    }
+
+    public void cancel(String key) {
+        Task<?> task = running.remove(key);
+        if (task != null) {
+            task.cancel();
+        }
+        updatePlaceholder();
+    }
+
+    public void cancelAll() {
+        for (Task<?> task : running.values()) {
+            task.cancel();
+        }
+        running.clear();
+        updatePlaceholder();
+    }
+
+    private void start(String key, String what, Task<?> task) {
+        Task<?> previous = running.put(key, task);
+        if (previous != null) {
+            previous.cancel();
+        }
+        task.setOnFailed(event -> {
+            if (isCurrent(key, task)) {
+                showFailure(what, task.getException());
+            }
+        });
+        task.stateProperty().addListener((obs, oldState, state) -> {
+            if (state == Worker.State.SUCCEEDED || state == Worker.State.FAILED || state == Worker.State.CANCELLED) {
+                // Deferred so that onSucceeded and onFailed, which fire right after, still find the task current
+                Platform.runLater(() -> {
+                    running.remove(key, task);
+                    updatePlaceholder();
+                });
+            }
+        });
+        updatePlaceholder();
+        ServiceExecutor.execute(task);
+    }
+
+    /**
+     * Pass the outcome of an async service call to {@code onDone} on the FX
+     * thread: its result, or the exception it failed with, unwrapped from
+     * the {@link CompletionException} of derived futures.
+     */
+    public static <T> void whenDone(CompletableFuture<T> future, BiConsumer<T, Throwable> onDone) {
+        future.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            Platform.runLater(() -> onDone.accept(result, cause));
+        });
+    }
+
+    /**
+     * Log {@code error} and show it as "Failed to {@code what}: ...".
+     */
+    public static void showFailure(String what, Throwable error) {
+        LOGGER.log(Level.SEVERE, "Failed to " + what, error);
+        String message = error instanceof TimeoutException ? "the database did not respond in time" : error.getMessage();
+        AlertUtil.showError("Error", "Failed to " + what + ": " + message);
+    }
+
+    private boolean isCurrent(String key, Task<?> task) {
+        return running.get(key) == task && !task.isCancelled();
+    }
+
+    private void updatePlaceholder() {
+        if (progressTable == null) {
+            return;
+        }
+        if (running.isEmpty()) {
+            progressTable.setPlaceholder(placeholder);
+            return;
+        }
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.progressProperty().bind(running.values().iterator().next().progressProperty());
+        progressTable.setPlaceholder(indicator);
+    }
+
+    private static void applyOnFxThread(Runnable apply) throws InterruptedException {
+        CountDownLatch applied = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                apply.run();
+            } finally {
+                applied.countDown();
+            }
+        });
+        applied.await();
+    }
+}
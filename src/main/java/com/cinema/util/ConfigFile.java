@@ -0,0 +1,53 @@
+package com.cinema.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the {@code cinema.db.*} settings shared by {@link StorageProfile} and
+ * {@link RuntimeSettings}.
+ * <p>
+ * Sources are read in this order, later ones overriding earlier ones:
+ * {@code database.properties} on the classpath, {@code database.properties}
+ * in the working directory, and finally {@code cinema.db.*} system properties.
+ */
+final class ConfigFile {
+    private static final Logger LOGGER = Logger.getLogger(ConfigFile.class.getName());
+
+    static final String NAME = "database.properties";
+    static final String PREFIX = "cinema.db.";
+
+    private ConfigFile() {
+    }
+
+    static Properties load() {
+        Properties props = new Properties();
+        try (InputStream in = ConfigFile.class.getResourceAsStream("/" + NAME)) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not read " + NAME + " from classpath", e);
+        }
+        Path local = Paths.get(NAME);
+        if (Files.isRegularFile(local)) {
+            try (InputStream in = Files.newInputStream(local)) {
+                props.load(in);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not read " + local.toAbsolutePath(), e);
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(PREFIX)) {
+                props.setProperty(key, System.getProperty(key));
+            }
+        }
+        return props;
+    }
+}
@@ -1,67 +1,509 @@
 package com.cinema.util;
 
+import com.cinema.exception.DatabaseException;
+import com.cinema.model.Auditorium;
+import com.cinema.model.SeatMap;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.*;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 
 public class DatabaseManager {
-    private static final String DB_URL = "jdbc:sqlite:cinema.db";
+    private static final Logger LOGGER = Logger.getLogger(DatabaseManager.class.getName());
+    private static final long BORROW_TIMEOUT_MILLIS = 30_000;
+    private static final long IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    private static final long LEAK_THRESHOLD_MILLIS = 60_000;
+
+    private static volatile StorageProfile profile;
+    private static volatile RuntimeSettings settings;
+    private static volatile ConnectionPool pool;
 
+    /**
+     * Borrow a pooled connection. Closing the returned connection hands it back to the pool.
+     * Inside a {@link Transaction} the transaction's connection is returned instead,
+     * and inside a {@link UnitOfWork} the connection it holds.
+     */
     public static Connection getConnection() throws SQLException {
+        Transaction current = Transaction.current();
+        if (current != null) {
+            return current.getConnection();
+        }
+        UnitOfWork work = UnitOfWork.current();
+        if (work != null) {
+            return work.getConnection(getPool());
+        }
+        return getPool().getConnection();
+    }
+
+    /**
+     * Borrow a connection for INSERT, UPDATE or DELETE statements, as
+     * {@link #getConnection()} does. Outside a {@link Transaction} the write
+     * commits as soon as it runs, and is reported to the
+     * {@link ExternalChangeMonitor} as in progress until the connection is closed.
+     */
+    public static Connection getWriteConnection() throws SQLException {
+        if (Transaction.isActive()) {
+            return getConnection();
+        }
+        Connection connection = getConnection();
+        ExternalChangeMonitor.writeStarted();
+        return (Connection) Proxy.newProxyInstance(DatabaseManager.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new InvocationHandler() {
+                    private boolean closed;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        switch (method.getName()) {
+                            case "close":
+                                if (!closed) {
+                                    closed = true;
+                                    try {
+                                        connection.close();
+                                    } finally {
+                                        ExternalChangeMonitor.writeFinished();
+                                    }
+                                }
+                                return null;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                try {
+                                    return method.invoke(connection, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Begin a transaction bound to the calling thread, or join the one already open.
+     */
+    public static Transaction beginTransaction() throws DatabaseException {
+        Transaction current = Transaction.current();
+        if (current != null) {
+            return current.nested();
+        }
         try {
-            Class.forName("org.sqlite.JDBC");
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("SQLite JDBC Driver not found", e);
+            UnitOfWork work = UnitOfWork.current();
+            return Transaction.start(work != null ? work.getConnection(getPool()) : getPool().getConnection());
+        } catch (SQLException e) {
+            throw new DatabaseException("Error starting transaction", e);
         }
-        return DriverManager.getConnection(DB_URL);
     }
 
-    public static void initializeDatabase() {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseManager.class) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        Class.forName("org.sqlite.JDBC");
+                    } catch (ClassNotFoundException e) {
+                        throw new SQLException("SQLite JDBC Driver not found", e);
+                    }
+                    StorageProfile storage = getStorageProfile();
+                    current = new ConnectionPool(storage.getUrl(), storage.getPoolSize(), BORROW_TIMEOUT_MILLIS,
+                            IDLE_TIMEOUT_MILLIS, LEAK_THRESHOLD_MILLIS, storage::apply,
+                            getRuntimeSettings().getStatementCacheSize());
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * The storage profile in effect, loaded from {@link StorageProfile#load()} on first use.
+     */
+    public static StorageProfile getStorageProfile() {
+        StorageProfile current = profile;
+        if (current == null) {
+            synchronized (DatabaseManager.class) {
+                current = profile;
+                if (current == null) {
+                    current = StorageProfile.load();
+                    profile = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * The runtime settings in effect, loaded from {@link RuntimeSettings#load()} on first use.
+     */
+    public static RuntimeSettings getRuntimeSettings() {
+        RuntimeSettings current = settings;
+        if (current == null) {
+            synchronized (DatabaseManager.class) {
+                current = settings;
+                if (current == null) {
+                    current = RuntimeSettings.load();
+                    settings = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Switch to a different storage profile, with the runtime settings
+     * reloaded from {@link RuntimeSettings#load()}.
+     */
+    public static void configure(StorageProfile storageProfile) {
+        configure(storageProfile, RuntimeSettings.load());
+    }
+
+    /**
+     * Switch to a different storage profile and runtime settings. Pooled
+     * connections opened under the previous profile are closed and the entity
+     * caches are emptied; new connections and async service calls pick up the
+     * new settings.
+     */
+    public static void configure(StorageProfile storageProfile, RuntimeSettings runtimeSettings) {
+        synchronized (DatabaseManager.class) {
+            shutdown();
+            ServiceExecutor.shutdown();
+            profile = storageProfile;
+            settings = runtimeSettings;
+            EntityCache.resetAll(runtimeSettings.getEntityCacheSize(), runtimeSettings.getEntityCacheTtlSeconds() * 1000L);
+            ExternalChangeMonitor.restart(storageProfile, runtimeSettings);
+        }
+    }
+
+    /**
+     * Close all pooled connections. The pool is recreated on the next {@link #getConnection()}.
+     */
+    public static void shutdown() {
+        synchronized (DatabaseManager.class) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        }
+    }
+
+    /**
+     * Schema history, oldest first. The early migrations are written so that
+     * they also apply cleanly to databases created before schema_version
+     * existed. Never edit a migration once released; append a new one.
+     */
+    static List<Migration> migrations() {
+        return Arrays.asList(
+                new Migration(1, "Create users, theaters, screens and bookings",
+                        "CREATE TABLE IF NOT EXISTS users (" +
+                                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                                "name TEXT NOT NULL," +
+                                "email TEXT NOT NULL UNIQUE," +
+                                "phone_number TEXT NOT NULL)",
+                        "CREATE TABLE IF NOT EXISTS theaters (" +
+                                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                                "name TEXT NOT NULL," +
+                                "address TEXT NOT NULL)",
+                        "CREATE TABLE IF NOT EXISTS screens (" +
+                                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                                "theater_id INTEGER NOT NULL," +
+                                "movie_name TEXT NOT NULL," +
+                                "show_time DATETIME NOT NULL," +
+                                "available_seats TEXT NOT NULL," +
+                                "FOREIGN KEY (theater_id) REFERENCES theaters (id))",
+                        "CREATE TABLE IF NOT EXISTS bookings (" +
+                                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                                "user_id INTEGER NOT NULL," +
+                                "screen_id INTEGER NOT NULL," +
+                                "booking_time DATETIME NOT NULL," +
+                                "reserved_seats TEXT NOT NULL," +
+                                "total_price REAL NOT NULL," +
+                                "FOREIGN KEY (user_id) REFERENCES users (id)," +
+                                "FOREIGN KEY (screen_id) REFERENCES screens (id))"),
+
+                // One row per sold seat per screen; the unique constraint is what makes a claim atomic
+                new Migration(2, "Create seat inventory",
+                        "CREATE TABLE IF NOT EXISTS seat_inventory (" +
+                                "screen_id INTEGER NOT NULL," +
+                                "seat_label TEXT NOT NULL," +
+                                "status TEXT NOT NULL DEFAULT 'AVAILABLE' CHECK (status IN ('AVAILABLE', 'SOLD'))," +
+                                "booking_id INTEGER," +
+                                "UNIQUE (screen_id, seat_label)," +
+                                "FOREIGN KEY (screen_id) REFERENCES screens (id)," +
+                                "FOREIGN KEY (booking_id) REFERENCES bookings (id))",
+                        "CREATE INDEX IF NOT EXISTS idx_seat_inventory_booking ON seat_inventory (booking_id)",
+                        // Keep the inventory consistent however bookings and screens are removed
+                        "DROP TRIGGER IF EXISTS trg_bookings_release_seats",
+                        "CREATE TRIGGER trg_bookings_release_seats AFTER DELETE ON bookings " +
+                                "BEGIN DELETE FROM seat_inventory WHERE booking_id = OLD.id; END",
+                        "CREATE TRIGGER IF NOT EXISTS trg_screens_delete_seats AFTER DELETE ON screens " +
+                                "BEGIN DELETE FROM seat_inventory WHERE screen_id = OLD.id; END"),
+
+                new Migration(3, "Move screen seat lists onto auditoriums",
+                        DatabaseManager::migrateScreenSeatsToAuditoriums,
+                        "CREATE TABLE IF NOT EXISTS auditoriums (" +
+                                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                                "theater_id INTEGER NOT NULL," +
+                                "name TEXT NOT NULL," +
+                                "row_count INTEGER NOT NULL," +
+                                "seats_per_row INTEGER NOT NULL," +
+                                "blocked_seats TEXT NOT NULL DEFAULT ''," +
+                                "accessible_seats TEXT NOT NULL DEFAULT ''," +
+                                "seat_categories TEXT NOT NULL DEFAULT ''," +
+                                "FOREIGN KEY (theater_id) REFERENCES theaters (id))"),
+
+                new Migration(4, "Add screens.version for optimistic locking", conn -> {
+                    if (!hasColumn(conn, "screens", "version")) {
+                        try (Statement stmt = conn.createStatement()) {
+                            stmt.execute("ALTER TABLE screens ADD COLUMN version INTEGER NOT NULL DEFAULT 0");
+                        }
+                    }
+                }),
+
+                new Migration(5, "Index foreign keys and screen lookups",
+                        "CREATE INDEX IF NOT EXISTS idx_bookings_user_id ON bookings (user_id)",
+                        "CREATE INDEX IF NOT EXISTS idx_bookings_screen_id ON bookings (screen_id)",
+                        "CREATE INDEX IF NOT EXISTS idx_screens_theater_id ON screens (theater_id)",
+                        "CREATE INDEX IF NOT EXISTS idx_screens_show_time ON screens (show_time)",
+                        "CREATE INDEX IF NOT EXISTS idx_screens_movie_name ON screens (movie_name)",
+                        "CREATE INDEX IF NOT EXISTS idx_auditoriums_theater_id ON auditoriums (theater_id)",
+                        "ANALYZE"),
+
+                new Migration(6, "Index sort keys for keyset pagination",
+                        "CREATE INDEX IF NOT EXISTS idx_users_name ON users (name, id)",
+                        "CREATE INDEX IF NOT EXISTS idx_users_email ON users (email, id)",
+                        "CREATE INDEX IF NOT EXISTS idx_theaters_name ON theaters (name, id)",
+                        "CREATE INDEX IF NOT EXISTS idx_bookings_booking_time ON bookings (booking_time, id)",
+                        "CREATE INDEX IF NOT EXISTS idx_bookings_total_price ON bookings (total_price, id)",
+                        "ANALYZE"),
+
+                // External-content FTS5 indexes: the text lives in the base tables and
+                // triggers keep the indexes in step; updates only fire for indexed columns
+                new Migration(7, "Full-text search for movies, users and theaters",
+                        "CREATE VIRTUAL TABLE IF NOT EXISTS screens_fts USING fts5(movie_name, " +
+                                "content='screens', content_rowid='id', tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+                        "CREATE TRIGGER IF NOT EXISTS trg_screens_fts_insert AFTER INSERT ON screens " +
+                                "BEGIN INSERT INTO screens_fts (rowid, movie_name) VALUES (NEW.id, NEW.movie_name); END",
+                        "CREATE TRIGGER IF NOT EXISTS trg_screens_fts_delete AFTER DELETE ON screens " +
+                                "BEGIN INSERT INTO screens_fts (screens_fts, rowid, movie_name) VALUES ('delete', OLD.id, OLD.movie_name); END",
+                        "CREATE TRIGGER IF NOT EXISTS trg_screens_fts_update AFTER UPDATE OF movie_name ON screens " +
+                                "BEGIN INSERT INTO screens_fts (screens_fts, rowid, movie_name) VALUES ('delete', OLD.id, OLD.movie_name); " +
+                                "INSERT INTO screens_fts (rowid, movie_name) VALUES (NEW.id, NEW.movie_name); END",
+                        "INSERT INTO screens_fts (screens_fts) VALUES ('rebuild')",
+                        "CREATE VIRTUAL TABLE IF NOT EXISTS users_fts USING fts5(name, email, phone_number, " +
+                                "content='users', content_rowid='id', tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+                        "CREATE TRIGGER IF NOT EXISTS trg_users_fts_insert AFTER INSERT ON users " +
+                                "BEGIN INSERT INTO users_fts (rowid, name, email, phone_number) VALUES (NEW.id, NEW.name, NEW.email, NEW.phone_number); END",
+                        "CREATE TRIGGER IF NOT EXISTS trg_users_fts_delete AFTER DELETE ON users " +
+                                "BEGIN INSERT INTO users_fts (users_fts, rowid, name, email, phone_number) VALUES ('delete', OLD.id, OLD.name, OLD.email, OLD.phone_number); END",
+                        "CREATE TRIGGER IF NOT EXISTS trg_users_fts_update AFTER UPDATE OF name, email, phone_number ON users " +
+                                "BEGIN INSERT INTO users_fts (users_fts, rowid, name, email, phone_number) VALUES ('delete', OLD.id, OLD.name, OLD.email, OLD.phone_number); " +
+                                "INSERT INTO users_fts (rowid, name, email, phone_number) VALUES (NEW.id, NEW.name, NEW.email, NEW.phone_number); END",
+                        "INSERT INTO users_fts (users_fts) VALUES ('rebuild')",
+                        "CREATE VIRTUAL TABLE IF NOT EXISTS theaters_fts USING fts5(name, address, " +
+                                "content='theaters', content_rowid='id', tokenize='unicode61 remove_diacritics 2', prefix='2 3')",
+                        "CREATE TRIGGER IF NOT EXISTS trg_theaters_fts_insert AFTER INSERT ON theaters " +
+                                "BEGIN INSERT INTO theaters_fts (rowid, name, address) VALUES (NEW.id, NEW.name, NEW.address); END",
+                        "CREATE TRIGGER IF NOT EXISTS trg_theaters_fts_delete AFTER DELETE ON theaters " +
+                                "BEGIN INSERT INTO theaters_fts (theaters_fts, rowid, name, address) VALUES ('delete', OLD.id, OLD.name, OLD.address); END",
+                        "CREATE TRIGGER IF NOT EXISTS trg_theaters_fts_update AFTER UPDATE OF name, address ON theaters " +
+                                "BEGIN INSERT INTO theaters_fts (theaters_fts, rowid, name, address) VALUES ('delete', OLD.id, OLD.name, OLD.address); " +
+                                "INSERT INTO theaters_fts (rowid, name, address) VALUES (NEW.id, NEW.name, NEW.address); END",
+                        "INSERT INTO theaters_fts (theaters_fts) VALUES ('rebuild')"),
+
+                // The DATETIME columns have numeric affinity, so the integers are stored as
+                // such in place; strftime reads both the ISO and the space-separated text
+                // formats written so far. See DateTimeUtil.toEpochMillis for the encoding.
+                new Migration(8, "Store show and booking times as epoch milliseconds",
+                        "UPDATE screens SET show_time = strftime('%s', show_time) * 1000 + " +
+                                "CAST(substr(strftime('%f', show_time), 4) AS INTEGER) WHERE typeof(show_time) = 'text'",
+                        "UPDATE bookings SET booking_time = strftime('%s', booking_time) * 1000 + " +
+                                "CAST(substr(strftime('%f', booking_time), 4) AS INTEGER) WHERE typeof(booking_time) = 'text'",
+                        "ANALYZE"),
 
-            // Create Users table
-            stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "name TEXT NOT NULL," +
-                    "email TEXT NOT NULL UNIQUE," +
-                    "phone_number TEXT NOT NULL)");
-
-            // Create Theaters table
-            stmt.execute("CREATE TABLE IF NOT EXISTS theaters (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "name TEXT NOT NULL," +
-                    "address TEXT NOT NULL)");
-
-            // Create Screens table
-            stmt.execute("CREATE TABLE IF NOT EXISTS screens (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "theater_id INTEGER NOT NULL," +
-                    "movie_name TEXT NOT NULL," +
-                    "show_time DATETIME NOT NULL," +
-                    "available_seats TEXT NOT NULL," +
-                    "FOREIGN KEY (theater_id) REFERENCES theaters (id))");
-
-            // Create Bookings table
-            stmt.execute("CREATE TABLE IF NOT EXISTS bookings (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "user_id INTEGER NOT NULL," +
-                    "screen_id INTEGER NOT NULL," +
-                    "booking_time DATETIME NOT NULL," +
-                    "reserved_seats TEXT NOT NULL," +
-                    "total_price REAL NOT NULL," +
-                    "FOREIGN KEY (user_id) REFERENCES users (id)," +
-                    "FOREIGN KEY (screen_id) REFERENCES screens (id))");
+                // Serves showtime windows per theater; it also covers lookups by theater_id alone
+                new Migration(9, "Index screens by theater and show time",
+                        "CREATE INDEX IF NOT EXISTS idx_screens_theater_show_time ON screens (theater_id, show_time)",
+                        "DROP INDEX IF EXISTS idx_screens_theater_id",
+                        "ANALYZE")
+        );
+    }
+
+    public static void initializeDatabase() {
+        try {
+            new MigrationRunner(migrations()).migrate();
+        } catch (DatabaseException e) {
+            System.err.println("Error migrating database: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
 
+        try (Connection conn = getConnection()) {
+            createDefaultAuditoriums(conn, Auditorium.DEFAULT_ROWS, Auditorium.DEFAULT_SEATS_PER_ROW);
+            syncBookedSeats(conn);
         } catch (SQLException e) {
             System.err.println("Error initializing database: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Move databases where every screen carried its own seat list onto
+     * auditoriums: each theater gets one hall sized to hold every seat its
+     * screens ever listed, seats none of them listed are blocked, and the
+     * per-seat AVAILABLE rows and screens.available_seats are dropped.
+     * Runs inside migration 3's transaction.
+     */
+    private static void migrateScreenSeatsToAuditoriums(Connection conn) throws SQLException {
+        if (!hasColumn(conn, "screens", "available_seats")) {
+            return;
+        }
+        String selectScreens = "SELECT s.id, s.theater_id, s.available_seats, " +
+                "(SELECT group_concat(seat_label) FROM seat_inventory si WHERE si.screen_id = s.id) AS inventory_seats, " +
+                "(SELECT group_concat(reserved_seats) FROM bookings b WHERE b.screen_id = s.id) AS booked_seats " +
+                "FROM screens s ORDER BY s.theater_id";
+        String insertAuditorium = "INSERT INTO auditoriums (theater_id, name, row_count, seats_per_row, blocked_seats) VALUES (?, ?, ?, ?, ?)";
+        String assignAuditorium = "UPDATE screens SET auditorium_id = ? WHERE theater_id = ?";
+
+        try (Statement stmt = conn.createStatement()) {
+
+            if (!hasColumn(conn, "screens", "auditorium_id")) {
+                stmt.execute("ALTER TABLE screens ADD COLUMN auditorium_id INTEGER REFERENCES auditoriums (id)");
+            }
+
+            Map<Integer, List<String>> seatsByTheater = new LinkedHashMap<>();
+            try (ResultSet rs = stmt.executeQuery(selectScreens)) {
+                while (rs.next()) {
+                    List<String> seats = seatsByTheater.computeIfAbsent(rs.getInt("theater_id"), id -> new ArrayList<>());
+                    for (String column : new String[]{"available_seats", "inventory_seats", "booked_seats"}) {
+                        seats.addAll(SeatMap.parse(rs.getString(column)).toLabels());
+                    }
+                }
+            }
+
+            try (PreparedStatement insert = conn.prepareStatement(insertAuditorium, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement assign = conn.prepareStatement(assignAuditorium)) {
+                for (Map.Entry<Integer, List<String>> theater : seatsByTheater.entrySet()) {
+                    SeatMap listed = SeatMap.of(theater.getValue());
+                    SeatMap blocked = SeatMap.full(listed.getRows(), listed.getColumns());
+                    blocked.claim(listed);
+
+                    insert.setInt(1, theater.getKey());
+                    insert.setString(2, Auditorium.DEFAULT_NAME);
+                    insert.setInt(3, listed.getRows());
+                    insert.setInt(4, listed.getColumns());
+                    insert.setString(5, blocked.serialize());
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        keys.next();
+                        assign.setInt(1, keys.getInt(1));
+                    }
+                    assign.setInt(2, theater.getKey());
+                    assign.executeUpdate();
+                }
+            }
+
+            syncBookedSeats(conn);
+            stmt.execute("DELETE FROM seat_inventory WHERE status <> 'SOLD'");
+            stmt.execute("ALTER TABLE screens DROP COLUMN available_seats");
+        }
+    }
+
+    /**
+     * Give every theater without a hall a default one, and put screens that
+     * have no hall into their theater's first one.
+     */
+    private static void createDefaultAuditoriums(Connection conn, int rows, int seatsPerRow) throws SQLException {
+        String insertDefaults = "INSERT INTO auditoriums (theater_id, name, row_count, seats_per_row) " +
+                "SELECT t.id, ?, ?, ? FROM theaters t " +
+                "WHERE NOT EXISTS (SELECT 1 FROM auditoriums a WHERE a.theater_id = t.id)";
+        String assignDefaults = "UPDATE screens SET auditorium_id = " +
+                "(SELECT a.id FROM auditoriums a WHERE a.theater_id = screens.theater_id ORDER BY a.id LIMIT 1) " +
+                "WHERE auditorium_id IS NULL";
+
+        try (PreparedStatement insert = conn.prepareStatement(insertDefaults);
+             Statement stmt = conn.createStatement()) {
+            insert.setString(1, Auditorium.DEFAULT_NAME);
+            insert.setInt(2, rows);
+            insert.setInt(3, seatsPerRow);
+            insert.executeUpdate();
+            stmt.executeUpdate(assignDefaults);
+        }
+    }
+
+    /**
+     * Record the seats of bookings that have no seat inventory rows yet as
+     * SOLD. A seat listed by more than one booking stays with the booking
+     * that already has it, or else the earliest one; the others are logged
+     * and keep their remaining seats.
+     */
+    private static void syncBookedSeats(Connection conn) throws SQLException {
+        String selectBookings = "SELECT id, screen_id, reserved_seats FROM bookings b " +
+                "WHERE NOT EXISTS (SELECT 1 FROM seat_inventory si WHERE si.booking_id = b.id) ORDER BY id";
+        String sellSeat = "INSERT OR IGNORE INTO seat_inventory (screen_id, seat_label, status, booking_id) VALUES (?, ?, 'SOLD', ?)";
+        String selectHolder = "SELECT booking_id FROM seat_inventory WHERE screen_id = ? AND seat_label = ?";
+
+        List<int[]> bookings = new ArrayList<>();
+        List<List<String>> seats = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(selectBookings)) {
+            while (rs.next()) {
+                bookings.add(new int[]{rs.getInt("id"), rs.getInt("screen_id")});
+                seats.add(SeatMap.parse(rs.getString("reserved_seats")).toLabels());
+            }
+        }
+
+        try (PreparedStatement sell = conn.prepareStatement(sellSeat);
+             PreparedStatement holder = conn.prepareStatement(selectHolder)) {
+            for (int i = 0; i < bookings.size(); i++) {
+                int bookingId = bookings.get(i)[0];
+                int screenId = bookings.get(i)[1];
+                for (String seat : seats.get(i)) {
+                    sell.setInt(1, screenId);
+                    sell.setString(2, seat);
+                    sell.setInt(3, bookingId);
+                    if (sell.executeUpdate() == 0) {
+                        holder.setInt(1, screenId);
+                        holder.setString(2, seat);
+                        try (ResultSet rs = holder.executeQuery()) {
+                            LOGGER.log(Level.WARNING, "Seat {0} of screen {1} is listed by bookings {2} and {3}; " +
+                                    "it stays sold to booking {2}", new Object[]{seat, String.valueOf(screenId),
+                                    rs.next() ? String.valueOf(rs.getInt("booking_id")) : "?", String.valueOf(bookingId)});
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public static void insertSampleData() {
-        try (Connection conn = getConnection()) {
+        // One transaction, one batch per table
+        try (Transaction tx = beginTransaction();
+             Connection conn = getConnection()) {
             // Insert sample users
             String insertUser = "INSERT OR IGNORE INTO users (name, email, phone_number) VALUES (?, ?, ?)";
             try (PreparedStatement pstmt = conn.prepareStatement(insertUser)) {
@@ -77,8 +519,9 @@ public class DatabaseManager {
                     pstmt.setString(1, data[0]);
                     pstmt.setString(2, data[1]);
                     pstmt.setString(3, data[2]);
-                    pstmt.executeUpdate();
+                    pstmt.addBatch();
                 }
+                pstmt.executeBatch();
             }
 
             // Insert sample theaters
@@ -93,28 +536,34 @@ public class DatabaseManager {
                 for (String[] data : theaterData) {
                     pstmt.setString(1, data[0]);
                     pstmt.setString(2, data[1]);
-                    pstmt.executeUpdate();
+                    pstmt.addBatch();
                 }
+                pstmt.executeBatch();
             }
 
+            // Sample halls are 3x3; theaters without any hall get one
+            createDefaultAuditoriums(conn, 3, 3);
+
             // Insert sample screens
-            String insertScreen = "INSERT OR IGNORE INTO screens (theater_id, movie_name, show_time, available_seats) VALUES (?, ?, ?, ?)";
+            String insertScreen = "INSERT OR IGNORE INTO screens (theater_id, movie_name, show_time, auditorium_id) " +
+                    "VALUES (?, ?, ?, (SELECT id FROM auditoriums WHERE theater_id = ? ORDER BY id LIMIT 1))";
             try (PreparedStatement pstmt = conn.prepareStatement(insertScreen)) {
                 Object[][] screenData = {
-                        {1, "Avengers: Endgame", LocalDateTime.now().plusDays(1), "A1,A2,A3,B1,B2,B3,C1,C2,C3"},
-                        {1, "The Lion King", LocalDateTime.now().plusDays(2), "A1,A2,A3,B1,B2,B3,C1,C2,C3"},
-                        {2, "Joker", LocalDateTime.now().plusDays(1), "A1,A2,A3,B1,B2,B3,C1,C2,C3"},
-                        {2, "Inception", LocalDateTime.now().plusDays(3), "A1,A2,A3,B1,B2,B3,C1,C2,C3"},
-                        {3, "The Shawshank Redemption", LocalDateTime.now().plusDays(2), "A1,A2,A3,B1,B2,B3,C1,C2,C3"}
+                        {1, "Avengers: Endgame", LocalDateTime.now().plusDays(1)},
+                        {1, "The Lion King", LocalDateTime.now().plusDays(2)},
+                        {2, "Joker", LocalDateTime.now().plusDays(1)},
+                        {2, "Inception", LocalDateTime.now().plusDays(3)},
+                        {3, "The Shawshank Redemption", LocalDateTime.now().plusDays(2)}
                 };
 
                 for (Object[] data : screenData) {
                     pstmt.setInt(1, (Integer) data[0]);
                     pstmt.setString(2, (String) data[1]);
-                    pstmt.setString(3, ((LocalDateTime) data[2]).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                    pstmt.setString(4, (String) data[3]);
-                    pstmt.executeUpdate();
+                    pstmt.setLong(3, DateTimeUtil.toEpochMillis((LocalDateTime) data[2]));
+                    pstmt.setInt(4, (Integer) data[0]);
+                    pstmt.addBatch();
                 }
+                pstmt.executeBatch();
             }
 
             // Insert sample bookings
@@ -131,14 +580,17 @@ public class DatabaseManager {
                 for (Object[] data : bookingData) {
                     pstmt.setInt(1, (Integer) data[0]);
                     pstmt.setInt(2, (Integer) data[1]);
-                    pstmt.setString(3, ((LocalDateTime) data[2]).toString());
+                    pstmt.setLong(3, DateTimeUtil.toEpochMillis((LocalDateTime) data[2]));
                     pstmt.setString(4, (String) data[3]);
                     pstmt.setDouble(5, (Double) data[4]);
-                    pstmt.executeUpdate();
+                    pstmt.addBatch();
                 }
+                pstmt.executeBatch();
             }
 
-        } catch (SQLException e) {
+            syncBookedSeats(conn);
+            tx.commit();
+        } catch (SQLException | DatabaseException e) {
             System.err.println("Error inserting sample data: " + e.getMessage());
             e.printStackTrace();
         }
@@ -1,10 +1,14 @@
 package com.cinema.util;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 
 public class DateTimeUtil {
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
 
     public static String formatDateTime(LocalDateTime dateTime) {
         return dateTime.format(FORMATTER);
@@ -17,4 +21,25 @@ public class DateTimeUtil {
     public static String getCurrentDateTime() {
         return formatDateTime(LocalDateTime.now());
     }
-}
\ No newline at end of file
+
+    /**
+     * Database encoding of a date-time: milliseconds from 1970-01-01T00:00 to
+     * the given wall-clock time, with no time zone applied. This is what
+     * SQLite's strftime('%s') computes for the same text, it sorts and
+     * compares like the date-times themselves, and converting is plain
+     * arithmetic instead of parsing. Sub-millisecond precision is dropped.
+     */
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toLocalDate().toEpochDay() * MILLIS_PER_DAY
+                + dateTime.toLocalTime().toNanoOfDay() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Inverse of {@link #toEpochMillis(LocalDateTime)}.
+     */
+    public static LocalDateTime fromEpochMillis(long epochMillis) {
+        long epochDay = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+        return LocalDateTime.of(LocalDate.ofEpochDay(epochDay), LocalTime.ofNanoOfDay(millisOfDay * NANOS_PER_MILLI));
+    }
+}
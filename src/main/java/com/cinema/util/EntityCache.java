@@ -0,0 +1,246 @@
+package com.cinema.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded read-through cache of entities loaded by a DAO, keyed by id.
+ * <p>
+ * Entries are evicted least recently used first once more than
+ * {@code maxSize} are held, and are dropped when read more than
+ * {@code ttlMillis} after they were loaded, which bounds how long a change
+ * made by another process can go unseen. Values are copied on the way in
+ * and out, so callers may modify what they get.
+ * <p>
+ * The cache only ever holds committed rows. On a thread with an open
+ * {@link Transaction}, {@link #get} and {@link #put} do nothing, and
+ * {@link #invalidate} drops the entry both immediately and again when the
+ * transaction ends, so a reader that loaded the old row in between cannot
+ * keep it. A {@link #put} is also ignored if any entry was invalidated
+ * after its {@link #stamp()} was taken, i.e. while the row was being read.
+ */
+public final class EntityCache<K, V> {
+    private static final List<EntityCache<?, ?>> CACHES = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxSize;
+    private long ttlMillis;
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param maxSize   entries kept; 0 disables the cache
+     * @param ttlMillis age after which an entry is reloaded; 0 for no limit
+     * @param copier    copy constructor of the cached type
+     */
+    public EntityCache(String name, int maxSize, long ttlMillis, UnaryOperator<V> copier) {
+        this.name = name;
+        this.copier = copier;
+        resize(maxSize, ttlMillis);
+        CACHES.add(this);
+    }
+
+    /**
+     * Empty every cache, zero its counters and apply new limits, e.g. after
+     * switching databases.
+     */
+    static void resetAll(int maxSize, long ttlMillis) {
+        for (EntityCache<?, ?> cache : CACHES) {
+            cache.resize(maxSize, ttlMillis);
+        }
+    }
+
+    private synchronized void resize(int maxSize, long ttlMillis) {
+        if (maxSize < 0 || ttlMillis < 0) {
+            throw new IllegalArgumentException("Cache size and TTL must not be negative");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        entries.clear();
+        invalidations++;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        expirations = 0;
+    }
+
+    /**
+     * A copy of the cached value, or {@code null} if it has to be loaded.
+     */
+    public V get(K key) {
+        if (Transaction.isActive()) {
+            return null;
+        }
+        V value;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && ttlMillis > 0 && System.currentTimeMillis() - entry.loadedAt > ttlMillis) {
+                entries.remove(key);
+                expirations++;
+                entry = null;
+            }
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            value = entry.value;
+        }
+        return copier.apply(value);
+    }
+
+    /**
+     * Take before reading a row that is going to be {@link #put}.
+     */
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    /**
+     * Cache a copy of {@code value}, unless something was invalidated since {@code stamp}.
+     */
+    public void put(K key, V value, long stamp) {
+        if (Transaction.isActive()) {
+            return;
+        }
+        V copy = copier.apply(value);
+        synchronized (this) {
+            if (stamp != invalidations || maxSize == 0) {
+                return;
+            }
+            entries.put(key, new Entry<>(copy, System.currentTimeMillis()));
+            Iterator<Entry<V>> eldest = entries.values().iterator();
+            while (entries.size() > maxSize) {
+                eldest.next();
+                eldest.remove();
+                evictions++;
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        remove(key);
+        if (Transaction.isActive()) {
+            Transaction.afterCompletion(() -> remove(key));
+        }
+    }
+
+    public void invalidateAll() {
+        clear();
+        if (Transaction.isActive()) {
+            Transaction.afterCompletion(this::clear);
+        }
+    }
+
+    private synchronized void remove(K key) {
+        entries.remove(key);
+        invalidations++;
+    }
+
+    private synchronized void clear() {
+        entries.clear();
+        invalidations++;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(name, entries.size(), maxSize, hits, misses, evictions, expirations);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Counters of one cache since it was created or last reset.
+     */
+    public static final class Stats {
+        private final String name;
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+
+        private Stats(String name, int size, int maxSize, long hits, long misses, long evictions, long expirations) {
+            this.name = name;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+        }
+
+        /**
+         * Share of lookups answered from the cache, 0 before the first lookup.
+         */
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        // Getters
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Entries dropped to stay within the size limit.
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * Entries dropped because they outlived the TTL.
+         */
+        public long getExpirations() {
+            return expirations;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "name='" + name + '\'' +
+                    ", size=" + size +
+                    ", maxSize=" + maxSize +
+                    ", hits=" + hits +
+                    ", misses=" + misses +
+                    ", hitRatio=" + String.format("%.3f", getHitRatio()) +
+                    ", evictions=" + evictions +
+                    ", expirations=" + expirations +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.cinema.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel for expiring items after a delay.
+ * <p>
+ * Items are put into one of {@code slots} buckets according to their
+ * deadline; every tick only the bucket under the wheel's hand is looked at,
+ * and items that are due are handed to the callback together. Scheduling
+ * and cancelling are O(1) however many items are pending, and deadlines are
+ * accurate to one tick.
+ */
+public class ExpiryWheel<T> implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ExpiryWheel.class.getName());
+
+    private final long tickMillis;
+    private final List<Set<Timeout<T>>> wheel;
+    private final Consumer<List<T>> onExpired;
+    private final ScheduledExecutorService ticker;
+    private long currentTick;
+
+    /**
+     * @param onExpired called on the wheel's thread with the items that fell due in a tick
+     */
+    public ExpiryWheel(long tickMillis, int slots, Consumer<List<T>> onExpired) {
+        if (tickMillis <= 0 || slots <= 0) {
+            throw new IllegalArgumentException("Tick and slot count must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.onExpired = onExpired;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new LinkedHashSet<>());
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Expire {@code item} after at least {@code delayMillis}.
+     */
+    public synchronized Timeout<T> schedule(T item, long delayMillis) {
+        long ticks = Math.max(1, (delayMillis + tickMillis - 1) / tickMillis);
+        int slot = (int) ((currentTick + ticks) % wheel.size());
+        Timeout<T> timeout = new Timeout<>(this, item, slot, (ticks - 1) / wheel.size());
+        wheel.get(slot).add(timeout);
+        return timeout;
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (Set<Timeout<T>> bucket : wheel) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    void tick() {
+        List<T> expired = new ArrayList<>();
+        synchronized (this) {
+            currentTick++;
+            Iterator<Timeout<T>> it = wheel.get((int) (currentTick % wheel.size())).iterator();
+            while (it.hasNext()) {
+                Timeout<T> timeout = it.next();
+                if (timeout.remainingRounds == 0) {
+                    it.remove();
+                    expired.add(timeout.item);
+                } else {
+                    timeout.remainingRounds--;
+                }
+            }
+        }
+        if (!expired.isEmpty()) {
+            try {
+                onExpired.accept(expired);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error expiring " + expired.size() + " items", e);
+            }
+        }
+    }
+
+    private synchronized boolean cancel(Timeout<T> timeout) {
+        return wheel.get(timeout.slot).remove(timeout);
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * A scheduled expiry; cancel it to keep the item from expiring.
+     */
+    public static final class Timeout<T> {
+        private final ExpiryWheel<T> wheel;
+        private final T item;
+        private final int slot;
+        private long remainingRounds;
+
+        private Timeout(ExpiryWheel<T> wheel, T item, int slot, long remainingRounds) {
+            this.wheel = wheel;
+            this.item = item;
+            this.slot = slot;
+            this.remainingRounds = remainingRounds;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        /**
+         * @return false if the item already expired or was cancelled
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.cinema.util;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Notices commits made to the database by other processes, so that views
+ * which apply their own changes in place know when they have to re-query.
+ * <p>
+ * While listeners are registered, a dedicated connection polls
+ * {@code PRAGMA data_version} every {@code cinema.db.externalChangePollMillis}.
+ * The value changes whenever a connection other than the polling one commits,
+ * including the pool's own. Those are told apart by counting local writes
+ * where they are committed: a {@link Transaction} counts as one from the
+ * moment it begins until it has committed or rolled back, and a write
+ * outside a transaction from {@link DatabaseManager#getWriteConnection()}
+ * until that connection is closed. A change seen while no local write is in
+ * progress, and none has finished since the last change, is reported to the
+ * listeners, on the polling thread. A change from another process that lands
+ * while a local write is in progress, or in the same poll interval as one,
+ * is taken for local and goes unreported.
+ */
+public final class ExternalChangeMonitor {
+    private static final Logger LOGGER = Logger.getLogger(ExternalChangeMonitor.class.getName());
+
+    // Local writes in progress, and finished so far
+    private static final AtomicLong PENDING_WRITES = new AtomicLong();
+    private static final AtomicLong FINISHED_WRITES = new AtomicLong();
+    private static final CopyOnWriteArrayList<Runnable> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static ScheduledExecutorService poller;
+    private static Poll poll;
+
+    private ExternalChangeMonitor() {
+    }
+
+    /**
+     * Called when a local write begins, before it can commit.
+     */
+    static void writeStarted() {
+        PENDING_WRITES.incrementAndGet();
+    }
+
+    /**
+     * Called once a local write has committed or rolled back.
+     */
+    static void writeFinished() {
+        // Finished first, so a poll that no longer sees it pending sees it finished
+        FINISHED_WRITES.incrementAndGet();
+        PENDING_WRITES.decrementAndGet();
+    }
+
+    public static void addListener(Runnable listener) {
+        // Resolved outside our lock, as configure() calls restart() holding DatabaseManager's
+        StorageProfile profile = DatabaseManager.getStorageProfile();
+        RuntimeSettings settings = DatabaseManager.getRuntimeSettings();
+        synchronized (ExternalChangeMonitor.class) {
+            LISTENERS.addIfAbsent(listener);
+            if (poller == null) {
+                start(profile, settings);
+            }
+        }
+    }
+
+    public static synchronized void removeListener(Runnable listener) {
+        LISTENERS.remove(listener);
+        if (LISTENERS.isEmpty()) {
+            stop();
+        }
+    }
+
+    /**
+     * Run {@code onChange} on the FX thread after each external change, for
+     * as long as {@code node} is part of a scene.
+     */
+    public static void whileShowing(Node node, Runnable onChange) {
+        Runnable listener = () -> Platform.runLater(onChange);
+        node.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                removeListener(listener);
+            } else {
+                addListener(listener);
+            }
+        });
+        if (node.getScene() != null) {
+            addListener(listener);
+        }
+    }
+
+    /**
+     * Poll the database of {@code profile} from now on, e.g. after switching databases.
+     */
+    static synchronized void restart(StorageProfile profile, RuntimeSettings settings) {
+        stop();
+        if (!LISTENERS.isEmpty()) {
+            start(profile, settings);
+        }
+    }
+
+    private static void start(StorageProfile profile, RuntimeSettings settings) {
+        long interval = settings.getExternalChangePollMillis();
+        if (interval <= 0) {
+            return;
+        }
+        poll = new Poll(profile.getUrl());
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "external-change-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(poll, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private static void stop() {
+        if (poller != null) {
+            // Queued behind a poll in progress; shutdown() only cancels the periodic one
+            poller.execute(poll::close);
+            poller.shutdown();
+            poller = null;
+            poll = null;
+        }
+    }
+
+    /**
+     * One polling connection; only touched on the poller thread.
+     */
+    private static final class Poll implements Runnable {
+        private final String url;
+        private Connection connection;
+        private long lastVersion = -1;
+        private long lastFinished;
+
+        private Poll(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public void run() {
+            long version;
+            try {
+                if (connection == null) {
+                    connection = DriverManager.getConnection(url);
+                }
+                try (Statement stmt = connection.createStatement();
+                     ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+                    rs.next();
+                    version = rs.getLong(1);
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Could not poll data_version; retrying on a new connection", e);
+                close();
+                return;
+            }
+            // Read after data_version and in this order, so a local write
+            // committed before the version was read is either still pending
+            // or already finished
+            long pending = PENDING_WRITES.get();
+            long finished = FINISHED_WRITES.get();
+
+            if (lastVersion >= 0 && version != lastVersion) {
+                // The count is only moved on when a commit is seen, so a write
+                // finished after one poll read the version is still noticed by the next
+                if (pending == 0 && finished == lastFinished) {
+                    notifyListeners();
+                }
+                lastFinished = finished;
+            } else if (lastVersion < 0) {
+                lastFinished = finished;
+            }
+            lastVersion = version;
+        }
+
+        private void notifyListeners() {
+            for (Runnable listener : LISTENERS) {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "External change listener failed", e);
+                }
+            }
+        }
+
+        private void close() {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Error closing the change monitor connection", e);
+                }
+                connection = null;
+                lastVersion = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.cinema.util;
+
+import javafx.animation.PauseTransition;
+import javafx.beans.Observable;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Search-as-you-type for a view's search box.
+ * <p>
+ * A change to any of the {@link #watch watched} inputs restarts a short
+ * pause, and the view's search runs once the user stops typing. The search
+ * passes its query through {@link #cached}, which keeps the results of the
+ * last {@value #CACHE_SIZE} searches for {@value #CACHE_TTL_MILLIS} ms keyed
+ * by the search criteria, so going back to an earlier term is answered
+ * without a query, and which keeps at most {@value #MAX_RESULTS} rows. Views
+ * call {@link #invalidate()} after writing so they never show their own
+ * stale results. Queries superseded by a newer search are cancelled by the
+ * {@link BackgroundLoader} that runs them.
+ */
+public class LiveSearch<T> {
+    public static final int MAX_RESULTS = 500;
+    private static final int CACHE_SIZE = 32;
+    private static final long CACHE_TTL_MILLIS = 30_000;
+    private static final Duration DEBOUNCE = Duration.millis(250);
+
+    private final PauseTransition pause = new PauseTransition(DEBOUNCE);
+    private final LinkedHashMap<List<Object>, Result<T>> results = new LinkedHashMap<>(16, 0.75f, true);
+    private long invalidations;
+
+    /**
+     * @param search the view's search, e.g. its search button handler
+     */
+    public LiveSearch(Runnable search) {
+        pause.setOnFinished(event -> search.run());
+    }
+
+    /**
+     * Search again a moment after any of {@code inputs} last changed.
+     */
+    public void watch(Observable... inputs) {
+        for (Observable input : inputs) {
+            input.addListener(observable -> pause.playFromStart());
+        }
+    }
+
+    /**
+     * {@code query} answered from the results of an earlier search with the
+     * same {@code criteria} if there is one, and cut to {@link #MAX_RESULTS}
+     * rows otherwise. Also cancels a pending search, as this one is newer.
+     */
+    public ServiceExecutor.Call<List<T>> cached(ServiceExecutor.Call<? extends List<T>> query, Object... criteria) {
+        cancelPending();
+        List<Object> key = Arrays.asList(criteria);
+        return () -> {
+            long stamp;
+            synchronized (this) {
+                Result<T> result = results.get(key);
+                if (result != null && System.currentTimeMillis() - result.loadedAt <= CACHE_TTL_MILLIS) {
+                    return new ArrayList<>(result.rows);
+                }
+                stamp = invalidations;
+            }
+            List<T> rows = query.call();
+            List<T> shown = rows.size() > MAX_RESULTS ? new ArrayList<>(rows.subList(0, MAX_RESULTS)) : rows;
+            synchronized (this) {
+                // Not kept if the view wrote something while the query ran
+                if (stamp == invalidations) {
+                    results.put(key, new Result<>(new ArrayList<>(shown), System.currentTimeMillis()));
+                    Iterator<Result<T>> eldest = results.values().iterator();
+                    while (results.size() > CACHE_SIZE) {
+                        eldest.next();
+                        eldest.remove();
+                    }
+                }
+            }
+            return shown;
+        };
+    }
+
+    /**
+     * Drop a search still waiting for the user to stop typing, e.g. because
+     * the view searched right away.
+     */
+    public void cancelPending() {
+        pause.stop();
+    }
+
+    /**
+     * Forget all results, e.g. after the view changed a row.
+     */
+    public synchronized void invalidate() {
+        results.clear();
+        invalidations++;
+    }
+
+    private static final class Result<T> {
+        private final List<T> rows;
+        private final long loadedAt;
+
+        private Result(List<T> rows, long loadedAt) {
+            this.rows = rows;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.cinema.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * One versioned step of the database schema, applied once by
+ * {@link MigrationRunner}.
+ * <p>
+ * A migration is a list of SQL statements, optionally followed by a step
+ * written in Java for changes SQL alone cannot express. The checksum covers
+ * the version, the description and the statements, so editing an applied
+ * migration is detected; a Java step is identified by its description only.
+ * Never change a released migration - add a new one instead.
+ */
+public class Migration {
+
+    /**
+     * Schema change written in Java, run on the migration's transaction connection.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final List<String> statements;
+    private final Step step;
+
+    public Migration(int version, String description, String... statements) {
+        this(version, description, null, statements);
+    }
+
+    public Migration(int version, String description, Step step, String... statements) {
+        if (version <= 0) {
+            throw new IllegalArgumentException("Migration version must be positive: " + version);
+        }
+        this.version = version;
+        this.description = description;
+        this.statements = Arrays.asList(statements);
+        this.step = step;
+    }
+
+    void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+        if (step != null) {
+            step.apply(conn);
+        }
+    }
+
+    public long getChecksum() {
+        CRC32 crc = new CRC32();
+        crc.update((version + "\n" + description + "\n").getBytes(StandardCharsets.UTF_8));
+        for (String sql : statements) {
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            crc.update('\n');
+        }
+        return crc.getValue();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return "Migration{" +
+                "version=" + version +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
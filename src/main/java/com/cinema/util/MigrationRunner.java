@@ -0,0 +1,129 @@
+package com.cinema.util;
+
+import com.cinema.exception.DatabaseException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Brings the database schema up to date by applying pending
+ * {@link Migration}s in version order, each in its own transaction, and
+ * recording them in the schema_version table.
+ * <p>
+ * Before anything is applied, migrations already recorded are checked
+ * against the code: a changed checksum, or a version the code does not
+ * know (a database written by a newer build), stops the run.
+ */
+public class MigrationRunner {
+    private static final Logger LOGGER = Logger.getLogger(MigrationRunner.class.getName());
+
+    private static final String CREATE_SCHEMA_VERSION = "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "version INTEGER PRIMARY KEY," +
+            "description TEXT NOT NULL," +
+            "checksum INTEGER NOT NULL," +
+            "applied_at DATETIME NOT NULL)";
+    private static final String SELECT_APPLIED = "SELECT version, checksum FROM schema_version ORDER BY version";
+    private static final String INSERT_APPLIED = "INSERT INTO schema_version (version, description, checksum, applied_at) VALUES (?, ?, ?, ?)";
+
+    private final List<Migration> migrations;
+
+    public MigrationRunner(List<Migration> migrations) {
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).getVersion() <= migrations.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Migrations must be in increasing version order: " +
+                        migrations.get(i - 1) + " before " + migrations.get(i));
+            }
+        }
+        this.migrations = new ArrayList<>(migrations);
+    }
+
+    /**
+     * Apply every migration that has not been applied yet.
+     *
+     * @return the number of migrations applied
+     */
+    public int migrate() throws DatabaseException {
+        Map<Integer, Long> applied = validate();
+
+        int count = 0;
+        for (Migration migration : migrations) {
+            if (applied.containsKey(migration.getVersion())) {
+                continue;
+            }
+            try (Transaction tx = DatabaseManager.beginTransaction();
+                 Connection conn = DatabaseManager.getConnection()) {
+                migration.apply(conn);
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_APPLIED)) {
+                    stmt.setInt(1, migration.getVersion());
+                    stmt.setString(2, migration.getDescription());
+                    stmt.setLong(3, migration.getChecksum());
+                    stmt.setString(4, LocalDateTime.now().toString());
+                    stmt.executeUpdate();
+                }
+                tx.commit();
+            } catch (SQLException e) {
+                throw new DatabaseException("Error applying " + migration, e);
+            }
+            LOGGER.info("Applied schema migration " + migration.getVersion() + ": " + migration.getDescription());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Highest applied migration version, or 0 for a database without any.
+     */
+    public int getCurrentVersion() throws DatabaseException {
+        int current = 0;
+        for (int version : readApplied().keySet()) {
+            current = Math.max(current, version);
+        }
+        return current;
+    }
+
+    private Map<Integer, Long> validate() throws DatabaseException {
+        Map<Integer, Long> applied = readApplied();
+        Map<Integer, Migration> known = new LinkedHashMap<>();
+        for (Migration migration : migrations) {
+            known.put(migration.getVersion(), migration);
+        }
+
+        for (Map.Entry<Integer, Long> entry : applied.entrySet()) {
+            Migration migration = known.get(entry.getKey());
+            if (migration == null) {
+                throw new DatabaseException("Database has schema version " + entry.getKey() +
+                        ", which this version of the application does not know");
+            }
+            if (migration.getChecksum() != entry.getValue()) {
+                throw new DatabaseException("Checksum mismatch for applied " + migration +
+                        "; released migrations must not be changed");
+            }
+        }
+        return applied;
+    }
+
+    private Map<Integer, Long> readApplied() throws DatabaseException {
+        Map<Integer, Long> applied = new LinkedHashMap<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_SCHEMA_VERSION);
+            try (ResultSet rs = stmt.executeQuery(SELECT_APPLIED)) {
+                while (rs.next()) {
+                    applied.put(rs.getInt("version"), rs.getLong("checksum"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Error reading schema version", e);
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,295 @@
+package com.cinema.util;
+
+import com.cinema.dao.Page;
+import com.cinema.dao.PageKey;
+import com.cinema.exception.DatabaseException;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Items of a {@link TableView} loaded a page at a time as the user scrolls.
+ * <p>
+ * At most {@code maxPages} pages are held: scrolling down past the last
+ * loaded page fetches the next one and drops the first, and scrolling back
+ * up fetches dropped pages again from their keyset position. Memory use is
+ * therefore bounded by {@code pageSize * maxPages} rows whatever the size of
+ * the table.
+ * <p>
+ * Pages and {@link #showAll} results are fetched by a {@link BackgroundLoader},
+ * so the FX thread never waits for the database; a refresh or search cancels
+ * a fetch still in flight.
+ */
+public class PagedTableModel<T> {
+    // Marks the first page on the dropped-page stack, whose start key is null
+    private static final PageKey FIRST_PAGE = new PageKey(null, Integer.MIN_VALUE);
+    private static final String ROWS = "rows";
+
+    /**
+     * Fetches a page, typically a service's getXxxPage with the sort fixed.
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        Page<T> fetch(PageKey afterKey, int limit) throws DatabaseException;
+    }
+
+    private static final class LoadedPage {
+        private final PageKey startKey;
+        private final PageKey nextKey;
+        private int size;
+
+        private LoadedPage(PageKey startKey, PageKey nextKey, int size) {
+            this.startKey = startKey;
+            this.nextKey = nextKey;
+            this.size = size;
+        }
+    }
+
+    private final TableView<T> table;
+    private final ToIntFunction<T> idOf;
+    private final int pageSize;
+    private final int maxPages;
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final Deque<LoadedPage> window = new ArrayDeque<>();
+    private final Deque<PageKey> droppedStartKeys = new ArrayDeque<>();
+    private final BackgroundLoader loader = new BackgroundLoader();
+    private PageSource<T> source;
+    private boolean newRowsLast = true;
+    private ServiceExecutor.Call<? extends List<T>> allQuery;
+    private String allWhat;
+
+    /**
+     * @param idOf id of a row, used by {@link #put} and {@link #remove}
+     */
+    public PagedTableModel(TableView<T> table, int pageSize, int maxPages, ToIntFunction<T> idOf) {
+        if (pageSize <= 0 || maxPages < 2) {
+            throw new IllegalArgumentException("Need a positive page size and at least two pages");
+        }
+        this.table = table;
+        this.idOf = idOf;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        table.setItems(items);
+        loader.showProgressIn(table);
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> attachScrollListener());
+        attachScrollListener();
+    }
+
+    /**
+     * Page through {@code source}, in ascending id order, from the start.
+     */
+    public void setSource(PageSource<T> source) {
+        setSource(source, true);
+    }
+
+    /**
+     * Page through {@code source} from the start.
+     *
+     * @param newRowsLast whether the source lists rows in ascending id order,
+     *                    so that {@link #put} can append a new row
+     */
+    public void setSource(PageSource<T> source, boolean newRowsLast) {
+        this.source = source;
+        this.newRowsLast = newRowsLast;
+        this.allQuery = null;
+        refresh();
+    }
+
+    /**
+     * Show the rows of {@code query} without paging, e.g. search results.
+     *
+     * @param what completes "Failed to ..." in the error shown if the query fails
+     */
+    public void showAll(String what, ServiceExecutor.Call<? extends List<T>> query) {
+        this.source = null;
+        this.allQuery = query;
+        this.allWhat = what;
+        refresh();
+    }
+
+    /**
+     * Reload from the first page, or run the {@link #showAll} query again.
+     */
+    public void refresh() {
+        window.clear();
+        droppedStartKeys.clear();
+        if (allQuery != null) {
+            loader.loadInto(ROWS, allWhat, allQuery, items);
+            return;
+        }
+        items.clear();
+        if (source == null) {
+            loader.cancel(ROWS);
+            return;
+        }
+        loadNext();
+    }
+
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Show a row this view just wrote without reloading: it replaces the
+     * loaded row with the same id, or is appended if every page up to the
+     * last is loaded, which is where a source in ascending id order puts a
+     * new row. Otherwise it appears once its page is fetched. A new row of a
+     * source in another order could belong on any page, so that source is
+     * reloaded instead.
+     */
+    public void put(T row) {
+        int index = indexOf(idOf.applyAsInt(row));
+        if (index >= 0) {
+            items.set(index, row);
+            return;
+        }
+        if (!newRowsLast) {
+            refresh();
+            return;
+        }
+        LoadedPage last = window.peekLast();
+        if (last != null && last.nextKey == null) {
+            items.add(row);
+            last.size++;
+        }
+    }
+
+    /**
+     * Drop the row with {@code id}, if loaded, without reloading.
+     */
+    public void remove(int id) {
+        int index = indexOf(id);
+        if (index < 0) {
+            return;
+        }
+        items.remove(index);
+        int start = 0;
+        for (LoadedPage page : window) {
+            if (index < start + page.size) {
+                page.size--;
+                return;
+            }
+            start += page.size;
+        }
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < items.size(); i++) {
+            if (idOf.applyAsInt(items.get(i)) == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fetch and append the page after the last loaded one, unless all rows are loaded.
+     */
+    public void loadNext() {
+        LoadedPage last = window.peekLast();
+        if (source == null || (last != null && last.nextKey == null)) {
+            return;
+        }
+        PageKey startKey = last == null ? null : last.nextKey;
+        PageSource<T> from = source;
+        loader.load(ROWS, "load rows", () -> from.fetch(startKey, pageSize), page -> appendPage(startKey, page));
+    }
+
+    private void appendPage(PageKey startKey, Page<T> page) {
+        boolean first = window.isEmpty();
+        items.addAll(page.getItems());
+        window.addLast(new LoadedPage(startKey, page.getNextKey(), page.getItems().size()));
+
+        if (window.size() > maxPages) {
+            LoadedPage dropped = window.removeFirst();
+            droppedStartKeys.push(dropped.startKey == null ? FIRST_PAGE : dropped.startKey);
+            int top = firstVisibleIndex();
+            items.remove(0, dropped.size);
+            scrollToTop(top - dropped.size);
+        }
+        if (first) {
+            table.scrollTo(0);
+        }
+    }
+
+    /**
+     * Fetch and prepend the page before the first loaded one, if it was dropped.
+     */
+    public void loadPrevious() {
+        if (source == null || droppedStartKeys.isEmpty()) {
+            return;
+        }
+        PageKey dropped = droppedStartKeys.peek();
+        PageKey startKey = dropped == FIRST_PAGE ? null : dropped;
+        PageSource<T> from = source;
+        loader.load(ROWS, "load rows", () -> from.fetch(startKey, pageSize), page -> {
+            droppedStartKeys.pop();
+            prependPage(startKey, page);
+        });
+    }
+
+    private void prependPage(PageKey startKey, Page<T> page) {
+        int top = firstVisibleIndex();
+        items.addAll(0, page.getItems());
+        window.addFirst(new LoadedPage(startKey, page.getNextKey(), page.getItems().size()));
+
+        if (window.size() > maxPages) {
+            LoadedPage last = window.removeLast();
+            items.remove(items.size() - last.size, items.size());
+        }
+        scrollToTop(top + page.getItems().size());
+    }
+
+    private void attachScrollListener() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar bar = (ScrollBar) node;
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> onScroll());
+            }
+        }
+    }
+
+    private void onScroll() {
+        if (loader.isLoading(ROWS) || source == null) {
+            return;
+        }
+        VirtualFlow<?> flow = flow();
+        if (flow == null || flow.getFirstVisibleCell() == null) {
+            return;
+        }
+        int threshold = pageSize / 4;
+        if (flow.getLastVisibleCell().getIndex() >= items.size() - 1 - threshold) {
+            loadNext();
+        } else if (flow.getFirstVisibleCell().getIndex() <= threshold) {
+            loadPrevious();
+        }
+    }
+
+    private int firstVisibleIndex() {
+        VirtualFlow<?> flow = flow();
+        IndexedCell<?> cell = flow == null ? null : flow.getFirstVisibleCell();
+        return cell == null ? 0 : cell.getIndex();
+    }
+
+    private void scrollToTop(int index) {
+        VirtualFlow<?> flow = flow();
+        if (flow != null && !items.isEmpty()) {
+            flow.scrollToTop(Math.max(0, Math.min(index, items.size() - 1)));
+        }
+    }
+
+    private VirtualFlow<?> flow() {
+        Node node = table.lookup(".virtual-flow");
+        return node instanceof VirtualFlow ? (VirtualFlow<?>) node : null;
+    }
+}
@@ -0,0 +1,174 @@
+package com.cinema.util;
+
+import com.cinema.model.Reference;
+import com.cinema.model.Screen;
+import com.cinema.model.Theater;
+import com.cinema.model.User;
+import com.cinema.service.ScreenService;
+import com.cinema.service.TheaterService;
+import com.cinema.service.UserService;
+import com.cinema.service.impl.ScreenServiceImpl;
+import com.cinema.service.impl.TheaterServiceImpl;
+import com.cinema.service.impl.UserServiceImpl;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The users, screens and theaters offered by the views' combo boxes, shared
+ * by all views.
+ * <p>
+ * Each list holds {@link Reference}s rather than whole entities and is
+ * loaded in the background the first time a view asks for it; after that,
+ * switching views reads nothing. Views report their own writes through the
+ * {@code put}/{@code remove} methods, which change the lists in place, and
+ * loaded lists are re-queried when the {@link ExternalChangeMonitor} sees
+ * another process write. New entries go at the end until the next reload
+ * puts them in order. Changing a theater reloads the screens, whose labels
+ * carry the theater's name.
+ * <p>
+ * All methods must be called on the FX application thread.
+ */
+public final class ReferenceDataStore {
+    private static ReferenceDataStore instance;
+
+    private final BackgroundLoader loader = new BackgroundLoader();
+    private final Map<String, Source> sources = new HashMap<>();
+    private final Source users;
+    private final Source screens;
+    private final Source theaters;
+
+    private ReferenceDataStore() {
+        UserService userService = new UserServiceImpl();
+        ScreenService screenService = new ScreenServiceImpl();
+        TheaterService theaterService = new TheaterServiceImpl();
+        users = source("users", "load users", userService::getUserReferences);
+        screens = source("screens", "load screens", screenService::getScreenReferences);
+        theaters = source("theaters", "load theaters", theaterService::getTheaterReferences);
+        ExternalChangeMonitor.addListener(() -> Platform.runLater(this::reloadLoaded));
+    }
+
+    public static ReferenceDataStore get() {
+        if (instance == null) {
+            instance = new ReferenceDataStore();
+        }
+        return instance;
+    }
+
+    public ObservableList<Reference> users() {
+        return loaded(users);
+    }
+
+    public ObservableList<Reference> screens() {
+        return loaded(screens);
+    }
+
+    public ObservableList<Reference> theaters() {
+        return loaded(theaters);
+    }
+
+    public void putUser(User user) {
+        put(users, Reference.of(user));
+    }
+
+    public void putScreen(Screen screen) {
+        put(screens, Reference.of(screen));
+    }
+
+    public void removeScreen(int id) {
+        remove(screens, id);
+    }
+
+    public void putTheater(Theater theater) {
+        put(theaters, Reference.of(theater));
+        reloadIfLoaded(screens);
+    }
+
+    public void removeTheater(int id) {
+        remove(theaters, id);
+        reloadIfLoaded(screens);
+    }
+
+    private Source source(String key, String what, ServiceExecutor.Call<List<Reference>> query) {
+        Source source = new Source(key, what, query);
+        sources.put(key, source);
+        return source;
+    }
+
+    private ObservableList<Reference> loaded(Source source) {
+        if (!source.loaded) {
+            reload(source);
+        }
+        return source.items;
+    }
+
+    private void put(Source source, Reference reference) {
+        if (reloadIfLoading(source)) {
+            return;
+        }
+        int index = source.items.indexOf(reference);
+        if (index >= 0) {
+            source.items.set(index, reference);
+        } else {
+            source.items.add(reference);
+        }
+    }
+
+    private void remove(Source source, int id) {
+        if (reloadIfLoading(source)) {
+            return;
+        }
+        source.items.removeIf(reference -> reference.getId() == id);
+    }
+
+    /**
+     * A load still running may have read the table before the write, so it
+     * is started over rather than patched.
+     */
+    private boolean reloadIfLoading(Source source) {
+        if (loader.isLoading(source.key)) {
+            reload(source);
+            return true;
+        }
+        return false;
+    }
+
+    private void reloadIfLoaded(Source source) {
+        if (source.loaded) {
+            reload(source);
+        }
+    }
+
+    private void reloadLoaded() {
+        for (Source source : sources.values()) {
+            reloadIfLoaded(source);
+        }
+    }
+
+    private void reload(Source source) {
+        source.loaded = true;
+        Task<Integer> task = loader.loadInto(source.key, source.what, source.query, source.items);
+        // Tried again the next time a view asks for the list
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, event -> source.loaded = false);
+    }
+
+    private static final class Source {
+        private final String key;
+        private final String what;
+        private final ServiceExecutor.Call<List<Reference>> query;
+        private final ObservableList<Reference> items = FXCollections.observableArrayList();
+        private boolean loaded;
+
+        private Source(String key, String what, ServiceExecutor.Call<List<Reference>> query) {
+            this.key = key;
+            this.what = what;
+            this.query = query;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.cinema.util;
+
+import java.util.Properties;
+
+/**
+ * Sizes, timeouts and intervals of the caches, batches and background work
+ * layered over the database: the per-connection statement cache, DAO batch
+ * writes, the entity caches, the executor behind the services'
+ * {@code ...Async} methods and the {@link ExternalChangeMonitor}.
+ * <p>
+ * Read from the same {@code database.properties} and {@code cinema.db.*}
+ * system properties as the {@link StorageProfile}.
+ */
+public class RuntimeSettings {
+    private static final String PREFIX = ConfigFile.PREFIX;
+
+    private int statementCacheSize = 64;
+    private int batchSize = 500;
+    private int entityCacheSize = 1000;
+    private int entityCacheTtlSeconds = 30;
+    private boolean asyncVirtualThreads = true;
+    private int asyncThreads = 8;
+    private int asyncTimeoutSeconds = 30;
+    private int externalChangePollMillis = 2000;
+
+    /**
+     * Resolve the settings from the config file and system properties.
+     */
+    public static RuntimeSettings load() {
+        return fromProperties(ConfigFile.load());
+    }
+
+    public static RuntimeSettings fromProperties(Properties props) {
+        RuntimeSettings settings = new RuntimeSettings();
+        String value;
+        if ((value = props.getProperty(PREFIX + "statementCacheSize")) != null) {
+            settings.statementCacheSize = Integer.parseInt(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "batchSize")) != null) {
+            settings.batchSize = Integer.parseInt(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "entityCacheSize")) != null) {
+            settings.entityCacheSize = Integer.parseInt(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "entityCacheTtlSeconds")) != null) {
+            settings.entityCacheTtlSeconds = Integer.parseInt(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "asyncVirtualThreads")) != null) {
+            settings.asyncVirtualThreads = Boolean.parseBoolean(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "asyncThreads")) != null) {
+            settings.asyncThreads = Integer.parseInt(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "asyncTimeoutSeconds")) != null) {
+            settings.asyncTimeoutSeconds = Integer.parseInt(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "externalChangePollMillis")) != null) {
+            settings.externalChangePollMillis = Integer.parseInt(value.trim());
+        }
+        return settings;
+    }
+
+    // Getters and Setters
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getEntityCacheSize() {
+        return entityCacheSize;
+    }
+
+    public void setEntityCacheSize(int entityCacheSize) {
+        this.entityCacheSize = entityCacheSize;
+    }
+
+    public int getEntityCacheTtlSeconds() {
+        return entityCacheTtlSeconds;
+    }
+
+    public void setEntityCacheTtlSeconds(int entityCacheTtlSeconds) {
+        this.entityCacheTtlSeconds = entityCacheTtlSeconds;
+    }
+
+    public boolean isAsyncVirtualThreads() {
+        return asyncVirtualThreads;
+    }
+
+    public void setAsyncVirtualThreads(boolean asyncVirtualThreads) {
+        this.asyncVirtualThreads = asyncVirtualThreads;
+    }
+
+    public int getAsyncThreads() {
+        return asyncThreads;
+    }
+
+    public void setAsyncThreads(int asyncThreads) {
+        this.asyncThreads = asyncThreads;
+    }
+
+    public int getAsyncTimeoutSeconds() {
+        return asyncTimeoutSeconds;
+    }
+
+    public void setAsyncTimeoutSeconds(int asyncTimeoutSeconds) {
+        this.asyncTimeoutSeconds = asyncTimeoutSeconds;
+    }
+
+    public int getExternalChangePollMillis() {
+        return externalChangePollMillis;
+    }
+
+    public void setExternalChangePollMillis(int externalChangePollMillis) {
+        this.externalChangePollMillis = externalChangePollMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "RuntimeSettings{" +
+                "statementCacheSize=" + statementCacheSize +
+                ", batchSize=" + batchSize +
+                ", entityCacheSize=" + entityCacheSize +
+                ", entityCacheTtlSeconds=" + entityCacheTtlSeconds +
+                ", asyncVirtualThreads=" + asyncVirtualThreads +
+                ", asyncThreads=" + asyncThreads +
+                ", asyncTimeoutSeconds=" + asyncTimeoutSeconds +
+                ", externalChangePollMillis=" + externalChangePollMillis +
+                '}';
+    }
+}
@@ -0,0 +1,171 @@
+package com.cinema.util;
+
+import com.cinema.exception.CinemaException;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs blocking service calls off the calling thread, for the services'
+ * {@code ...Async} methods.
+ * <p>
+ * Calls run on virtual threads when the JDK has them and
+ * {@code cinema.db.asyncVirtualThreads} is on, otherwise on a pool of
+ * {@code cinema.db.asyncThreads} daemon threads. Either way the connection
+ * pool bounds how many of them touch the database at once. Each call runs in
+ * its own {@link Transaction} and {@link UnitOfWork} scope; it never joins
+ * one open on the thread that issued it.
+ * <p>
+ * The returned future fails with the call's own {@link CinemaException}, and
+ * with a {@link TimeoutException} if it has not finished within
+ * {@code cinema.db.asyncTimeoutSeconds}. Cancelling the future, or it timing
+ * out, interrupts the call if it is running and skips it if it has not
+ * started; this also holds for a shorter {@code orTimeout} applied by the
+ * caller, but not for futures derived from it with {@code thenApply} etc.
+ */
+public final class ServiceExecutor {
+    private static final Logger LOGGER = Logger.getLogger(ServiceExecutor.class.getName());
+
+    private static ExecutorService executor;
+    private static long timeoutMillis;
+
+    /**
+     * A service call, e.g. {@code () -> userService.getUserById(id)}.
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws CinemaException;
+    }
+
+    /**
+     * A service call without a result.
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws CinemaException;
+    }
+
+    private ServiceExecutor() {
+    }
+
+    /**
+     * Run {@code call} asynchronously with the configured timeout.
+     */
+    public static <T> CompletableFuture<T> supply(Call<T> call) {
+        ExecutorService current = getExecutor();
+        return submit(current, call, getTimeoutMillis());
+    }
+
+    /**
+     * Run {@code call} asynchronously, failing with a {@link TimeoutException}
+     * after {@code timeout}; {@link Duration#ZERO} for no limit.
+     */
+    public static <T> CompletableFuture<T> supply(Call<T> call, Duration timeout) {
+        return submit(getExecutor(), call, timeout.toMillis());
+    }
+
+    /**
+     * Run {@code action} asynchronously with the configured timeout.
+     */
+    public static CompletableFuture<Void> run(Action action) {
+        return supply(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run {@code task}, e.g. a JavaFX {@code Task}, on the same threads as the async calls.
+     */
+    static void execute(Runnable task) {
+        getExecutor().execute(task);
+    }
+
+    private static <T> CompletableFuture<T> submit(ExecutorService executor, Call<T> call, long timeoutMillis) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(call.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down by a concurrent configure()
+            future.completeExceptionally(e);
+            return future;
+        }
+        future.whenComplete((result, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                task.cancel(true);
+            }
+        });
+        if (timeoutMillis > 0) {
+            future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    private static ExecutorService getExecutor() {
+        // Resolved outside our lock, as configure() calls shutdown() holding DatabaseManager's
+        RuntimeSettings settings = DatabaseManager.getRuntimeSettings();
+        synchronized (ServiceExecutor.class) {
+            if (executor == null) {
+                executor = newExecutor(settings);
+                timeoutMillis = settings.getAsyncTimeoutSeconds() * 1000L;
+            }
+            return executor;
+        }
+    }
+
+    private static synchronized long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    private static ExecutorService newExecutor(RuntimeSettings settings) {
+        if (settings.isAsyncVirtualThreads()) {
+            try {
+                // Looked up reflectively so the code still builds and runs on JDKs without virtual threads
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.log(Level.FINE, "Virtual threads unavailable, using a pool of {0} threads",
+                        settings.getAsyncThreads());
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(settings.getAsyncThreads(), settings.getAsyncThreads(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "service-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stop accepting calls; calls already submitted still run. The next call
+     * starts a new executor from the runtime settings then in effect.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
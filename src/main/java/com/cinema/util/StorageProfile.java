@@ -0,0 +1,218 @@
+package com.cinema.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * SQLite storage settings applied to every pooled connection.
+ * <p>
+ * Settings are resolved in this order, later sources overriding earlier ones:
+ * the preset named by {@code cinema.db.profile} ("throughput" by default),
+ * {@code database.properties} on the classpath, {@code database.properties}
+ * in the working directory, and finally {@code cinema.db.*} system properties.
+ * Settings of the layers above the connection live in {@link RuntimeSettings}.
+ */
+public class StorageProfile {
+    public static final String CONFIG_FILE = ConfigFile.NAME;
+    private static final String PREFIX = ConfigFile.PREFIX;
+
+    public enum JournalMode { DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF }
+
+    public enum Synchronous { OFF, NORMAL, FULL, EXTRA }
+
+    public enum TempStore { DEFAULT, FILE, MEMORY }
+
+    private String name;
+    private String url = "jdbc:sqlite:cinema.db";
+    private int poolSize = 8;
+    private JournalMode journalMode;
+    private Synchronous synchronous;
+    private int cacheSizeKib;
+    private long mmapSizeBytes;
+    private TempStore tempStore;
+    private int busyTimeoutMillis;
+
+    /**
+     * WAL with relaxed syncing, a large page cache and memory-mapped reads.
+     * Readers never block behind the writer; a power loss may roll back the
+     * last few commits but never corrupts the database.
+     */
+    public static StorageProfile throughput() {
+        StorageProfile profile = new StorageProfile();
+        profile.name = "throughput";
+        profile.journalMode = JournalMode.WAL;
+        profile.synchronous = Synchronous.NORMAL;
+        profile.cacheSizeKib = 64 * 1024;
+        profile.mmapSizeBytes = 256L * 1024 * 1024;
+        profile.tempStore = TempStore.MEMORY;
+        profile.busyTimeoutMillis = 5_000;
+        return profile;
+    }
+
+    /**
+     * WAL with a full fsync on every commit and no memory mapping, so every
+     * acknowledged booking survives a power loss.
+     */
+    public static StorageProfile durability() {
+        StorageProfile profile = new StorageProfile();
+        profile.name = "durability";
+        profile.journalMode = JournalMode.WAL;
+        profile.synchronous = Synchronous.FULL;
+        profile.cacheSizeKib = 8 * 1024;
+        profile.mmapSizeBytes = 0;
+        profile.tempStore = TempStore.DEFAULT;
+        profile.busyTimeoutMillis = 10_000;
+        return profile;
+    }
+
+    public static StorageProfile preset(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "throughput":
+                return throughput();
+            case "durability":
+                return durability();
+            default:
+                throw new IllegalArgumentException("Unknown storage profile: " + name);
+        }
+    }
+
+    /**
+     * Resolve the profile from the config file and system properties.
+     */
+    public static StorageProfile load() {
+        return fromProperties(ConfigFile.load());
+    }
+
+    public static StorageProfile fromProperties(Properties props) {
+        StorageProfile profile = preset(props.getProperty(PREFIX + "profile", "throughput"));
+        String value;
+        if ((value = props.getProperty(PREFIX + "url")) != null) {
+            profile.url = value.trim();
+        }
+        if ((value = props.getProperty(PREFIX + "poolSize")) != null) {
+            profile.poolSize = Integer.parseInt(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "journalMode")) != null) {
+            profile.journalMode = JournalMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+        if ((value = props.getProperty(PREFIX + "synchronous")) != null) {
+            profile.synchronous = Synchronous.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+        if ((value = props.getProperty(PREFIX + "cacheSizeKib")) != null) {
+            profile.cacheSizeKib = Integer.parseInt(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "mmapSizeBytes")) != null) {
+            profile.mmapSizeBytes = Long.parseLong(value.trim());
+        }
+        if ((value = props.getProperty(PREFIX + "tempStore")) != null) {
+            profile.tempStore = TempStore.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+        if ((value = props.getProperty(PREFIX + "busyTimeoutMillis")) != null) {
+            profile.busyTimeoutMillis = Integer.parseInt(value.trim());
+        }
+        return profile;
+    }
+
+    /**
+     * Apply the PRAGMAs of this profile to a freshly opened connection.
+     */
+    public void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // busy_timeout first so that switching journal mode waits instead of failing
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            stmt.execute("PRAGMA journal_mode = " + journalMode.name());
+            stmt.execute("PRAGMA synchronous = " + synchronous.name());
+            // Negative cache_size is interpreted by SQLite as KiB rather than pages
+            stmt.execute("PRAGMA cache_size = -" + cacheSizeKib);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            stmt.execute("PRAGMA temp_store = " + tempStore.name());
+        }
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public JournalMode getJournalMode() {
+        return journalMode;
+    }
+
+    public void setJournalMode(JournalMode journalMode) {
+        this.journalMode = journalMode;
+    }
+
+    public Synchronous getSynchronous() {
+        return synchronous;
+    }
+
+    public void setSynchronous(Synchronous synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    public int getCacheSizeKib() {
+        return cacheSizeKib;
+    }
+
+    public void setCacheSizeKib(int cacheSizeKib) {
+        this.cacheSizeKib = cacheSizeKib;
+    }
+
+    public long getMmapSizeBytes() {
+        return mmapSizeBytes;
+    }
+
+    public void setMmapSizeBytes(long mmapSizeBytes) {
+        this.mmapSizeBytes = mmapSizeBytes;
+    }
+
+    public TempStore getTempStore() {
+        return tempStore;
+    }
+
+    public void setTempStore(TempStore tempStore) {
+        this.tempStore = tempStore;
+    }
+
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+
+    public void setBusyTimeoutMillis(int busyTimeoutMillis) {
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "StorageProfile{" +
+                "name='" + name + '\'' +
+                ", url='" + url + '\'' +
+                ", poolSize=" + poolSize +
+                ", journalMode=" + journalMode +
+                ", synchronous=" + synchronous +
+                ", cacheSizeKib=" + cacheSizeKib +
+                ", mmapSizeBytes=" + mmapSizeBytes +
+                ", tempStore=" + tempStore +
+                ", busyTimeoutMillis=" + busyTimeoutMillis +
+                '}';
+    }
+}
@@ -0,0 +1,222 @@
+package com.cinema.util;
+
+import com.cinema.exception.DatabaseException;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A database transaction bound to the current thread.
+ * <p>
+ * While a transaction is open, {@link DatabaseManager#getConnection()} returns
+ * the transaction's connection on this thread, so DAO methods called inside
+ * the block take part in it without any changes. Closing a transaction that
+ * was not committed rolls it back. Nested {@link DatabaseManager#beginTransaction()}
+ * calls join the outer transaction; if a nested block closes without
+ * committing, the whole transaction is rolled back.
+ *
+ * <pre>
+ * try (Transaction tx = DatabaseManager.beginTransaction()) {
+ *     bookingDAO.create(booking);
+ *     seatInventoryDAO.claimSeats(...);
+ *     tx.commit();
+ * }
+ * </pre>
+ */
+public class Transaction implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(Transaction.class.getName());
+    private static final ThreadLocal<Transaction> CURRENT = new ThreadLocal<>();
+
+    private final Transaction root;
+    private final Connection connection;
+    private final Connection sharedHandle;
+    private final List<Runnable> completionActions = new ArrayList<>();
+    private boolean rollbackOnly;
+    private boolean completed;
+    private boolean closed;
+
+    private Transaction(Connection connection) {
+        this.root = this;
+        this.connection = connection;
+        this.sharedHandle = nonClosingHandle(connection);
+    }
+
+    private Transaction(Transaction root) {
+        this.root = root;
+        this.connection = root.connection;
+        this.sharedHandle = root.sharedHandle;
+    }
+
+    /**
+     * Start a new outermost transaction on the given pooled connection.
+     * Write locks are taken when the transaction begins (BEGIN IMMEDIATE),
+     * so concurrent writers queue on busy_timeout instead of failing later
+     * when a read lock has to be upgraded.
+     */
+    static Transaction start(Connection connection) throws SQLException {
+        try {
+            setTransactionMode(connection, SQLiteConfig.TransactionMode.IMMEDIATE);
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        Transaction tx = new Transaction(connection);
+        CURRENT.set(tx);
+        ExternalChangeMonitor.writeStarted();
+        return tx;
+    }
+
+    Transaction nested() {
+        return new Transaction(root);
+    }
+
+    /**
+     * The transaction open on the calling thread, or {@code null}.
+     */
+    public static Transaction current() {
+        return CURRENT.get();
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Run {@code action} after the transaction open on this thread has
+     * committed or rolled back, or right away if there is none.
+     */
+    public static void afterCompletion(Runnable action) {
+        Transaction tx = CURRENT.get();
+        if (tx == null) {
+            action.run();
+        } else {
+            tx.root.completionActions.add(action);
+        }
+    }
+
+    /**
+     * Connection handle for DAOs running inside this transaction. Closing it is a no-op.
+     */
+    Connection getConnection() {
+        return sharedHandle;
+    }
+
+    public void commit() throws DatabaseException {
+        if (closed || completed) {
+            throw new DatabaseException("Transaction is already completed");
+        }
+        completed = true;
+        if (root != this) {
+            return;
+        }
+        if (rollbackOnly) {
+            throw new DatabaseException("Transaction was rolled back because a nested transaction did not complete");
+        }
+        try {
+            // Switching back to auto-commit issues a plain COMMIT; Connection.commit()
+            // would immediately open another IMMEDIATE transaction and take the write lock again.
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new DatabaseException("Error committing transaction", e);
+        }
+    }
+
+    /**
+     * Mark the transaction so that it is rolled back when the outermost block closes.
+     */
+    public void setRollbackOnly() {
+        root.rollbackOnly = true;
+    }
+
+    @Override
+    public void close() throws DatabaseException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (root != this) {
+            if (!completed) {
+                root.rollbackOnly = true;
+            }
+            return;
+        }
+
+        CURRENT.remove();
+        try {
+            if (!completed || rollbackOnly) {
+                setTransactionMode(connection, SQLiteConfig.TransactionMode.DEFERRED);
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            }
+            setTransactionMode(connection, SQLiteConfig.TransactionMode.DEFERRED);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error rolling back transaction", e);
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Error returning transaction connection to the pool", e);
+            }
+            ExternalChangeMonitor.writeFinished();
+            runCompletionActions();
+        }
+    }
+
+    private void runCompletionActions() {
+        for (Runnable action : completionActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error running transaction completion action", e);
+            }
+        }
+        completionActions.clear();
+    }
+
+    private void rollbackQuietly() {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ROLLBACK");
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Rollback after failed commit did not succeed", e);
+        }
+    }
+
+    private static void setTransactionMode(Connection connection, SQLiteConfig.TransactionMode mode) throws SQLException {
+        if (connection.isWrapperFor(SQLiteConnection.class)) {
+            connection.unwrap(SQLiteConnection.class).getConnectionConfig().setTransactionMode(mode);
+        }
+    }
+
+    static Connection nonClosingHandle(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Transaction.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(target, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+}
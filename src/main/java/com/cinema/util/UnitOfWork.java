@@ -0,0 +1,237 @@
+package com.cinema.util;
+
+import com.cinema.exception.DatabaseException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The scope of one service call, bound to the current thread.
+ * <p>
+ * While a unit of work is open, {@link DatabaseManager#getConnection()} and
+ * {@link DatabaseManager#beginTransaction()} keep using one pooled
+ * connection, borrowed on first use, instead of borrowing for every DAO
+ * call. The DAOs' {@code findById} methods keep what they load in an
+ * identity map, so an entity read several times during the call is
+ * materialised once and the same object is returned; DAO writes drop the
+ * entities they change so the next read sees them again.
+ * <p>
+ * Entities changed in memory are registered with {@link #registerDirty} and
+ * written by {@link #commit()}, one batch per type and all in one
+ * transaction. Closing without committing discards them. Nested
+ * {@link #begin()} calls join the outer unit of work, whose commit writes
+ * everything registered inside.
+ *
+ * <pre>
+ * try (UnitOfWork work = UnitOfWork.begin()) {
+ *     Booking booking = bookingDAO.findById(id);
+ *     booking.setTotalPrice(price);
+ *     work.registerDirty(Booking.class, booking, bookingDAO::updateAll);
+ *     work.commit();
+ * }
+ * </pre>
+ */
+public final class UnitOfWork implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(UnitOfWork.class.getName());
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Writes the dirty entities of one type, e.g. a DAO's {@code updateAll}.
+     */
+    @FunctionalInterface
+    public interface Flusher<T> {
+        void flush(List<T> entities) throws DatabaseException;
+    }
+
+    private final UnitOfWork root;
+    private final Map<Class<?>, Map<Integer, Object>> identityMap;
+    private final Map<Class<?>, DirtyEntities<?>> dirty;
+    private Connection connection;
+    private Connection sharedHandle;
+    private boolean closed;
+
+    private UnitOfWork() {
+        this.root = this;
+        this.identityMap = new HashMap<>();
+        this.dirty = new LinkedHashMap<>();
+    }
+
+    private UnitOfWork(UnitOfWork root) {
+        this.root = root;
+        this.identityMap = root.identityMap;
+        this.dirty = root.dirty;
+    }
+
+    /**
+     * Open a unit of work on the calling thread, or join the one already open.
+     */
+    public static UnitOfWork begin() {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            return new UnitOfWork(current);
+        }
+        UnitOfWork work = new UnitOfWork();
+        CURRENT.set(work);
+        return work;
+    }
+
+    /**
+     * The unit of work open on the calling thread, or {@code null}.
+     */
+    public static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * The entity already loaded in the current unit of work, or {@code null}
+     * if there is none or no unit of work is open.
+     */
+    public static <T> T known(Class<T> type, int id) {
+        UnitOfWork work = CURRENT.get();
+        if (work == null) {
+            return null;
+        }
+        Map<Integer, Object> entities = work.identityMap.get(type);
+        return entities == null ? null : type.cast(entities.get(id));
+    }
+
+    /**
+     * Add a freshly loaded entity to the current unit of work's identity map.
+     *
+     * @return {@code entity}
+     */
+    public static <T> T remember(Class<T> type, int id, T entity) {
+        UnitOfWork work = CURRENT.get();
+        if (work != null) {
+            work.identityMap.computeIfAbsent(type, t -> new HashMap<>()).put(id, entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Drop an entity that was changed in the database from the identity map.
+     */
+    public static void forget(Class<?> type, int id) {
+        UnitOfWork work = CURRENT.get();
+        if (work != null) {
+            Map<Integer, Object> entities = work.identityMap.get(type);
+            if (entities != null) {
+                entities.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Drop every entity of a type, for changes that do not say which ones they affect.
+     */
+    public static void forgetAll(Class<?> type) {
+        UnitOfWork work = CURRENT.get();
+        if (work != null) {
+            work.identityMap.remove(type);
+        }
+    }
+
+    /**
+     * Write {@code entity} with {@code flusher} when the unit of work commits.
+     * Registering the same object again has no further effect.
+     */
+    public <T> void registerDirty(Class<T> type, T entity, Flusher<T> flusher) {
+        @SuppressWarnings("unchecked")
+        DirtyEntities<T> entities = (DirtyEntities<T>) dirty.computeIfAbsent(type, t -> new DirtyEntities<>(flusher));
+        for (T registered : entities.entities) {
+            if (registered == entity) {
+                return;
+            }
+        }
+        entities.entities.add(entity);
+    }
+
+    /**
+     * Write the dirty entities. Inside a nested unit of work this does
+     * nothing; the outermost one writes them.
+     */
+    public void commit() throws DatabaseException {
+        if (closed) {
+            throw new DatabaseException("Unit of work is already closed");
+        }
+        if (root != this || dirty.isEmpty()) {
+            return;
+        }
+        // A single type is written by one batch call, which is a transaction of its own
+        if (dirty.size() == 1) {
+            flushAll();
+            return;
+        }
+        try (Transaction tx = DatabaseManager.beginTransaction()) {
+            flushAll();
+            tx.commit();
+        }
+    }
+
+    private void flushAll() throws DatabaseException {
+        List<DirtyEntities<?>> pending = new ArrayList<>(dirty.values());
+        dirty.clear();
+        for (DirtyEntities<?> entities : pending) {
+            entities.flush();
+        }
+    }
+
+    /**
+     * Pooled connection of this unit of work, borrowed from {@code pool} on
+     * first use. Closing the returned handle is a no-op.
+     */
+    Connection getConnection(ConnectionPool pool) throws SQLException {
+        UnitOfWork work = root;
+        if (work.connection == null) {
+            work.connection = pool.getConnection();
+            work.sharedHandle = Transaction.nonClosingHandle(work.connection);
+        }
+        return work.sharedHandle;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (root != this) {
+            return;
+        }
+
+        CURRENT.remove();
+        if (!dirty.isEmpty()) {
+            LOGGER.log(Level.FINE, "Discarding uncommitted changes to {0}", dirty.keySet());
+            dirty.clear();
+        }
+        identityMap.clear();
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Error returning unit of work connection to the pool", e);
+            }
+            connection = null;
+        }
+    }
+
+    private static final class DirtyEntities<T> {
+        private final Flusher<T> flusher;
+        private final List<T> entities = new ArrayList<>();
+
+        private DirtyEntities(Flusher<T> flusher) {
+            this.flusher = flusher;
+        }
+
+        private void flush() throws DatabaseException {
+            flusher.flush(entities);
+        }
+    }
+}
@@ -26,7 +26,11 @@ public class ValidationUtil {
         return movieName != null && !movieName.trim().isEmpty() && movieName.length() <= 100;
     }
 
+    /**
+     * A row letter and a seat number from 1 to 99, the labels a
+     * {@link com.cinema.model.SeatMap} can hold.
+     */
     public static boolean isValidSeatNumber(String seatNumber) {
-        return seatNumber != null && seatNumber.matches("^[A-Z]\\d{1,2}$");
+        return seatNumber != null && seatNumber.matches("^[A-Z](?!0+$)\\d{1,2}$");
     }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.cinema.dao;
+
+import com.cinema.model.Booking;
+import com.cinema.model.Screen;
+import com.cinema.model.Theater;
+import com.cinema.model.User;
+import com.cinema.service.impl.BookingSystemServiceImpl;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.StorageProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Searches through {@link BookingDAO} on a temporary database.
+ */
+class BookingDAOTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BookingDAO bookingDAO;
+    private Booking aliceAtDune;
+    private Booking bobAtDune;
+    private Booking aliceAtAlien;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StorageProfile profile = StorageProfile.load();
+        profile.setUrl("jdbc:sqlite:" + tempDir.resolve("bookings.db"));
+        DatabaseManager.configure(profile);
+        DatabaseManager.initializeDatabase();
+
+        Theater theater = new Theater();
+        theater.setName("Test Theater");
+        theater.setAddress("123 Test St");
+        new TheaterDAO().create(theater);
+
+        ScreenDAO screenDAO = new ScreenDAO();
+        Screen dune = screenDAO.create(new Screen("Dune Part Two", LocalDateTime.now().plusDays(2), theater));
+        Screen alien = screenDAO.create(new Screen("Alien", LocalDateTime.now().plusDays(1), theater));
+
+        UserDAO userDAO = new UserDAO();
+        User alice = userDAO.create(new User("Alice Smith", "alice@example.com", "5550100"));
+        User bob = userDAO.create(new User("Bob Jones", "bob@example.com", "5550101"));
+
+        BookingSystemServiceImpl bookingSystemService = new BookingSystemServiceImpl();
+        aliceAtDune = bookingSystemService.bookSeats(alice.getId(), dune.getId(), Collections.singletonList("A1"));
+        bobAtDune = bookingSystemService.bookSeats(bob.getId(), dune.getId(), Arrays.asList("A2", "A3"));
+        aliceAtAlien = bookingSystemService.bookSeats(alice.getId(), alien.getId(), Collections.singletonList("B1"));
+
+        bookingDAO = new BookingDAO();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.configure(StorageProfile.load());
+    }
+
+    @Test
+    void testStartupSyncKeepsADoubleListedSeatWithTheFirstBooking() throws Exception {
+        Booking first = bookingDAO.create(unsynced(aliceAtDune, "C1,C2"));
+        Booking second = bookingDAO.create(unsynced(bobAtDune, "C2,C3"));
+
+        DatabaseManager.initializeDatabase();
+
+        SeatInventoryDAO seatInventoryDAO = new SeatInventoryDAO();
+        int screenId = aliceAtDune.getScreen().getId();
+        assertEquals(Map.of(screenId, List.of("C1", "C2")), seatInventoryDAO.findSeatsForBooking(first.getId()));
+        assertEquals(Map.of(screenId, List.of("C3")), seatInventoryDAO.findSeatsForBooking(second.getId()));
+    }
+
+    @Test
+    void testPagesFollowTheChosenSort() throws Exception {
+        assertEquals(List.of(bobAtDune.getId(), aliceAtDune.getId(), aliceAtAlien.getId()),
+                allPages("showTime", false));
+        assertEquals(List.of(aliceAtDune.getId(), aliceAtAlien.getId(), bobAtDune.getId()),
+                allPages("totalPrice", true));
+    }
+
+    @Test
+    void testSearchByIdIsExact() throws Exception {
+        assertEquals(List.of(bobAtDune.getId()),
+                ids(bookingDAO.searchBookings(String.valueOf(bobAtDune.getId()), "id", null, true)));
+        assertTrue(bookingDAO.searchBookings("alice", "id", null, true).isEmpty());
+    }
+
+    @Test
+    void testSearchByUserAndMovieUseOnlyThatField() throws Exception {
+        assertEquals(List.of(aliceAtDune.getId(), aliceAtAlien.getId()),
+                ids(bookingDAO.searchBookings("ali", "user", "id", true)));
+        assertEquals(List.of(bobAtDune.getId(), aliceAtDune.getId()),
+                ids(bookingDAO.searchBookings("dune", "movie", "totalPrice", false)));
+        assertTrue(bookingDAO.searchBookings("dune", "user", null, true).isEmpty());
+    }
+
+    @Test
+    void testSearchWithoutFieldCombinesAllFields() throws Exception {
+        // "ali" is a prefix of both Alice and Alien
+        assertEquals(List.of(aliceAtAlien.getId(), aliceAtDune.getId()),
+                ids(bookingDAO.searchBookings("ali", null, "showTime", true)));
+        assertEquals(3, bookingDAO.searchBookings("", "movie", "no such column", true).size());
+    }
+
+    /**
+     * A booking like {@code like} for other seats, written without claiming them.
+     */
+    private List<Integer> allPages(String sortBy, boolean ascending) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        Page<Booking> page = bookingDAO.findPage(null, 1, sortBy, ascending);
+        page.getItems().forEach(booking -> ids.add(booking.getId()));
+        while (page.hasNext()) {
+            page = bookingDAO.findPage(page.getNextKey(), 1, sortBy, ascending);
+            page.getItems().forEach(booking -> ids.add(booking.getId()));
+        }
+        return ids;
+    }
+
+    private static Booking unsynced(Booking like, String seats) {
+        Booking booking = new Booking();
+        booking.setUser(like.getUser());
+        booking.setScreen(like.getScreen());
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setReservedSeats(Arrays.asList(seats.split(",")));
+        booking.setTotalPrice(20.0);
+        return booking;
+    }
+
+    private static List<Integer> ids(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toList());
+    }
+}
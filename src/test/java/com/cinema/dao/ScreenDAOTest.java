@@ -0,0 +1,176 @@
+package com.cinema.dao;
+
+import com.cinema.model.Reference;
+import com.cinema.model.Screen;
+import com.cinema.model.Theater;
+import com.cinema.model.User;
+import com.cinema.service.impl.BookingSystemServiceImpl;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.EntityCache;
+import com.cinema.util.RuntimeSettings;
+import com.cinema.util.StorageProfile;
+import com.cinema.util.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@link ScreenDAO#findById} cache and show time windows on a temporary database.
+ */
+class ScreenDAOTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ScreenDAO screenDAO;
+    private Theater theater;
+    private Screen dune;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StorageProfile profile = StorageProfile.load();
+        profile.setUrl("jdbc:sqlite:" + tempDir.resolve("screens.db"));
+        RuntimeSettings settings = RuntimeSettings.load();
+        settings.setEntityCacheSize(2);
+        DatabaseManager.configure(profile, settings);
+        DatabaseManager.initializeDatabase();
+
+        theater = new TheaterDAO().create(new Theater("Test Theater", "123 Test St"));
+        screenDAO = new ScreenDAO();
+        dune = screenDAO.create(new Screen("Dune Part Two", LocalDateTime.now().plusDays(2), theater));
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.configure(StorageProfile.load());
+    }
+
+    @Test
+    void testRepeatedReadsAreServedFromCopies() throws Exception {
+        Screen first = screenDAO.findById(dune.getId());
+        first.getSeatMap().remove("A1");
+        first.getTheater().setName("Changed");
+
+        Screen second = screenDAO.findById(dune.getId());
+        assertNotSame(first, second);
+        assertTrue(second.getSeatMap().contains("A1"));
+        assertEquals("Test Theater", second.getTheater().getName());
+
+        EntityCache.Stats stats = ScreenDAO.getCacheStats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(0.5, stats.getHitRatio());
+    }
+
+    @Test
+    void testWritesAndSeatChangesInvalidate() throws Exception {
+        screenDAO.findById(dune.getId());
+        dune.setMovieName("Dune: Part Two");
+        screenDAO.update(dune);
+        assertEquals("Dune: Part Two", screenDAO.findById(dune.getId()).getMovieName());
+
+        theater.setName("Renamed Theater");
+        new TheaterDAO().update(theater);
+        assertEquals("Renamed Theater", screenDAO.findById(dune.getId()).getTheater().getName());
+
+        User user = new UserDAO().create(new User("Alice Smith", "alice@example.com", "5550100"));
+        int bookingId = new BookingSystemServiceImpl()
+                .bookSeats(user.getId(), dune.getId(), Collections.singletonList("A1")).getId();
+        assertFalse(screenDAO.findById(dune.getId()).getSeatMap().contains("A1"));
+
+        new BookingDAO().delete(bookingId);
+        assertTrue(screenDAO.findById(dune.getId()).getSeatMap().contains("A1"));
+    }
+
+    @Test
+    void testRolledBackChangesAreNotCached() throws Exception {
+        try (Transaction tx = DatabaseManager.beginTransaction()) {
+            dune.setMovieName("Never Committed");
+            screenDAO.update(dune);
+            assertEquals("Never Committed", screenDAO.findById(dune.getId()).getMovieName());
+        }
+        assertEquals(0, ScreenDAO.getCacheStats().getSize());
+        assertEquals("Dune Part Two", screenDAO.findById(dune.getId()).getMovieName());
+    }
+
+    @Test
+    void testLeastRecentlyUsedScreenIsEvicted() throws Exception {
+        Screen alien = screenDAO.create(new Screen("Alien", LocalDateTime.now().plusDays(1), theater));
+        Screen heat = screenDAO.create(new Screen("Heat", LocalDateTime.now().plusDays(3), theater));
+
+        screenDAO.findById(dune.getId());
+        screenDAO.findById(alien.getId());
+        screenDAO.findById(dune.getId());
+        screenDAO.findById(heat.getId());
+        screenDAO.findById(dune.getId());
+        screenDAO.findById(alien.getId());
+
+        // alien was the least recently used when heat was loaded
+        EntityCache.Stats stats = ScreenDAO.getCacheStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(4, stats.getMisses());
+        assertEquals(2, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    void testShowtimeWindowsByTheaterMovieAndDay() throws Exception {
+        LocalDate today = LocalDate.now();
+        Theater other = new TheaterDAO().create(new Theater("Other Theater", "9 Side St"));
+        Screen early = screenDAO.create(new Screen("Alien", today.atTime(14, 0), theater));
+        Screen evening = screenDAO.create(new Screen("Alien", today.atTime(18, 0), theater));
+        Screen late = screenDAO.create(new Screen("Heat", today.atTime(22, 30), theater));
+        Screen elsewhere = screenDAO.create(new Screen("Heat", today.atTime(19, 0), other));
+        Screen tomorrow = screenDAO.create(new Screen("Alien", today.plusDays(1).atTime(18, 0), theater));
+
+        assertEquals(List.of(evening.getId(), late.getId()),
+                ids(screenDAO.findByTheaterBetween(theater.getId(), today.atTime(18, 0), today.atTime(23, 0))));
+        assertEquals(List.of(evening.getId(), elsewhere.getId(), late.getId()),
+                ids(screenDAO.findBetween(today.atTime(18, 0), today.atTime(23, 0))));
+        assertEquals(List.of(early.getId(), evening.getId(), tomorrow.getId()),
+                ids(screenDAO.findByMovieBetween("alien", today.atStartOfDay(), today.plusDays(2).atStartOfDay())));
+        assertEquals(List.of(tomorrow.getId()),
+                ids(screenDAO.findByTheaterBetween(theater.getId(), today.plusDays(1).atStartOfDay(), today.plusDays(2).atStartOfDay())));
+        assertEquals(List.of(early.getId(), evening.getId(), late.getId(), tomorrow.getId(), dune.getId()),
+                ids(screenDAO.findByTheater(theater.getId())));
+    }
+
+    @Test
+    void testTodaysScheduleFollowsWrites() throws Exception {
+        LocalDate today = LocalDate.now();
+        Screen evening = screenDAO.create(new Screen("Alien", today.atTime(18, 0), theater));
+        assertEquals(List.of(evening.getId()), ids(screenDAO.findBetween(today.atTime(17, 0), today.atTime(20, 0))));
+
+        Screen added = screenDAO.create(new Screen("Heat", today.atTime(19, 0), theater));
+        evening.setShowTime(today.atTime(21, 0));
+        screenDAO.update(evening);
+        assertEquals(List.of(added.getId()), ids(screenDAO.findBetween(today.atTime(17, 0), today.atTime(20, 0))));
+
+        screenDAO.delete(added.getId());
+        assertTrue(screenDAO.findBetween(today.atTime(17, 0), today.atTime(20, 0)).isEmpty());
+    }
+
+    @Test
+    void testReferencesMatchTheFullScreens() throws Exception {
+        Screen earlier = screenDAO.create(new Screen("Alien", LocalDateTime.now().plusDays(1), theater));
+
+        List<Reference> references = screenDAO.findReferences();
+        assertEquals(List.of(earlier.getId(), dune.getId()),
+                references.stream().map(Reference::getId).collect(Collectors.toList()));
+        assertEquals(Reference.of(screenDAO.findById(dune.getId())).getLabel(), references.get(1).getLabel());
+    }
+
+    private static List<Integer> ids(List<Screen> screens) {
+        return screens.stream().map(Screen::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,213 @@
+package com.cinema.dao;
+
+import com.cinema.exception.DatabaseException;
+import com.cinema.model.User;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.RuntimeSettings;
+import com.cinema.util.StorageProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Paging, streaming, full-text search and batch writes through
+ * {@link UserDAO} on a temporary database.
+ */
+class UserDAOTest {
+
+    private static final int USERS = 25;
+
+    @TempDir
+    Path tempDir;
+
+    private UserDAO userDAO;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StorageProfile profile = StorageProfile.load();
+        profile.setUrl("jdbc:sqlite:" + tempDir.resolve("users.db"));
+        RuntimeSettings settings = RuntimeSettings.load();
+        // Small batches so that batch writes span several of them
+        settings.setBatchSize(4);
+        DatabaseManager.configure(profile, settings);
+        DatabaseManager.initializeDatabase();
+
+        userDAO = new UserDAO();
+        for (int i = 0; i < USERS; i++) {
+            // Only three distinct names, so pages must break ties on id
+            userDAO.create(new User("User " + (i % 3), "user" + i + "@example.com", "1234567890"));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.configure(StorageProfile.load());
+    }
+
+    @Test
+    void testPagesCoverEveryRowOnceInOrder() throws Exception {
+        List<User> expected = new ArrayList<>(userDAO.findAll());
+        expected.sort((a, b) -> a.getName().equals(b.getName())
+                ? Integer.compare(b.getId(), a.getId())
+                : b.getName().compareTo(a.getName()));
+
+        List<Integer> paged = new ArrayList<>();
+        PageKey afterKey = null;
+        int pages = 0;
+        do {
+            Page<User> page = userDAO.findPage(afterKey, 4, "name", false);
+            assertTrue(page.getItems().size() <= 4);
+            page.getItems().forEach(user -> paged.add(user.getId()));
+            afterKey = page.getNextKey();
+            pages++;
+        } while (afterKey != null);
+
+        List<Integer> expectedIds = new ArrayList<>();
+        expected.forEach(user -> expectedIds.add(user.getId()));
+        assertEquals(expectedIds, paged);
+        assertEquals((USERS + 3) / 4, pages);
+    }
+
+    @Test
+    void testLastFullPageHasNoNextKey() throws Exception {
+        Page<User> page = userDAO.findPage(null, USERS, "id", true);
+
+        assertEquals(USERS, page.getItems().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void testUnknownSortKeyFallsBackToId() throws Exception {
+        Page<User> page = userDAO.findPage(null, 3, "phone; DROP TABLE users", true);
+
+        assertEquals(3, page.getItems().size());
+        assertTrue(page.getItems().get(0).getId() < page.getItems().get(1).getId());
+        assertEquals(USERS, userDAO.findAll().size());
+    }
+
+    @Test
+    void testStreamMapsEveryRowInIdOrder() throws Exception {
+        List<Integer> streamed;
+        try (Stream<User> users = userDAO.streamAll(5)) {
+            streamed = users.map(User::getId).collect(Collectors.toList());
+        }
+
+        assertEquals(USERS, streamed.size());
+        for (int i = 1; i < streamed.size(); i++) {
+            assertTrue(streamed.get(i - 1) < streamed.get(i));
+        }
+    }
+
+    @Test
+    void testClosedStreamReleasesItsConnection() throws Exception {
+        // Far more abandoned streams than the pool has connections
+        for (int i = 0; i < 50; i++) {
+            try (Stream<User> users = userDAO.streamAll(0)) {
+                assertTrue(users.findFirst().isPresent());
+            }
+        }
+        assertEquals(USERS, userDAO.findAll().size());
+    }
+
+    @Test
+    void testForEachRowStopsWhenCallbackFails() throws Exception {
+        List<User> seen = new ArrayList<>();
+        DatabaseException failure = assertThrows(DatabaseException.class, () -> userDAO.forEachRow(0, user -> {
+            seen.add(user);
+            if (seen.size() == 3) {
+                throw new DatabaseException("Stop");
+            }
+        }));
+
+        assertEquals("Stop", failure.getMessage());
+        assertEquals(3, seen.size());
+        assertEquals(USERS, userDAO.findAll().size());
+    }
+
+    @Test
+    void testSearchMatchesWordPrefixes() throws Exception {
+        User grace = userDAO.create(new User("Grace Hopper", "grace@navy.mil", "5550100"));
+        userDAO.create(new User("Hopper Grace", "hg@example.com", "5550101"));
+
+        List<User> found = userDAO.searchUsers("gra hop", null, null, true);
+
+        assertEquals(2, found.size());
+        assertEquals(1, userDAO.searchUsers("navy", null, null, true).size());
+        assertEquals(grace.getId(), userDAO.searchUsers("grace@navy", null, null, true).get(0).getId());
+        assertTrue(userDAO.searchUsers("race", null, null, true).isEmpty());
+    }
+
+    @Test
+    void testSearchIndexFollowsUpdatesAndDeletes() throws Exception {
+        User user = userDAO.create(new User("Ada Lovelace", "ada@example.com", "5550102"));
+        user.setName("Augusta King");
+        userDAO.update(user);
+
+        assertTrue(userDAO.searchUsers("lovelace", null, null, true).isEmpty());
+        assertEquals(1, userDAO.searchUsers("augusta", null, null, true).size());
+
+        userDAO.delete(user.getId());
+        assertTrue(userDAO.searchUsers("augusta", null, null, true).isEmpty());
+    }
+
+    @Test
+    void testSearchTreatsQuerySyntaxAsText() throws Exception {
+        assertTrue(userDAO.searchUsers("\"NEAR( OR * -", null, "name", true).isEmpty());
+        assertEquals(USERS, userDAO.searchUsers("  ", null, "name; DROP TABLE users", true).size());
+        assertEquals(USERS, userDAO.searchUsers("user", null, "phone", false).size());
+    }
+
+    @Test
+    void testCreateAllAssignsGeneratedIdsAcrossBatches() throws Exception {
+        List<User> created = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            created.add(new User("Batch " + i, "batch" + i + "@example.com", "5550" + i));
+        }
+
+        userDAO.createAll(created);
+
+        for (User user : created) {
+            assertEquals(user.getEmail(), userDAO.findById(user.getId()).getEmail());
+        }
+        assertEquals(USERS + 10, userDAO.findAll().size());
+    }
+
+    @Test
+    void testUpdateAllAndDeleteAll() throws Exception {
+        List<User> users = userDAO.findAll().subList(0, 6);
+        users.forEach(user -> user.setName("Renamed " + user.getId()));
+
+        userDAO.updateAll(users);
+        assertEquals("Renamed " + users.get(5).getId(), userDAO.findById(users.get(5).getId()).getName());
+
+        userDAO.deleteAll(Arrays.asList(users.get(0).getId(), users.get(1).getId()));
+        assertEquals(USERS - 2, userDAO.findAll().size());
+    }
+
+    @Test
+    void testFailedBatchWritesNothing() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(new User("Batch " + i, "batch" + i + "@example.com", "5550" + i));
+        }
+        // Duplicate email in the second batch violates the unique constraint
+        users.add(new User("Duplicate", "batch0@example.com", "5550"));
+
+        assertThrows(DatabaseException.class, () -> userDAO.createAll(users));
+        assertEquals(USERS, userDAO.findAll().size());
+
+        int existing = userDAO.findAll().get(0).getId();
+        assertThrows(DatabaseException.class, () -> userDAO.deleteAll(Arrays.asList(existing, existing + 1000)));
+        assertEquals(USERS, userDAO.findAll().size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.cinema.model;
+
+import com.cinema.util.ValidationUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMapTest {
+
+    @Test
+    void testFullHall() {
+        SeatMap seatMap = SeatMap.full(3, 3);
+
+        assertEquals(9, seatMap.count());
+        assertEquals(Arrays.asList("A1", "A2", "A3", "B1", "B2", "B3", "C1", "C2", "C3"), seatMap.toLabels());
+    }
+
+    @Test
+    void testClaimIsAllOrNothing() {
+        SeatMap available = SeatMap.full(3, 3);
+        SeatMap first = available.withSeats(Arrays.asList("A1", "B2"));
+        SeatMap overlapping = available.withSeats(Arrays.asList("B2", "C3"));
+
+        assertTrue(available.claim(first));
+        assertFalse(available.claim(overlapping));
+
+        assertEquals(7, available.count());
+        assertTrue(available.contains("C3"));
+        assertEquals(List.of("B2"), available.missing(overlapping.toLabels()));
+    }
+
+    @Test
+    void testRelease() {
+        SeatMap available = SeatMap.full(2, 4);
+        SeatMap booked = available.withSeats(Arrays.asList("A4", "B1"));
+        available.claim(booked);
+
+        available.release(booked);
+
+        assertEquals(SeatMap.full(2, 4), available);
+    }
+
+    @Test
+    void testSerializeRoundTrip() {
+        SeatMap seatMap = SeatMap.of(10, 12, Arrays.asList("A1", "E7", "J12"));
+
+        String serialized = seatMap.serialize();
+
+        assertTrue(serialized.startsWith("10x12:"));
+        assertEquals(seatMap, SeatMap.parse(serialized));
+    }
+
+    @Test
+    void testParseLegacyLabelList() {
+        SeatMap seatMap = SeatMap.parse("A1,A2, B3");
+
+        assertEquals(Arrays.asList("A1", "A2", "B3"), seatMap.toLabels());
+    }
+
+    @Test
+    void testDifferentGeometries() {
+        SeatMap available = SeatMap.full(3, 3);
+        SeatMap requested = SeatMap.of(Arrays.asList("B2"));
+
+        assertTrue(available.containsAll(requested));
+        assertTrue(available.claim(requested));
+        assertFalse(available.contains("B2"));
+    }
+
+    @Test
+    void testInvalidLabel() {
+        SeatMap seatMap = new SeatMap(3, 3);
+
+        assertThrows(IllegalArgumentException.class, () -> seatMap.add("1A"));
+        assertThrows(IllegalArgumentException.class, () -> seatMap.add("D1"));
+    }
+
+    @Test
+    void testValidSeatNumbersAreExactlyTheLabelsASeatMapHolds() {
+        for (String label : Arrays.asList("A1", "Z99", "C07")) {
+            assertTrue(ValidationUtil.isValidSeatNumber(label), label);
+            assertEquals(1, SeatMap.of(List.of(label)).count());
+        }
+        for (String label : Arrays.asList("A100", "AB1", "A0", "A00", "a1", "1A")) {
+            assertFalse(ValidationUtil.isValidSeatNumber(label), label);
+            assertThrows(IllegalArgumentException.class, () -> SeatMap.of(List.of(label)), label);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.cinema.service;
 
 import com.cinema.dao.BookingDAO;
+import com.cinema.dao.ScreenDAO;
+import com.cinema.dao.SeatInventoryDAO;
+import com.cinema.exception.BookingException;
 import com.cinema.exception.DatabaseException;
 import com.cinema.exception.NotFoundException;
 import com.cinema.exception.ValidationException;
@@ -8,30 +11,57 @@ import com.cinema.model.Booking;
 import com.cinema.model.Screen;
 import com.cinema.model.User;
 import com.cinema.service.impl.BookingServiceImpl;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.StorageProfile;
 import com.cinema.util.TestUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class BookingServiceTest {
 
+    @TempDir
+    Path tempDir;
+
     @Mock
     private BookingDAO bookingDAO;
 
+    @Mock
+    private ScreenDAO screenDAO;
+
+    @Mock
+    private SeatInventoryDAO seatInventoryDAO;
+
     private BookingService bookingService;
 
     @BeforeEach
     void setUp() {
+        // Seat changes open a transaction, which must not touch the real database
+        StorageProfile profile = StorageProfile.load();
+        profile.setUrl("jdbc:sqlite:" + tempDir.resolve("booking-service.db"));
+        DatabaseManager.configure(profile);
+
         MockitoAnnotations.openMocks(this);
         bookingService = new BookingServiceImpl();
         TestUtils.setPrivateField(bookingService, "bookingDAO", bookingDAO);
+        TestUtils.setPrivateField(bookingService, "screenDAO", screenDAO);
+        TestUtils.setPrivateField(bookingService, "seatInventoryDAO", seatInventoryDAO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.configure(StorageProfile.load());
     }
 
     @Test
@@ -58,12 +88,17 @@ class BookingServiceTest {
     }
 
     @Test
-    void testAddBooking() throws DatabaseException, ValidationException {
+    void testAddBooking() throws Exception {
         Booking booking = TestUtils.createTestBooking();
+        Screen screen = booking.getScreen();
+        when(screenDAO.findById(screen.getId())).thenReturn(screen);
+        when(screenDAO.incrementVersion(screen.getId(), screen.getVersion())).thenReturn(true);
+        when(seatInventoryDAO.claimSeats(screen.getId(), booking.getId(), booking.getReservedSeats())).thenReturn(List.of());
 
         bookingService.addBooking(booking);
 
         verify(bookingDAO).create(booking);
+        verify(seatInventoryDAO).claimSeats(screen.getId(), booking.getId(), booking.getReservedSeats());
     }
 
     @Test
@@ -74,24 +109,51 @@ class BookingServiceTest {
     }
 
     @Test
-    void testUpdateBooking() throws DatabaseException, ValidationException, NotFoundException {
+    void testUpdateBooking() throws DatabaseException, ValidationException, NotFoundException, BookingException {
         Booking booking = TestUtils.createTestBooking();
         when(bookingDAO.findById(booking.getId())).thenReturn(booking);
+        when(seatInventoryDAO.findSeatsForBooking(booking.getId()))
+                .thenReturn(Map.of(booking.getScreen().getId(), booking.getReservedSeats()));
 
         bookingService.updateBooking(booking);
 
-        verify(bookingDAO).update(booking);
+        verify(bookingDAO).updateAll(Arrays.asList(booking));
+        verify(seatInventoryDAO, never()).releaseSeats(anyInt());
     }
 
+    @Test
+    void testUpdateBookingToOtherSeatsReclaimsThem() throws Exception {
+        Booking booking = TestUtils.createTestBooking();
+        Screen screen = booking.getScreen();
+        when(bookingDAO.findById(booking.getId())).thenReturn(booking);
+        when(seatInventoryDAO.findSeatsForBooking(booking.getId())).thenReturn(Map.of(screen.getId(), List.of("A1", "A3")));
+        when(screenDAO.findById(screen.getId())).thenReturn(screen);
+        when(screenDAO.incrementVersion(screen.getId(), screen.getVersion())).thenReturn(true);
+        when(seatInventoryDAO.claimSeats(screen.getId(), booking.getId(), booking.getReservedSeats())).thenReturn(List.of());
+
+        bookingService.updateBooking(booking);
+
+        verify(screenDAO).incrementVersion(screen.getId(), screen.getVersion());
+        verify(seatInventoryDAO).releaseSeats(booking.getId());
+        verify(bookingDAO).update(booking);
+        verify(seatInventoryDAO).claimSeats(screen.getId(), booking.getId(), booking.getReservedSeats());
+        verify(bookingDAO, never()).updateAll(anyList());
+    }
 
     @Test
-    void testDeleteBooking() throws DatabaseException, NotFoundException {
+    void testDeleteBooking() throws DatabaseException, NotFoundException, BookingException {
         int bookingId = 1;
         Booking booking = TestUtils.createTestBooking();
+        Screen screen = booking.getScreen();
         when(bookingDAO.findById(bookingId)).thenReturn(booking);
+        when(seatInventoryDAO.findSeatsForBooking(bookingId)).thenReturn(Map.of(screen.getId(), booking.getReservedSeats()));
+        when(screenDAO.findById(screen.getId())).thenReturn(screen);
+        when(screenDAO.incrementVersion(screen.getId(), screen.getVersion())).thenReturn(true);
 
         bookingService.deleteBooking(bookingId);
 
+        verify(screenDAO).incrementVersion(screen.getId(), screen.getVersion());
+        verify(seatInventoryDAO).releaseSeats(bookingId);
         verify(bookingDAO).delete(bookingId);
     }
 
@@ -103,11 +165,11 @@ class BookingServiceTest {
         boolean ascending = true;
 
         List<Booking> expectedBookings = Arrays.asList(TestUtils.createTestBooking(), TestUtils.createTestBooking());
-        when(bookingDAO.searchBookings(searchTerm, sortBy, ascending)).thenReturn(expectedBookings);
+        when(bookingDAO.searchBookings(searchTerm, searchBy, sortBy, ascending)).thenReturn(expectedBookings);
 
         List<Booking> actualBookings = bookingService.searchBookings(searchTerm, searchBy, sortBy, ascending);
 
         assertEquals(expectedBookings, actualBookings);
-        verify(bookingDAO).searchBookings(searchTerm, sortBy, ascending);
+        verify(bookingDAO).searchBookings(searchTerm, searchBy, sortBy, ascending);
     }
 }
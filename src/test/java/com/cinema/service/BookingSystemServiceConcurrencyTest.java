@@ -0,0 +1,285 @@
+package com.cinema.service;
+
+import com.cinema.dao.ScreenDAO;
+import com.cinema.dao.TheaterDAO;
+import com.cinema.dao.UserDAO;
+import com.cinema.exception.BookingException;
+import com.cinema.exception.DatabaseException;
+import com.cinema.exception.NotFoundException;
+import com.cinema.exception.SeatUnavailableException;
+import com.cinema.model.Booking;
+import com.cinema.model.Screen;
+import com.cinema.model.SeatHold;
+import com.cinema.model.Theater;
+import com.cinema.model.User;
+import com.cinema.service.impl.BookingServiceImpl;
+import com.cinema.service.impl.BookingSystemServiceImpl;
+import com.cinema.service.impl.StripedSeatAllocator;
+import com.cinema.util.DatabaseManager;
+import com.cinema.util.StorageProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link BookingSystemServiceImpl} against a real SQLite database in a
+ * temporary directory.
+ */
+class BookingSystemServiceConcurrencyTest {
+
+    private static final int BOOKERS = 64;
+    private static final int SEAT_PAIRS = 16;
+
+    @TempDir
+    Path tempDir;
+
+    private BookingSystemService bookingSystemService;
+    private Screen screen;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StorageProfile profile = StorageProfile.load();
+        profile.setUrl("jdbc:sqlite:" + tempDir.resolve("cinema-test.db"));
+        DatabaseManager.configure(profile);
+        DatabaseManager.initializeDatabase();
+
+        Theater theater = new Theater();
+        theater.setName("Test Theater");
+        theater.setAddress("123 Test St");
+        new TheaterDAO().create(theater);
+
+        screen = new Screen("Test Movie", LocalDateTime.now().plusDays(1), theater);
+        new ScreenDAO().create(screen);
+
+        UserDAO userDAO = new UserDAO();
+        users = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            User user = new User();
+            user.setName("User " + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPhoneNumber("1234567890");
+            users.add(userDAO.create(user));
+        }
+
+        bookingSystemService = new BookingSystemServiceImpl();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.configure(StorageProfile.load());
+    }
+
+    @Test
+    void testConcurrentBookersNeverDoubleSellSeats() throws Exception {
+        assertNoSeatSoldTwice(bookingSystemService);
+    }
+
+    @Test
+    void testConcurrentBookersNeverDoubleSellSeatsWithAllocator() throws Exception {
+        try (StripedSeatAllocator allocator = new StripedSeatAllocator();
+             BookingSystemServiceImpl service = new BookingSystemServiceImpl(allocator)) {
+            assertNoSeatSoldTwice(service);
+        }
+    }
+
+    @Test
+    void testAllocatorSeesSeatsFreedOutsideIt() throws Exception {
+        try (StripedSeatAllocator allocator = new StripedSeatAllocator();
+             BookingSystemServiceImpl service = new BookingSystemServiceImpl(allocator)) {
+            Booking booking = service.bookSeats(users.get(0).getId(), screen.getId(), Arrays.asList("J1", "J2"));
+            service.holdSeats(users.get(1).getId(), screen.getId(), Arrays.asList("J3"), Duration.ofMinutes(5));
+
+            new BookingServiceImpl().deleteBooking(booking.getId());
+
+            service.bookSeats(users.get(2).getId(), screen.getId(), Arrays.asList("J1", "J2"));
+            assertThrows(SeatUnavailableException.class,
+                    () -> service.bookSeats(users.get(3).getId(), screen.getId(), Arrays.asList("J3")));
+        }
+    }
+
+    @Test
+    void testBookingThroughAClosedAllocatorFailsAndFreesTheSeats() throws Exception {
+        StripedSeatAllocator allocator = new StripedSeatAllocator();
+        try (BookingSystemServiceImpl service = new BookingSystemServiceImpl(allocator)) {
+            allocator.close();
+
+            assertThrows(DatabaseException.class,
+                    () -> service.bookSeats(users.get(0).getId(), screen.getId(), Arrays.asList("G1")));
+            assertTrue(service.getAvailableSeats(screen.getId()).contains("G1"));
+            assertEquals(0, countRows("SELECT COUNT(*) FROM bookings WHERE screen_id = " + screen.getId()));
+        }
+    }
+
+    private void assertNoSeatSoldTwice(BookingSystemService service) throws Exception {
+        // Four bookers compete for each pair of seats
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Booking>> results = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            int userId = users.get(i).getId();
+            int column = i % SEAT_PAIRS + 1;
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    return service.bookSeats(userId, screen.getId(), Arrays.asList("A" + column, "B" + column));
+                } catch (SeatUnavailableException e) {
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        Set<String> soldSeats = new HashSet<>();
+        int successes = 0;
+        for (Future<Booking> result : results) {
+            Booking booking = result.get();
+            if (booking != null) {
+                successes++;
+                for (String seat : booking.getReservedSeats()) {
+                    assertTrue(soldSeats.add(seat), "Seat " + seat + " was sold twice");
+                }
+            }
+        }
+        assertTrue(successes > 0);
+        assertTrue(successes <= SEAT_PAIRS);
+
+        assertEquals(soldSeats.size(), countRows("SELECT COUNT(*) FROM seat_inventory WHERE screen_id = " + screen.getId()));
+        assertEquals(successes, countRows("SELECT COUNT(*) FROM bookings WHERE screen_id = " + screen.getId()));
+        List<String> available = service.getAvailableSeats(screen.getId());
+        assertEquals(120 - soldSeats.size(), available.size());
+        for (String seat : soldSeats) {
+            assertFalse(available.contains(seat));
+        }
+    }
+
+    @Test
+    void testCancelBookingReleasesSeatsAndAdvancesVersion() throws Exception {
+        int versionBefore = new ScreenDAO().findById(screen.getId()).getVersion();
+        Booking booking = bookingSystemService.bookSeats(users.get(0).getId(), screen.getId(), Arrays.asList("C1", "C2"));
+        assertFalse(bookingSystemService.getAvailableSeats(screen.getId()).contains("C1"));
+
+        bookingSystemService.cancelBooking(booking.getId());
+
+        assertTrue(bookingSystemService.getAvailableSeats(screen.getId()).containsAll(Arrays.asList("C1", "C2")));
+        assertEquals(versionBefore + 2, new ScreenDAO().findById(screen.getId()).getVersion());
+        assertEquals(0, countRows("SELECT COUNT(*) FROM seat_inventory WHERE screen_id = " + screen.getId()));
+    }
+
+    @Test
+    void testBookingAlreadySoldSeatFails() throws Exception {
+        bookingSystemService.bookSeats(users.get(0).getId(), screen.getId(), Arrays.asList("D1"));
+
+        assertThrows(SeatUnavailableException.class,
+                () -> bookingSystemService.bookSeats(users.get(1).getId(), screen.getId(), Arrays.asList("D1", "D2")));
+        assertThrows(BookingException.class,
+                () -> bookingSystemService.bookSeats(users.get(1).getId(), screen.getId(), new ArrayList<>()));
+    }
+
+    @Test
+    void testAddingBookingsDirectlyCannotSellASeatTwice() throws Exception {
+        BookingService bookingService = new BookingServiceImpl();
+        Booking first = new Booking(users.get(0), screen, Arrays.asList("H1", "H2"));
+        Booking second = new Booking(users.get(1), screen, Arrays.asList("H2", "H3"));
+
+        bookingService.addBooking(first);
+        assertThrows(SeatUnavailableException.class, () -> bookingService.addBooking(second));
+
+        assertEquals(0, second.getId());
+        assertEquals(1, countRows("SELECT COUNT(*) FROM bookings WHERE screen_id = " + screen.getId()));
+        assertEquals(2, countRows("SELECT COUNT(*) FROM seat_inventory WHERE booking_id = " + first.getId()));
+        assertFalse(bookingSystemService.getAvailableSeats(screen.getId()).contains("H2"));
+    }
+
+    @Test
+    void testEditingOrDeletingABookingMovesItsSeats() throws Exception {
+        BookingService bookingService = new BookingServiceImpl();
+        Booking alice = bookingSystemService.bookSeats(users.get(0).getId(), screen.getId(), Arrays.asList("F1", "F2"));
+        bookingSystemService.bookSeats(users.get(1).getId(), screen.getId(), Arrays.asList("F3"));
+
+        Booking taken = bookingService.getBookingById(alice.getId());
+        taken.setReservedSeats(Arrays.asList("F2", "F3"));
+        assertThrows(SeatUnavailableException.class, () -> bookingService.updateBooking(taken));
+        assertEquals(2, countRows("SELECT COUNT(*) FROM seat_inventory WHERE booking_id = " + alice.getId()
+                + " AND seat_label IN ('F1', 'F2')"));
+
+        int versionBefore = new ScreenDAO().findById(screen.getId()).getVersion();
+        Booking moved = bookingService.getBookingById(alice.getId());
+        moved.setReservedSeats(Arrays.asList("F2", "F4"));
+        bookingService.updateBooking(moved);
+        assertEquals(versionBefore + 1, new ScreenDAO().findById(screen.getId()).getVersion());
+        List<String> available = bookingSystemService.getAvailableSeats(screen.getId());
+        assertTrue(available.contains("F1"));
+        assertFalse(available.contains("F4"));
+        bookingSystemService.bookSeats(users.get(2).getId(), screen.getId(), Arrays.asList("F1"));
+
+        bookingService.deleteBooking(alice.getId());
+        assertEquals(0, countRows("SELECT COUNT(*) FROM seat_inventory WHERE booking_id = " + alice.getId()));
+        assertTrue(bookingSystemService.getAvailableSeats(screen.getId()).containsAll(Arrays.asList("F2", "F4")));
+    }
+
+    @Test
+    void testHeldSeatsAreTakenUntilConfirmedReleasedOrExpired() throws Exception {
+        try (StripedSeatAllocator allocator = new StripedSeatAllocator();
+             BookingSystemServiceImpl service = new BookingSystemServiceImpl(allocator, 20)) {
+            int userId = users.get(0).getId();
+
+            SeatHold confirmed = service.holdSeats(userId, screen.getId(), Arrays.asList("E1", "E2"), Duration.ofMinutes(5));
+            SeatHold released = service.holdSeats(userId, screen.getId(), Arrays.asList("E3"), Duration.ofMinutes(5));
+            service.holdSeats(userId, screen.getId(), Arrays.asList("E4"), Duration.ofMillis(100));
+            assertThrows(SeatUnavailableException.class,
+                    () -> service.holdSeats(users.get(1).getId(), screen.getId(), Arrays.asList("E1"), Duration.ofMinutes(5)));
+            assertEquals(0, countRows("SELECT COUNT(*) FROM bookings WHERE screen_id = " + screen.getId()));
+
+            Booking booking = service.confirmHold(confirmed.getId());
+            assertEquals(Arrays.asList("E1", "E2"), booking.getReservedSeats());
+            assertEquals(2, countRows("SELECT COUNT(*) FROM seat_inventory WHERE booking_id = " + booking.getId()));
+            assertThrows(NotFoundException.class, () -> service.confirmHold(confirmed.getId()));
+
+            service.releaseHold(released.getId());
+            assertTrue(service.getAvailableSeats(screen.getId()).contains("E3"));
+
+            long deadline = System.currentTimeMillis() + 2000;
+            while (!service.getAvailableSeats(screen.getId()).contains("E4")) {
+                assertTrue(System.currentTimeMillis() < deadline, "Expired hold was not released");
+                Thread.sleep(10);
+            }
+            assertFalse(service.getAvailableSeats(screen.getId()).contains("E1"));
+
+            service.holdSeats(userId, screen.getId(), Arrays.asList("E5"), Duration.ofMinutes(5));
+            service.close();
+            assertTrue(allocator.getAvailableSeats(screen.getId()).contains("E5"));
+        }
+    }
+
+    private int countRows(String sql) throws Exception {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cinema.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateTimeUtilTest {
+
+    @Test
+    void testEpochMillisRoundTrip() {
+        LocalDateTime[] times = {
+                LocalDateTime.of(2025, 1, 19, 10, 52, 8, 487_000_000),
+                LocalDateTime.of(1970, 1, 1, 0, 0),
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000),
+                LocalDateTime.of(2038, 1, 19, 3, 14, 8)
+        };
+        for (LocalDateTime time : times) {
+            assertEquals(time, DateTimeUtil.fromEpochMillis(DateTimeUtil.toEpochMillis(time)));
+        }
+        assertEquals(-1, DateTimeUtil.toEpochMillis(times[2]));
+        // Precision below a millisecond is dropped
+        assertEquals(times[0], DateTimeUtil.fromEpochMillis(
+                DateTimeUtil.toEpochMillis(times[0].plusNanos(628_300))));
+    }
+
+    @Test
+    void testEncodingMatchesSqliteMigration() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT strftime('%s', ?) * 1000 + CAST(substr(strftime('%f', ?), 4) AS INTEGER)")) {
+            for (String text : new String[]{"2025-01-19T10:52:08.487", "2025-01-18 10:52:08"}) {
+                stmt.setString(1, text);
+                stmt.setString(2, text);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    assertTrue(rs.next());
+                    LocalDateTime expected = LocalDateTime.parse(text.replace(' ', 'T'));
+                    assertEquals(DateTimeUtil.toEpochMillis(expected), rs.getLong(1));
+                }
+            }
+        }
+    }
+}
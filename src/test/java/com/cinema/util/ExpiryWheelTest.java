@@ -0,0 +1,60 @@
+package com.cinema.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiryWheelTest {
+
+    @Test
+    void testItemsExpireInOneBatchAfterTheirDelay() throws InterruptedException {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        try (ExpiryWheel<String> wheel = new ExpiryWheel<>(20, 8, batches::add)) {
+            wheel.schedule("a", 50);
+            wheel.schedule("b", 50);
+            assertEquals(2, wheel.size());
+
+            waitFor(() -> !batches.isEmpty(), 2000);
+            assertEquals(List.of("a", "b"), batches.get(0));
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Test
+    void testCancelledItemDoesNotExpire() throws InterruptedException {
+        List<String> expired = new CopyOnWriteArrayList<>();
+        try (ExpiryWheel<String> wheel = new ExpiryWheel<>(10, 4, expired::addAll)) {
+            ExpiryWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 30);
+            wheel.schedule("kept", 30);
+            assertTrue(cancelled.cancel());
+            assertFalse(cancelled.cancel());
+
+            waitFor(() -> !expired.isEmpty(), 2000);
+            Thread.sleep(50);
+            assertEquals(List.of("kept"), expired);
+        }
+    }
+
+    @Test
+    void testDelayLongerThanOneRevolution() throws InterruptedException {
+        List<String> expired = new CopyOnWriteArrayList<>();
+        try (ExpiryWheel<String> wheel = new ExpiryWheel<>(10, 4, expired::addAll)) {
+            long start = System.nanoTime();
+            wheel.schedule("late", 150);
+
+            waitFor(() -> !expired.isEmpty(), 2000);
+            assertTrue((System.nanoTime() - start) / 1_000_000 >= 140);
+        }
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for expiry");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.cinema.util;
+
+import com.cinema.dao.UserDAO;
+import com.cinema.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ExternalChangeMonitor} on a temporary database, with a plain JDBC
+ * connection standing in for another process.
+ */
+class ExternalChangeMonitorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String url;
+    private final Semaphore changes = new Semaphore(0);
+    private final Runnable listener = changes::release;
+
+    @BeforeEach
+    void setUp() {
+        url = "jdbc:sqlite:" + tempDir.resolve("changes.db");
+        StorageProfile profile = StorageProfile.load();
+        profile.setUrl(url);
+        RuntimeSettings settings = RuntimeSettings.load();
+        settings.setExternalChangePollMillis(20);
+        DatabaseManager.configure(profile, settings);
+        DatabaseManager.initializeDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ExternalChangeMonitor.removeListener(listener);
+        DatabaseManager.configure(StorageProfile.load());
+    }
+
+    @Test
+    void testOnlyChangesFromOtherConnectionsAreReported() throws Exception {
+        ExternalChangeMonitor.addListener(listener);
+        UserDAO userDAO = new UserDAO();
+        for (int i = 0; i < 5; i++) {
+            userDAO.create(new User("Local " + i, "local" + i + "@example.com", "555010" + i));
+            Thread.sleep(30);
+        }
+        assertFalse(changes.tryAcquire(200, TimeUnit.MILLISECONDS));
+
+        try (Connection other = DriverManager.getConnection(url);
+             Statement stmt = other.createStatement()) {
+            stmt.executeUpdate("UPDATE users SET name = 'Changed Elsewhere' WHERE email = 'local0@example.com'");
+        }
+        assertTrue(changes.tryAcquire(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testRemovedListenersAreNotCalled() throws Exception {
+        ExternalChangeMonitor.addListener(listener);
+        Thread.sleep(100);
+        ExternalChangeMonitor.removeListener(listener);
+
+        try (Connection other = DriverManager.getConnection(url);
+             Statement stmt = other.createStatement()) {
+            stmt.executeUpdate("INSERT INTO theaters (name, address) VALUES ('Elsewhere', '1 Far Rd')");
+        }
+        assertFalse(changes.tryAcquire(200, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,105 @@
+package com.cinema.util;
+
+import com.cinema.exception.DatabaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        StorageProfile profile = StorageProfile.load();
+        profile.setUrl("jdbc:sqlite:" + tempDir.resolve("migrations.db"));
+        DatabaseManager.configure(profile);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.configure(StorageProfile.load());
+    }
+
+    @Test
+    void testAppliesPendingMigrationsOnce() throws Exception {
+        MigrationRunner runner = new MigrationRunner(Arrays.asList(
+                new Migration(1, "Create items", "CREATE TABLE items (id INTEGER PRIMARY KEY, name TEXT)"),
+                new Migration(2, "Index items", "CREATE INDEX idx_items_name ON items (name)")));
+
+        assertEquals(2, runner.migrate());
+        assertEquals(0, runner.migrate());
+        assertEquals(2, runner.getCurrentVersion());
+        assertEquals(1, count("SELECT COUNT(*) FROM sqlite_master WHERE name = 'idx_items_name'"));
+    }
+
+    @Test
+    void testFailedMigrationIsRolledBackAndNotRecorded() throws Exception {
+        MigrationRunner runner = new MigrationRunner(Arrays.asList(
+                new Migration(1, "Create items", "CREATE TABLE items (id INTEGER PRIMARY KEY)"),
+                new Migration(2, "Broken", "CREATE TABLE more_items (id INTEGER PRIMARY KEY)", "NOT SQL")));
+
+        assertThrows(DatabaseException.class, runner::migrate);
+        assertEquals(1, runner.getCurrentVersion());
+        assertEquals(0, count("SELECT COUNT(*) FROM sqlite_master WHERE name = 'more_items'"));
+    }
+
+    @Test
+    void testChangedMigrationIsRejected() throws Exception {
+        new MigrationRunner(Collections.singletonList(
+                new Migration(1, "Create items", "CREATE TABLE items (id INTEGER PRIMARY KEY)"))).migrate();
+
+        MigrationRunner changed = new MigrationRunner(Collections.singletonList(
+                new Migration(1, "Create items", "CREATE TABLE items (id INTEGER PRIMARY KEY, name TEXT)")));
+        assertThrows(DatabaseException.class, changed::migrate);
+    }
+
+    @Test
+    void testUnknownAppliedVersionIsRejected() throws Exception {
+        new MigrationRunner(Arrays.asList(
+                new Migration(1, "Create items", "CREATE TABLE items (id INTEGER PRIMARY KEY)"),
+                new Migration(2, "Index items", "CREATE INDEX idx_items_id ON items (id)"))).migrate();
+
+        MigrationRunner older = new MigrationRunner(Collections.singletonList(
+                new Migration(1, "Create items", "CREATE TABLE items (id INTEGER PRIMARY KEY)")));
+        assertThrows(DatabaseException.class, older::migrate);
+    }
+
+    @Test
+    void testMigrationsMustBeOrdered() {
+        assertThrows(IllegalArgumentException.class, () -> new MigrationRunner(Arrays.asList(
+                new Migration(2, "Second", "SELECT 1"),
+                new Migration(1, "First", "SELECT 1"))));
+    }
+
+    @Test
+    void testApplicationSchemaMigratesFreshDatabase() throws Exception {
+        MigrationRunner runner = new MigrationRunner(DatabaseManager.migrations());
+        runner.migrate();
+
+        assertEquals(DatabaseManager.migrations().size(), runner.getCurrentVersion());
+        assertEquals(1, count("SELECT COUNT(*) FROM sqlite_master WHERE name = 'idx_bookings_user_id'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM pragma_table_info('screens') WHERE name = 'available_seats'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM pragma_table_info('screens') WHERE name = 'auditorium_id'"));
+    }
+
+    private int count(String sql) throws Exception {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
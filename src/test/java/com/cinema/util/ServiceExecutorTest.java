@@ -0,0 +1,106 @@
+package com.cinema.util;
+
+import com.cinema.exception.DatabaseException;
+import com.cinema.exception.NotFoundException;
+import com.cinema.model.User;
+import com.cinema.service.UserService;
+import com.cinema.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Async service calls through {@link ServiceExecutor} on a temporary database.
+ */
+class ServiceExecutorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        StorageProfile profile = StorageProfile.load();
+        profile.setUrl("jdbc:sqlite:" + tempDir.resolve("async.db"));
+        RuntimeSettings settings = RuntimeSettings.load();
+        settings.setAsyncVirtualThreads(false);
+        settings.setAsyncThreads(2);
+        DatabaseManager.configure(profile, settings);
+        DatabaseManager.initializeDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.configure(StorageProfile.load());
+    }
+
+    @Test
+    void testConcurrentLookupsCompleteWithResultsOrServiceExceptions() throws Exception {
+        UserService userService = new UserServiceImpl();
+        User alice = userService.addUser(new User("Alice Smith", "alice@example.com", "5550100"));
+
+        List<CompletableFuture<User>> lookups = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lookups.add(userService.getUserByIdAsync(alice.getId()));
+        }
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        for (CompletableFuture<User> lookup : lookups) {
+            assertEquals("Alice Smith", lookup.join().getName());
+        }
+
+        ExecutionException missing = assertThrows(ExecutionException.class,
+                () -> userService.getUserByIdAsync(alice.getId() + 1).get(10, TimeUnit.SECONDS));
+        assertTrue(missing.getCause() instanceof NotFoundException);
+
+        String thread = ServiceExecutor.supply(() -> Thread.currentThread().getName()).get(10, TimeUnit.SECONDS);
+        assertTrue(thread.startsWith("service-async-"), thread);
+    }
+
+    @Test
+    void testCancellingInterruptsTheRunningCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<Void> call = ServiceExecutor.run(() -> sleep(started, interrupted));
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        assertTrue(call.cancel(true));
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        assertTrue(call.isCancelled());
+    }
+
+    @Test
+    void testTimeoutFailsTheFutureAndInterruptsTheCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> call = ServiceExecutor.supply(() -> {
+            sleep(started, interrupted);
+            return "too late";
+        }, Duration.ofMillis(100));
+
+        ExecutionException timeout = assertThrows(ExecutionException.class, () -> call.get(10, TimeUnit.SECONDS));
+        assertTrue(timeout.getCause() instanceof TimeoutException);
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    private static void sleep(CountDownLatch started, CountDownLatch interrupted) throws DatabaseException {
+        started.countDown();
+        try {
+            Thread.sleep(30_000);
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+            throw new DatabaseException("Interrupted", e);
+        }
+    }
+}
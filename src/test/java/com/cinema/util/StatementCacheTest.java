@@ -0,0 +1,117 @@
+package com.cinema.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement reuse through {@link ConnectionPool} connections.
+ */
+class StatementCacheTest {
+
+    private static final String SELECT_ITEM = "SELECT name FROM items WHERE id = ?";
+
+    @TempDir
+    Path tempDir;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = new ConnectionPool("jdbc:sqlite:" + tempDir.resolve("statements.db"), 1, 1_000, 0, 0, null, 2);
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE items (id INTEGER PRIMARY KEY, name TEXT)");
+            stmt.execute("INSERT INTO items (name) VALUES ('first'), ('second')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testClosedStatementIsReusedWithFreshParameters() throws Exception {
+        assertEquals("first", selectName(1));
+        assertEquals("second", selectName(2));
+        assertEquals("first", selectName(1));
+
+        assertEquals(1, pool.getStatementCacheMisses());
+        assertEquals(2, pool.getStatementCacheHits());
+    }
+
+    @Test
+    void testStatementInUseIsNotHandedOutTwice() throws Exception {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement outer = conn.prepareStatement(SELECT_ITEM);
+             PreparedStatement inner = conn.prepareStatement(SELECT_ITEM)) {
+            assertNotSame(outer, inner);
+            assertSame(conn, outer.getConnection());
+            outer.setInt(1, 1);
+            inner.setInt(1, 2);
+            try (ResultSet first = outer.executeQuery(); ResultSet second = inner.executeQuery()) {
+                assertTrue(first.next());
+                assertTrue(second.next());
+                assertEquals("first", first.getString(1));
+                assertEquals("second", second.getString(1));
+            }
+        }
+        assertEquals(2, pool.getStatementCacheMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedStatementsAreEvicted() throws Exception {
+        try (Connection conn = pool.getConnection()) {
+            for (String sql : new String[]{"SELECT 1", "SELECT 2", "SELECT 3", "SELECT 3", "SELECT 1"}) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.executeQuery();
+                }
+            }
+        }
+        // "SELECT 1" was evicted by "SELECT 3", so only "SELECT 3" was found again
+        assertEquals(1, pool.getStatementCacheHits());
+        assertEquals(4, pool.getStatementCacheMisses());
+    }
+
+    @Test
+    void testClosedStatementRejectsUseAndUnreadRowsDoNotLeak() throws Exception {
+        PreparedStatement leaked;
+        try (Connection conn = pool.getConnection()) {
+            leaked = conn.prepareStatement(SELECT_ITEM);
+            leaked.setInt(1, 1);
+            leaked.executeQuery();
+            leaked.close();
+            assertTrue(leaked.isClosed());
+            assertThrows(SQLException.class, leaked::executeQuery);
+
+            // The reused statement starts without the old parameter or open rows
+            try (PreparedStatement stmt = conn.prepareStatement("UPDATE items SET name = ? WHERE id = ?")) {
+                stmt.setString(1, "renamed");
+                stmt.setInt(2, 1);
+                assertEquals(1, stmt.executeUpdate());
+            }
+        }
+        assertEquals("renamed", selectName(1));
+    }
+
+    private String selectName(int id) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_ITEM)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
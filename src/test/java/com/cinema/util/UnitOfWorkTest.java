@@ -0,0 +1,107 @@
+package com.cinema.util;
+
+import com.cinema.dao.ScreenDAO;
+import com.cinema.dao.TheaterDAO;
+import com.cinema.dao.UserDAO;
+import com.cinema.model.Screen;
+import com.cinema.model.Theater;
+import com.cinema.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteConnection;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link UnitOfWork} scopes on a temporary database.
+ */
+class UnitOfWorkTest {
+
+    @TempDir
+    Path tempDir;
+
+    private UserDAO userDAO;
+    private ScreenDAO screenDAO;
+    private User alice;
+    private User bob;
+    private Screen dune;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StorageProfile profile = StorageProfile.load();
+        profile.setUrl("jdbc:sqlite:" + tempDir.resolve("work.db"));
+        DatabaseManager.configure(profile);
+        DatabaseManager.initializeDatabase();
+
+        userDAO = new UserDAO();
+        screenDAO = new ScreenDAO();
+        alice = userDAO.create(new User("Alice Smith", "alice@example.com", "5550100"));
+        bob = userDAO.create(new User("Bob Jones", "bob@example.com", "5550101"));
+        Theater theater = new TheaterDAO().create(new Theater("Test Theater", "123 Test St"));
+        dune = screenDAO.create(new Screen("Dune Part Two", LocalDateTime.now().plusDays(2), theater));
+    }
+
+    @AfterEach
+    void tearDown() {
+        DatabaseManager.configure(StorageProfile.load());
+    }
+
+    @Test
+    void testEntitiesAndConnectionAreSharedWithinTheUnit() throws Exception {
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            assertSame(userDAO.findById(alice.getId()), userDAO.findById(alice.getId()));
+            Screen screen = screenDAO.findById(dune.getId());
+            assertSame(screen, screenDAO.findById(dune.getId()));
+
+            try (Connection first = DatabaseManager.getConnection();
+                 Connection second = DatabaseManager.getConnection();
+                 Transaction tx = DatabaseManager.beginTransaction()) {
+                assertSame(first.unwrap(SQLiteConnection.class), second.unwrap(SQLiteConnection.class));
+                assertSame(first.unwrap(SQLiteConnection.class), DatabaseManager.getConnection().unwrap(SQLiteConnection.class));
+            }
+
+            // A write makes the next read load the screen again
+            screenDAO.incrementVersion(dune.getId());
+            assertNotSame(screen, screenDAO.findById(dune.getId()));
+        }
+        assertNotSame(userDAO.findById(alice.getId()), userDAO.findById(alice.getId()));
+    }
+
+    @Test
+    void testDirtyEntitiesAreWrittenOnOutermostCommit() throws Exception {
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            User user = userDAO.findById(alice.getId());
+            user.setName("Alice Brown");
+            work.registerDirty(User.class, user, userDAO::updateAll);
+
+            try (UnitOfWork nested = UnitOfWork.begin()) {
+                User other = userDAO.findById(bob.getId());
+                other.setName("Bob Brown");
+                nested.registerDirty(User.class, other, userDAO::updateAll);
+                nested.registerDirty(User.class, other, userDAO::updateAll);
+                nested.commit();
+            }
+            assertEquals("Bob Jones", new UserDAO().searchUsers("bob", null, null, true).get(0).getName());
+            work.commit();
+        }
+        assertEquals("Alice Brown", userDAO.findById(alice.getId()).getName());
+        assertEquals("Bob Brown", userDAO.findById(bob.getId()).getName());
+    }
+
+    @Test
+    void testClosingWithoutCommitDiscardsChanges() throws Exception {
+        try (UnitOfWork work = UnitOfWork.begin()) {
+            User user = userDAO.findById(alice.getId());
+            user.setName("Alice Brown");
+            work.registerDirty(User.class, user, userDAO::updateAll);
+        }
+        assertNull(UnitOfWork.current());
+        assertEquals("Alice Smith", userDAO.findById(alice.getId()).getName());
+    }
+}